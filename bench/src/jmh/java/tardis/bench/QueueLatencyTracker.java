@@ -0,0 +1,50 @@
+package tardis.bench;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import tardis.metrics.Histogram;
+
+/**
+ * Measures how long the items wait in a buffer, 
+ * from when they are put to when they are consumed.
+ * The items are tracked by identity.
+ * 
+ * @author Pietro Braione
+ */
+final class QueueLatencyTracker {
+    private final ConcurrentHashMap<Object, Long> timestamps = new ConcurrentHashMap<>();
+    private final Histogram latency;
+
+    /**
+     * Constructor.
+     * 
+     * @param latency the {@link Histogram} where the 
+     *        latencies are recorded, in microseconds.
+     */
+    QueueLatencyTracker(Histogram latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Records that an item is about to be put in the buffer.
+     * 
+     * @param item an {@link Object}.
+     */
+    void put(Object item) {
+        this.timestamps.put(item, System.nanoTime());
+    }
+
+    /**
+     * Records that an item was consumed. Items that
+     * were not put through {@link #put(Object)} (e.g., 
+     * the seed) are ignored.
+     * 
+     * @param item an {@link Object}.
+     */
+    void consumed(Object item) {
+        final Long timestamp = this.timestamps.remove(item);
+        if (timestamp != null) {
+            this.latency.updateMicrosSince(timestamp);
+        }
+    }
+}
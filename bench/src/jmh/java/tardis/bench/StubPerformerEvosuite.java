@@ -0,0 +1,101 @@
+package tardis.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tardis.framework.InputBuffer;
+import tardis.framework.OutputBuffer;
+import tardis.framework.PerformerPausableFixedThreadPoolExecutor;
+import tardis.implementation.evosuite.EvosuiteResult;
+import tardis.implementation.evosuite.TestCase;
+import tardis.implementation.jbse.JBSEResult;
+
+/**
+ * A deterministic stand-in for the EvoSuite performer. It 
+ * "solves" each path condition after a fixed delay, and 
+ * emits a synthetic test for it, except for one every 
+ * {@code unsolvedPeriod} path conditions, that it fails to
+ * solve. The emitted tests have an empty source file, and
+ * are never compiled nor run.
+ * 
+ * @author Pietro Braione
+ */
+final class StubPerformerEvosuite extends PerformerPausableFixedThreadPoolExecutor<JBSEResult, EvosuiteResult> {
+    private final Path testsDirectory;
+    private final long testGenerationMillis;
+    private final int unsolvedPeriod;
+    private final QueueLatencyTracker latencyOut;
+    private final AtomicLong numOfPathConditions = new AtomicLong(0);
+    private final AtomicLong numOfTests = new AtomicLong(0);
+
+    /**
+     * Constructor.
+     * 
+     * @param in the {@link InputBuffer} of the path conditions.
+     * @param out the {@link OutputBuffer} of the tests.
+     * @param numOfThreads a positive {@code int}, the number of workers.
+     * @param testsDirectory a {@link Path}, the directory where the tests are emitted.
+     * @param testGenerationMillis a nonnegative {@code long}, how many milliseconds
+     *        it takes to generate a test.
+     * @param unsolvedPeriod an {@code int}; one path condition every {@code unsolvedPeriod}
+     *        is not solved. If it is less than {@code 1} all the path conditions are solved.
+     * @param latencyOut a {@link QueueLatencyTracker} for {@code out}.
+     */
+    StubPerformerEvosuite(InputBuffer<JBSEResult> in, OutputBuffer<EvosuiteResult> out, int numOfThreads, Path testsDirectory, 
+                          long testGenerationMillis, int unsolvedPeriod, QueueLatencyTracker latencyOut) {
+        super("StubPerformerEvosuite", in, out, numOfThreads, 1, 1.0f, 100, TimeUnit.MILLISECONDS);
+        this.testsDirectory = testsDirectory;
+        this.testGenerationMillis = testGenerationMillis;
+        this.unsolvedPeriod = unsolvedPeriod;
+        this.latencyOut = latencyOut;
+    }
+
+    @Override
+    protected Object[] allocateJob(List<JBSEResult> items) {
+        return null; //nothing to do, and no args to return
+    }
+
+    @Override
+    protected void executeJob(List<JBSEResult> items, Object... args) {
+        for (JBSEResult item : items) {
+            final long count = this.numOfPathConditions.incrementAndGet();
+            try {
+                TimeUnit.MILLISECONDS.sleep(this.testGenerationMillis);
+            } catch (InterruptedException e) {
+                //interrupted by shutdown
+                return;
+            }
+            if (!item.isSeed() && this.unsolvedPeriod > 0 && count % this.unsolvedPeriod == 0) {
+                continue;
+            }
+            final String className = "BenchTest_" + this.numOfTests.incrementAndGet();
+            final TestCase testCase = new TestCase(className, "()V", "test0", this.testsDirectory, false);
+            try {
+                //PerformerJBSE copies the tests that improve coverage
+                Files.write(testCase.getSourcePath(), ("public class " + className + " { public void test0() { } }\n").getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.err.println("Error: cannot write test " + className + ": " + e.toString());
+                continue;
+            }
+            //the test follows the path condition, so the 
+            //exploration starts right after it
+            final EvosuiteResult result = new EvosuiteResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), 
+                                                             item.getPathConditionMangled(), item.getTargetBranch(), testCase, (item.isSeed() ? 0 : item.getDepth()));
+            this.latencyOut.put(result);
+            getOutputBuffer().add(result);
+        }
+    }
+
+    long getNumOfPathConditions() {
+        return this.numOfPathConditions.get();
+    }
+
+    long getNumOfTests() {
+        return this.numOfTests.get();
+    }
+}
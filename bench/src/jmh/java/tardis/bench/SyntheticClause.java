@@ -0,0 +1,81 @@
+package tardis.bench;
+
+import jbse.mem.Clause;
+import jbse.mem.ClauseVisitor;
+
+/**
+ * A synthetic {@link Clause}, standing for the assumption 
+ * taken at some branch of some depth of a synthetic symbolic
+ * execution tree. Its string representation mentions some
+ * symbolic variables in the same format as the JBSE 
+ * symbols, so the clause is meaningful to the slicing 
+ * procedure and to the Bloom filters, but it does not
+ * need a JBSE state or a solver to be built.
+ * 
+ * @author Pietro Braione
+ */
+public final class SyntheticClause implements Clause {
+    private final int depth;
+    private final int branch;
+    private final String text;
+
+    /**
+     * Constructor.
+     * 
+     * @param depth an {@code int}, the depth of the branch.
+     * @param branch an {@code int}, the index of the branch
+     *        among its siblings.
+     * @param numOfVariables a positive {@code int}, the number 
+     *        of distinct symbolic variables the clauses 
+     *        may mention.
+     */
+    public SyntheticClause(int depth, int branch, int numOfVariables) {
+        this.depth = depth;
+        this.branch = branch;
+        final int first = depth % numOfVariables;
+        final int second = (depth * 7 + branch * 3 + 1) % numOfVariables;
+        this.text = "{R0}.f" + first + " + {V" + second + "} " + (branch % 2 == 0 ? ">=" : "<") + " " + branch;
+    }
+
+    /**
+     * Returns the index of the branch.
+     * 
+     * @return an {@code int} between {@code 0}
+     *         and the fan-out (excluded).
+     */
+    public int getBranch() {
+        return this.branch;
+    }
+
+    @Override
+    public void accept(ClauseVisitor v) throws Exception {
+        //nothing to do, synthetic clauses are not visited
+    }
+
+    @Override
+    public SyntheticClause clone() {
+        return this; //immutable
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.depth + this.branch;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final SyntheticClause other = (SyntheticClause) obj;
+        return this.depth == other.depth && this.branch == other.branch;
+    }
+
+    @Override
+    public String toString() {
+        return this.text;
+    }
+}
@@ -0,0 +1,78 @@
+package tardis.bench;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import jbse.mem.Clause;
+
+/**
+ * Generates the path conditions of a synthetic symbolic
+ * execution tree with given depth and fan-out, i.e., 
+ * number of branches at each decision point. The 
+ * generation is deterministic for a given seed.
+ * 
+ * @author Pietro Braione
+ */
+public final class SyntheticPathConditions {
+    /** The entry point of the synthetic path conditions. */
+    public static final String ENTRY_POINT = "bench/Target:()V:target";
+
+    /** The number of distinct symbolic variables the clauses mention. */
+    private static final int NUM_OF_VARIABLES = 16;
+
+    /**
+     * Generates random root-to-leaf path conditions. 
+     * Distinct path conditions share the clauses (i.e., the 
+     * tree nodes) where their branch choices coincide.
+     * 
+     * @param depth a positive {@code int}, the number of 
+     *        clauses of each path condition.
+     * @param fanOut a positive {@code int}, the number of 
+     *        branches at each decision point.
+     * @param numOfPaths a positive {@code int}, the number 
+     *        of path conditions to generate.
+     * @param seed a {@code long}, the random seed.
+     * @return a {@link List}{@code <}{@link List}{@code <}{@link Clause}{@code >>}
+     *         with size {@code numOfPaths}.
+     */
+    public static List<List<Clause>> generate(int depth, int fanOut, int numOfPaths, long seed) {
+        final Random random = new Random(seed);
+        final ArrayList<List<Clause>> retVal = new ArrayList<>(numOfPaths);
+        for (int i = 0; i < numOfPaths; ++i) {
+            final ArrayList<Clause> path = new ArrayList<>(depth);
+            for (int d = 0; d < depth; ++d) {
+                path.add(new SyntheticClause(d, random.nextInt(fanOut), NUM_OF_VARIABLES));
+            }
+            retVal.add(path);
+        }
+        return retVal;
+    }
+
+    /**
+     * Generates a set of synthetic branch identifiers, 
+     * in the format used by the coverage.
+     * 
+     * @param numOfBranches a positive {@code int}, the number
+     *        of branches to generate.
+     * @param numOfClasses a positive {@code int}, the number
+     *        of distinct classes the branches belong to.
+     * @return a {@link Set}{@code <}{@link String}{@code >}.
+     */
+    public static Set<String> branches(int numOfBranches, int numOfClasses) {
+        final HashSet<String> retVal = new HashSet<>();
+        for (int i = 0; i < numOfBranches; ++i) {
+            retVal.add("bench/Target" + (i % numOfClasses) + ":()V:target:" + i + ":" + (i + 3));
+        }
+        return retVal;
+    }
+
+    /**
+     * Do not instantiate!
+     */
+    private SyntheticPathConditions() {
+        //nothing to do
+    }
+}
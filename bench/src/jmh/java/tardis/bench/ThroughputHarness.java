@@ -0,0 +1,161 @@
+package tardis.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+
+import tardis.Options;
+import tardis.framework.TerminationManager;
+import tardis.implementation.data.EvosuiteResultInputOutputBuffer;
+import tardis.implementation.data.JBSEResultInputOutputBuffer;
+import tardis.implementation.data.TreePath;
+import tardis.implementation.jbse.JBSEResult;
+import tardis.implementation.jbse.PerformerJBSE;
+import tardis.implementation.jbse.SyntheticGuidedRunner;
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
+
+/**
+ * End-to-end throughput harness. It wires the TARDIS buffers, 
+ * {@link TreePath}, {@link PerformerJBSE} and {@link TerminationManager}
+ * as {@code tardis.Main} does, but replaces EvoSuite with 
+ * {@link StubPerformerEvosuite}, and the symbolic execution of the tests
+ * with {@link SyntheticGuidedRunner}, so it needs neither EvoSuite, 
+ * nor z3, nor a Java 8 JDK, and a run takes seconds. The exploration,
+ * the coverage and the indices updates, the back-pressure and the 
+ * rescoring of the test cases are those of TARDIS. At the end it 
+ * reports the throughput, the queue latency of the test cases and 
+ * the contention on the {@link TreePath} lock.
+ * 
+ * @author Pietro Braione
+ */
+public final class ThroughputHarness {
+    @Option(name = "-help",
+            usage = "Prints usage and exits")
+    private boolean help = false;
+
+    @Option(name = "-time_budget_seconds",
+            usage = "The maximum duration of a run, in seconds")
+    private long timeBudgetSeconds = 30;
+
+    @Option(name = "-max_depth",
+            usage = "The depth of the synthetic symbolic execution tree, and the maximum depth of the exploration")
+    private int maxDepth = 10;
+
+    @Option(name = "-fan_out",
+            usage = "The number of branches at each decision point of the synthetic symbolic execution tree")
+    private int fanOut = 2;
+
+    @Option(name = "-num_threads_jbse",
+            usage = "The number of threads of the JBSE performer")
+    private int numOfThreadsJBSE = 4;
+
+    @Option(name = "-num_threads_evosuite",
+            usage = "The number of threads of the stub EvoSuite performer")
+    private int numOfThreadsEvosuite = 4;
+
+    @Option(name = "-test_generation_millis",
+            usage = "The time the stub EvoSuite performer takes to generate a test, in milliseconds")
+    private long testGenerationMillis = 5;
+
+    @Option(name = "-solver_micros",
+            usage = "The time the synthetic symbolic execution takes to solve a post-frontier path condition, in microseconds")
+    private long solverMicros = 200;
+
+    @Option(name = "-unsolved_period",
+            usage = "The stub EvoSuite performer fails to solve a path condition every this many; 0 to solve all of them")
+    private int unsolvedPeriod = 5;
+
+    @Option(name = "-path_condition_buffer_high_watermark",
+            usage = "The number of path conditions in the buffer above which the JBSE performer defers the explorations")
+    private int pathConditionBufferHighWatermark = 10_000;
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        final ThroughputHarness harness = new ThroughputHarness();
+        final CmdLineParser parser = new CmdLineParser(harness);
+        try {
+            parser.parseArgument(args);
+        } catch (CmdLineException e) {
+            System.err.println("Error: " + e.getMessage());
+            parser.printUsage(System.err);
+            System.exit(1);
+        }
+        if (harness.help) {
+            parser.printUsage(System.out);
+            return;
+        }
+        harness.run();
+        System.exit(0);
+    }
+
+    private void run() throws InterruptedException, IOException {
+        final Path testsDirectory = Files.createTempDirectory("tardis-bench-tests");
+        final Path outDirectory = Files.createTempDirectory("tardis-bench-out");
+        final Options o = new Options();
+        o.setTargetMethod("bench/Target", "()V", "target");
+        o.setMaxDepth(this.maxDepth);
+        o.setGlobalTimeBudgetDuration(this.timeBudgetSeconds);
+        o.setGlobalTimeBudgetUnit(TimeUnit.SECONDS);
+        o.setNumOfThreadsJBSE(this.numOfThreadsJBSE);
+        o.setPathConditionBufferHighWatermark(this.pathConditionBufferHighWatermark);
+        o.setOutDirectory(outDirectory);
+
+        //creates and wires together the components as Main does
+        final TreePath treePath = new TreePath();
+        final JBSEResultInputOutputBuffer pathConditionBuffer = new JBSEResultInputOutputBuffer(o, treePath);
+        final EvosuiteResultInputOutputBuffer testCaseBuffer = new EvosuiteResultInputOutputBuffer(o, treePath);
+        final Histogram latencyTestCases = Metrics.histogram("bench.queue_latency.test_cases_us");
+        final QueueLatencyTracker trackerTestCases = new QueueLatencyTracker(latencyTestCases);
+        final AtomicLong numOfPaths = new AtomicLong(0);
+        final PerformerJBSE performerJBSE = SyntheticGuidedRunner.makePerformerJBSE(o, testCaseBuffer, pathConditionBuffer, treePath, this.fanOut, this.solverMicros, item -> {
+            trackerTestCases.consumed(item);
+            numOfPaths.incrementAndGet();
+        });
+        final StubPerformerEvosuite performerEvosuite = new StubPerformerEvosuite(pathConditionBuffer, testCaseBuffer, this.numOfThreadsEvosuite, testsDirectory, this.testGenerationMillis, this.unsolvedPeriod, trackerTestCases);
+        final TerminationManager terminationManager = new TerminationManager(o, performerJBSE, performerEvosuite);
+        final ArrayList<JBSEResult> seed = new ArrayList<>();
+        seed.add(new JBSEResult(o.getTargetMethod()));
+        performerEvosuite.seed(seed);
+
+        //runs
+        final long start = System.nanoTime();
+        terminationManager.start();
+        performerEvosuite.start();
+        performerJBSE.start();
+        terminationManager.waitTermination();
+        final double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0d;
+
+        //reports
+        final Histogram lockWait = Metrics.histogram("tree_path.lock_wait_us");
+        System.out.printf("Elapsed: %.3f s%n", elapsedSeconds);
+        System.out.printf("Paths (tests explored): %d, %.1f/s%n", numOfPaths.get(), numOfPaths.get() / elapsedSeconds);
+        System.out.printf("Path conditions consumed: %d, %.1f/s, %d left in the buffer%n", performerEvosuite.getNumOfPathConditions(), performerEvosuite.getNumOfPathConditions() / elapsedSeconds, pathConditionBuffer.size());
+        System.out.printf("Tests generated: %d, %.1f/s%n", performerEvosuite.getNumOfTests(), performerEvosuite.getNumOfTests() / elapsedSeconds);
+        System.out.printf("Tree path size: %d%n", treePath.size());
+        printHistogram("Queue latency, test cases (us)", latencyTestCases);
+        printHistogram("Tree path lock wait (us)", lockWait);
+        printHistogram("Test cases rescoring (ms)", Metrics.histogram("buffer.test_cases.rescore_ms"));
+        printHistogram("Job latency, JBSE (ms)", Metrics.histogram("performer.PerformerJBSE.job_latency_ms"));
+        printHistogram("Job latency, EvoSuite (ms)", Metrics.histogram("performer.StubPerformerEvosuite.job_latency_ms"));
+    }
+
+    private static void printHistogram(String title, Histogram h) {
+        System.out.printf("%s: count %d, mean %.1f, p50 %d, p90 %d, p99 %d, max %d%n", title, h.getCount(), 
+                          (h.getCount() == 0 ? 0.0d : ((double) h.getSum()) / h.getCount()), 
+                          h.getPercentile(50.0d), h.getPercentile(90.0d), h.getPercentile(99.0d), h.getMax());
+    }
+
+    /**
+     * Do not instantiate from outside!
+     */
+    private ThroughputHarness() {
+        //nothing to do
+    }
+}
@@ -0,0 +1,44 @@
+package tardis.implementation.common;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import tardis.bench.SyntheticPathConditions;
+
+/**
+ * Benchmarks {@link Util#filterOnPattern(Set, String)}
+ * with the kind of patterns built by the options.
+ * 
+ * @author Pietro Braione
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UtilBenchmark {
+    @Param({"100", "10000"})
+    public int numOfBranches;
+
+    @Param({"bench/Target0(\\$.*)*:.*:.*:.*:.*", ".*"})
+    public String pattern;
+
+    private Set<String> branches;
+
+    @Setup
+    public void setup() {
+        this.branches = SyntheticPathConditions.branches(this.numOfBranches, 8);
+    }
+
+    @Benchmark
+    public Set<String> filterOnPattern() {
+        return Util.filterOnPattern(this.branches, this.pattern);
+    }
+}
@@ -0,0 +1,61 @@
+package tardis.implementation.data;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jbse.mem.Clause;
+import tardis.bench.SyntheticPathConditions;
+
+/**
+ * Benchmarks the construction of a {@link BloomFilter}
+ * and {@link BloomFilter#jaccardDistance(BloomFilter)}.
+ * 
+ * @author Pietro Braione
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BloomFilterBenchmark {
+    @Param({"8", "32", "128"})
+    public int depth;
+
+    @Param({"2", "4"})
+    public int fanOut;
+
+    private List<List<Clause>> paths;
+    private BloomFilter[] bloomFilters;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.paths = SyntheticPathConditions.generate(this.depth, this.fanOut, 256, 42L);
+        this.bloomFilters = new BloomFilter[this.paths.size()];
+        for (int i = 0; i < this.bloomFilters.length; ++i) {
+            this.bloomFilters[i] = new BloomFilter(this.paths.get(i));
+        }
+        this.next = 0;
+    }
+
+    @Benchmark
+    public Object construct() {
+        //returns Object because BloomFilter is not visible to the generated code
+        this.next = (this.next + 1) % this.paths.size();
+        return new BloomFilter(this.paths.get(this.next));
+    }
+
+    @Benchmark
+    public double jaccardDistance() {
+        this.next = (this.next + 1) % this.bloomFilters.length;
+        final BloomFilter other = this.bloomFilters[(this.next * 31 + 7) % this.bloomFilters.length];
+        return this.bloomFilters[this.next].jaccardDistance(other);
+    }
+}
@@ -0,0 +1,64 @@
+package tardis.implementation.data;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jbse.mem.Clause;
+import tardis.bench.SyntheticPathConditions;
+
+/**
+ * Benchmarks {@link ClassifierKNN#classify(BloomFilter)}
+ * with training sets of different sizes.
+ * 
+ * @author Pietro Braione
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClassifierKNNBenchmark {
+    @Param({"16", "64"})
+    public int depth;
+
+    @Param({"2", "4"})
+    public int fanOut;
+
+    @Param({"100", "1000", "10000"})
+    public int trainingSetSize;
+
+    private ClassifierKNN classifier;
+    private BloomFilter[] queries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final List<List<Clause>> paths = SyntheticPathConditions.generate(this.depth, this.fanOut, this.trainingSetSize + 256, 42L);
+        final HashSet<TrainingItem> trainingSet = new HashSet<>();
+        for (int i = 0; i < this.trainingSetSize; ++i) {
+            trainingSet.add(new TrainingItem(new BloomFilter(paths.get(i)), i % 3 != 0));
+        }
+        this.classifier = new ClassifierKNN(3);
+        this.classifier.train(trainingSet);
+        this.queries = new BloomFilter[256];
+        for (int i = 0; i < this.queries.length; ++i) {
+            this.queries[i] = new BloomFilter(paths.get(this.trainingSetSize + i));
+        }
+        this.next = 0;
+    }
+
+    @Benchmark
+    public Object classify() {
+        //returns Object because ClassificationResult is not visible to the generated code
+        this.next = (this.next + 1) % this.queries.length;
+        return this.classifier.classify(this.queries[this.next]);
+    }
+}
@@ -0,0 +1,121 @@
+package tardis.implementation.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jbse.mem.Clause;
+import tardis.Options;
+import tardis.bench.SyntheticPathConditions;
+import tardis.implementation.jbse.JBSEResult;
+
+/**
+ * Benchmarks {@link JBSEResultInputOutputBuffer#add(JBSEResult) add}, 
+ * {@link JBSEResultInputOutputBuffer#pollN(int, long, TimeUnit) pollN}
+ * and the reclassification of the buffered items, with all the 
+ * indices active.
+ * 
+ * @author Pietro Braione
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JBSEResultInputOutputBufferBenchmark {
+    @Param({"16", "64"})
+    public int depth;
+
+    @Param({"2", "4"})
+    public int fanOut;
+
+    @Param({"1000"})
+    public int numOfItems;
+
+    private Options o;
+    private List<List<Clause>> paths;
+    private List<JBSEResult> items;
+    private TreePath treePath;
+    private JBSEResultInputOutputBuffer buffer;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        this.o = new Options();
+        this.o.setTargetClass("bench/Target");
+        this.o.setUseIndexImprovability(true);
+        this.o.setUseIndexNovelty(true);
+        this.o.setUseIndexInfeasibility(true);
+        this.o.setIndexInfeasibilityThreshold(1); //reclassifies after every learnt path condition
+        this.paths = SyntheticPathConditions.generate(this.depth, this.fanOut, this.numOfItems, 42L);
+        this.items = new ArrayList<>(this.paths.size());
+        for (List<Clause> path : this.paths) {
+            //no states, so the items have no wrapper
+            this.items.add(new JBSEResult("bench/Target", "()V", "target", null, null, path, false, null, Collections.emptyMap(), Collections.emptySet(), Collections.emptySet(), this.depth));
+        }
+    }
+
+    /**
+     * Makes a fresh buffer filled with all the items, whose
+     * path conditions are all in the {@link TreePath} and 
+     * half of them are learnt as feasible.
+     */
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        this.treePath = new TreePath();
+        for (List<Clause> path : this.paths) {
+            this.treePath.insertPath(SyntheticPathConditions.ENTRY_POINT, path, Collections.emptySet(), Collections.emptySet(), false);
+        }
+        this.buffer = new JBSEResultInputOutputBuffer(this.o, this.treePath);
+        for (int i = 0; i < this.items.size(); ++i) {
+            this.buffer.learnPathConditionForIndexInfeasibility(SyntheticPathConditions.ENTRY_POINT, this.paths.get(i), i % 2 == 0);
+            this.buffer.add(this.items.get(i));
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Adds an item and polls an item, so the 
+     * buffer size stays the same.
+     * 
+     * @return a {@link List}{@code <}{@link JBSEResult}{@code >}.
+     * @throws InterruptedException never.
+     */
+    @Benchmark
+    public List<JBSEResult> addAndPollN() throws InterruptedException {
+        this.next = (this.next + 1) % this.items.size();
+        this.buffer.add(this.items.get(this.next));
+        return this.buffer.pollN(1, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public int reclassifyImprovability() {
+        this.buffer.learnCoverageForIndexImprovability(SyntheticPathConditions.branches(this.depth, 4));
+        this.buffer.updateIndexImprovabilityAndReclassify();
+        return this.buffer.size();
+    }
+
+    @Benchmark
+    public int reclassifyNovelty() {
+        this.buffer.learnCoverageForIndexNovelty(SyntheticPathConditions.branches(this.depth, 4));
+        this.buffer.updateIndexNoveltyAndReclassify();
+        return this.buffer.size();
+    }
+
+    @Benchmark
+    public int reclassifyInfeasibility() {
+        this.next = (this.next + 1) % this.paths.size();
+        this.buffer.learnPathConditionForIndexInfeasibility(SyntheticPathConditions.ENTRY_POINT, this.paths.get(this.next), this.next % 2 == 0);
+        this.buffer.updateIndexInfeasibilityAndReclassify();
+        return this.buffer.size();
+    }
+}
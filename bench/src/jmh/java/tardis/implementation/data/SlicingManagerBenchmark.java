@@ -0,0 +1,47 @@
+package tardis.implementation.data;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jbse.mem.Clause;
+import tardis.bench.SyntheticPathConditions;
+
+/**
+ * Benchmarks {@link SlicingManager#slice(List)}.
+ * 
+ * @author Pietro Braione
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SlicingManagerBenchmark {
+    @Param({"8", "32", "128"})
+    public int depth;
+
+    @Param({"2", "4"})
+    public int fanOut;
+
+    private List<List<Clause>> paths;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.paths = SyntheticPathConditions.generate(this.depth, this.fanOut, 256, 42L);
+        this.next = 0;
+    }
+
+    @Benchmark
+    public String[][] slice() {
+        this.next = (this.next + 1) % this.paths.size();
+        return SlicingManager.slice(this.paths.get(this.next));
+    }
+}
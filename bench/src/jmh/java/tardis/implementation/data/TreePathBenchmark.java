@@ -0,0 +1,82 @@
+package tardis.implementation.data;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jbse.mem.Clause;
+import tardis.bench.SyntheticPathConditions;
+
+/**
+ * Benchmarks {@link TreePath#insertPath(String, List, java.util.Collection, java.util.Collection, boolean) insertPath}
+ * and {@link TreePath#containsPath(String, List, boolean) containsPath}.
+ * 
+ * @author Pietro Braione
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TreePathBenchmark {
+    @Param({"8", "32"})
+    public int depth;
+
+    @Param({"2", "4"})
+    public int fanOut;
+
+    @Param({"1000"})
+    public int numOfPaths;
+
+    private List<List<Clause>> paths;
+    private Set<String> coveredBranches;
+    private TreePath treePathEmpty;
+    private TreePath treePathFull;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        this.paths = SyntheticPathConditions.generate(this.depth, this.fanOut, this.numOfPaths, 42L);
+        this.coveredBranches = SyntheticPathConditions.branches(this.depth, 4);
+        this.treePathFull = new TreePath();
+        for (List<Clause> path : this.paths) {
+            this.treePathFull.insertPath(SyntheticPathConditions.ENTRY_POINT, path, this.coveredBranches, Collections.emptySet(), true);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        this.treePathEmpty = new TreePath();
+        this.next = 0;
+    }
+
+    private List<Clause> nextPath() {
+        final List<Clause> retVal = this.paths.get(this.next);
+        this.next = (this.next + 1) % this.paths.size();
+        return retVal;
+    }
+
+    @Benchmark
+    public Set<String> insertPathCovered() {
+        return this.treePathEmpty.insertPath(SyntheticPathConditions.ENTRY_POINT, nextPath(), this.coveredBranches, Collections.emptySet(), true);
+    }
+
+    @Benchmark
+    public Set<String> insertPathNotCovered() {
+        return this.treePathEmpty.insertPath(SyntheticPathConditions.ENTRY_POINT, nextPath(), Collections.emptySet(), this.coveredBranches, false);
+    }
+
+    @Benchmark
+    public boolean containsPath() {
+        return this.treePathFull.containsPath(SyntheticPathConditions.ENTRY_POINT, nextPath(), true);
+    }
+}
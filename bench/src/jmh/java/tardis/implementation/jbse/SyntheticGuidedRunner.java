@@ -0,0 +1,183 @@
+package tardis.implementation.jbse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jbse.mem.Clause;
+import jbse.mem.State;
+import tardis.Options;
+import tardis.bench.SyntheticClause;
+import tardis.implementation.data.EvosuiteResultInputOutputBuffer;
+import tardis.implementation.data.JBSEResultInputOutputBuffer;
+import tardis.implementation.data.TreePath;
+import tardis.implementation.evosuite.EvosuiteResult;
+
+/**
+ * A {@link GuidedRunner} where the symbolic execution of the
+ * tests is replaced by a synthetic symbolic execution tree.
+ * The path of a test is its generating path condition, continued
+ * with random branches (determined by the test name) up to the
+ * maximum depth; the post-frontier path conditions at a depth
+ * are all the branches at that depth, and the covered branches
+ * are the branches along the path and the post-frontier branches.
+ * It builds no JBSE {@link State}, so it needs neither JBSE
+ * nor z3 to run.
+ *
+ * @author Pietro Braione
+ */
+public final class SyntheticGuidedRunner implements GuidedRunner {
+    private static final int NUM_OF_VARIABLES = 16;
+
+    private final String branchPrefix;
+    private final int fanOut;
+    private final long solverMicros;
+    private final ArrayList<Clause> path;
+    private final HashSet<String> coverage = new HashSet<>();
+    private List<String> branchesPostFrontier = Collections.emptyList();
+
+    /**
+     * Creates a {@link PerformerJBSE} that executes the tests
+     * with {@link SyntheticGuidedRunner}s.
+     *
+     * @param o the {@link Options}.
+     * @param in the {@link EvosuiteResultInputOutputBuffer} of the test cases.
+     * @param out the {@link JBSEResultInputOutputBuffer} of the path conditions.
+     * @param treePath the {@link TreePath}.
+     * @param fanOut an {@code int} greater than {@code 1}, the number of
+     *        branches at each decision point of the synthetic symbolic
+     *        execution tree.
+     * @param solverMicros a nonnegative {@code long}, how many microseconds
+     *        it takes to check the satisfiability of a post-frontier
+     *        path condition.
+     * @param onExplore a {@link Consumer}{@code <}{@link EvosuiteResult}{@code >}
+     *        that is notified when the exploration of a test case starts.
+     * @return a {@link PerformerJBSE}.
+     */
+    public static PerformerJBSE makePerformerJBSE(Options o, EvosuiteResultInputOutputBuffer in, JBSEResultInputOutputBuffer out, TreePath treePath,
+                                                  int fanOut, long solverMicros, Consumer<EvosuiteResult> onExplore) {
+        return new PerformerJBSE(o, in, out, treePath, (oRunner, item, stateInitial) -> {
+            onExplore.accept(item);
+            return new SyntheticGuidedRunner(oRunner, item, fanOut, solverMicros);
+        });
+    }
+
+    private SyntheticGuidedRunner(Options o, EvosuiteResult item, int fanOut, long solverMicros) {
+        this.branchPrefix = item.getTargetMethodClassName() + ":" + item.getTargetMethodDescriptor() + ":" + item.getTargetMethodName() + ":";
+        this.fanOut = fanOut;
+        this.solverMicros = solverMicros;
+        this.path = new ArrayList<>(o.getMaxDepth());
+        final List<Clause> pathConditionGenerating = item.getPathConditionGenerating();
+        if (pathConditionGenerating != null) {
+            this.path.addAll(pathConditionGenerating);
+        }
+        final Random random = new Random(item.getTestCase().getClassName().hashCode());
+        for (int depth = this.path.size(); depth < o.getMaxDepth(); ++depth) {
+            this.path.add(new SyntheticClause(depth, random.nextInt(this.fanOut), NUM_OF_VARIABLES));
+        }
+    }
+
+    private String branch(int depth, int branch) {
+        return this.branchPrefix + depth + ":" + branch;
+    }
+
+    @Override
+    public List<Clause> runToFinalState() {
+        for (int depth = 0; depth < this.path.size(); ++depth) {
+            this.coverage.add(branch(depth, ((SyntheticClause) this.path.get(depth)).getBranch()));
+        }
+        return Collections.unmodifiableList(this.path);
+    }
+
+    @Override
+    public int getDepthFinal() {
+        return this.path.size();
+    }
+
+    @Override
+    public State getStateFinal() {
+        return null;
+    }
+
+    @Override
+    public State getStateInitial() {
+        return null;
+    }
+
+    @Override
+    public List<List<Clause>> runToPostFrontier(int testDepth) {
+        if (testDepth <= 0 || testDepth > this.path.size()) {
+            this.branchesPostFrontier = Collections.emptyList();
+            return Collections.emptyList();
+        }
+        final ArrayList<List<Clause>> retVal = new ArrayList<>(this.fanOut);
+        final ArrayList<String> branches = new ArrayList<>(this.fanOut);
+        for (int branch = 0; branch < this.fanOut; ++branch) {
+            final ArrayList<Clause> pathConditionPostFrontier = new ArrayList<>(this.path.subList(0, testDepth - 1));
+            pathConditionPostFrontier.add(new SyntheticClause(testDepth - 1, branch, NUM_OF_VARIABLES));
+            solve();
+            retVal.add(pathConditionPostFrontier);
+            branches.add(branch(testDepth - 1, branch));
+        }
+        this.branchesPostFrontier = branches;
+        this.coverage.addAll(branches);
+        return retVal;
+    }
+
+    /**
+     * Simulates a solver invocation by spinning,
+     * since solving is CPU-bound.
+     */
+    private void solve() {
+        final long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(this.solverMicros);
+        while (System.nanoTime() < end) {
+            Thread.yield();
+        }
+    }
+
+    @Override
+    public State getStatePostFrontier(int i) {
+        return null;
+    }
+
+    @Override
+    public boolean mapModelAssumptionViolated(int i, Clause clause) {
+        return false; //the synthetic clauses are not about maps
+    }
+
+    @Override
+    public boolean getAtJump() {
+        return true;
+    }
+
+    @Override
+    public List<String> getBranchesPostFrontier() {
+        return this.branchesPostFrontier;
+    }
+
+    @Override
+    public List<? extends Map<Long, String>> getStringLiterals() {
+        return Collections.nCopies(this.branchesPostFrontier.size(), Collections.<Long, String>emptyMap());
+    }
+
+    @Override
+    public List<? extends Set<Long>> getStringOthers() {
+        return Collections.nCopies(this.branchesPostFrontier.size(), Collections.<Long>emptySet());
+    }
+
+    @Override
+    public Set<String> getCoverage() {
+        return new HashSet<>(this.coverage);
+    }
+
+    @Override
+    public void close() {
+        //nothing to do
+    }
+}
@@ -41,6 +41,7 @@ import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.ParserProperties;
 
+import tardis.framework.ConcurrencyController;
 import tardis.framework.Performer;
 import tardis.framework.TerminationManager;
 import tardis.implementation.common.NoJavaCompilerException;
@@ -48,11 +49,13 @@ import tardis.implementation.data.EvosuiteResultInputOutputBuffer;
 import tardis.implementation.data.JBSEResultInputOutputBuffer;
 import tardis.implementation.data.TreePath;
 import tardis.implementation.evosuite.EvosuiteResult;
+import tardis.implementation.evosuite.NoEvosuiteServerException;
 import tardis.implementation.evosuite.PerformerEvosuite;
 import tardis.implementation.evosuite.PerformerEvosuiteRMI;
 import tardis.implementation.evosuite.TestCase;
 import tardis.implementation.jbse.JBSEResult;
 import tardis.implementation.jbse.PerformerJBSE;
+import tardis.metrics.MetricsReporter;
 
 /**
  * TARDIS main class.
@@ -111,7 +114,7 @@ public final class Main {
 
 			//...the communication buffers...
 			final JBSEResultInputOutputBuffer pathConditionBuffer = new JBSEResultInputOutputBuffer(this.o, treePath);
-			final EvosuiteResultInputOutputBuffer testCaseBuffer = new EvosuiteResultInputOutputBuffer();
+			final EvosuiteResultInputOutputBuffer testCaseBuffer = new EvosuiteResultInputOutputBuffer(this.o, treePath);
 
 			//...the performers and the termination manager
 			final PerformerJBSE performerJBSE = new PerformerJBSE(this.o, testCaseBuffer, pathConditionBuffer, treePath);
@@ -125,6 +128,31 @@ public final class Main {
 
 			//...the termination manager
 			final TerminationManager terminationManager = new TerminationManager(this.o, performerJBSE, performerEvosuite);
+			
+			//...and the concurrency controller, if required
+			final ConcurrencyController concurrencyController;
+			if (this.o.getUseAdaptiveConcurrency()) {
+				concurrencyController = new ConcurrencyController(this.o.getAdaptiveConcurrencyPeriodDuration(), this.o.getAdaptiveConcurrencyPeriodUnit());
+				concurrencyController.control(performerJBSE, 1, this.o.getNumOfThreadsJBSEMax(), 0L);
+				//in the multi-search configuration the EvoSuite processes are
+				//launched upfront and their number cannot be resized, otherwise
+				//each worker launches one
+				if (this.o.getEvosuiteMultiSearch()) {
+					LOGGER.info("Adaptive concurrency does not resize the EvoSuite processes in multi search mode, only the JBSE workers are adapted");
+				} else {
+					concurrencyController.control(performerEvosuite, 1, this.o.getNumOfThreadsEvosuiteMax(), PerformerEvosuite.EVOSUITE_HEAP_MAX_MB * 1024L * 1024L);
+				}
+			} else {
+				concurrencyController = null;
+			}
+
+			//...and the metrics reporter, if required
+			final MetricsReporter metricsReporter;
+			if (this.o.getUseMetrics()) {
+				metricsReporter = new MetricsReporter(this.o.getTmpDirectoryPath(), this.o.getMetricsDumpPeriodDuration(), this.o.getMetricsDumpPeriodUnit());
+			} else {
+				metricsReporter = null;
+			}
 
 			//injects a seed into a performer
 			injectSeed(performerEvosuite, performerJBSE);
@@ -136,9 +164,21 @@ public final class Main {
 				this.o.getDelayPathConditionGenerationUnit().sleep(this.o.getDelayPathConditionGenerationDuration());
 			}
 			performerJBSE.start();
+			if (concurrencyController != null) {
+				concurrencyController.start();
+			}
+			if (metricsReporter != null) {
+				metricsReporter.start();
+			}
 
 			//waits for the end
 			terminationManager.waitTermination();
+			if (concurrencyController != null) {
+				concurrencyController.stop();
+			}
+			if (metricsReporter != null) {
+				metricsReporter.stop();
+			}
 
 			//logs a final message and returns
 			LOGGER.info("%s ends", getName());
@@ -155,6 +195,9 @@ public final class Main {
 		} catch (NoJavaCompilerException e) {
 			LOGGER.error("Failed to find a system Java compiler for Java version 8.");
 			return 1;
+		} catch (NoEvosuiteServerException e) {
+			LOGGER.error("Failed to start EvoSuite: %s.", e.getMessage());
+			return 1;
 		} catch (ClassNotFoundException e) {
 			LOGGER.error("Failed to find the target class on the classpath.");
 			return 1;
@@ -216,17 +259,47 @@ public final class Main {
 		ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
 		builder.setStatusLevel(Level.WARN);
 
-		//appender
-		AppenderComponentBuilder appenderBuilder = builder.newAppender("Stdout", "CONSOLE");
-		appenderBuilder.addAttribute("target", ConsoleAppender.Target.SYSTEM_OUT);
-		LayoutComponentBuilder layoutBuilder = builder.newLayout("PatternLayout");
-		layoutBuilder.addAttribute("pattern", "%d{HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n");
-		appenderBuilder.add(layoutBuilder);
-		builder.add(appenderBuilder);
+		//appender, either to the console or to a file
+		final String appenderName;
+		if (this.o.getLogFilePath() == null) {
+			appenderName = "Stdout";
+			AppenderComponentBuilder appenderBuilder = builder.newAppender(appenderName, "CONSOLE");
+			appenderBuilder.addAttribute("target", ConsoleAppender.Target.SYSTEM_OUT);
+			LayoutComponentBuilder layoutBuilder = builder.newLayout("PatternLayout");
+			layoutBuilder.addAttribute("pattern", "%d{HH:mm:ss.SSS} [%t] %-5level %logger{36} - %msg%n");
+			appenderBuilder.add(layoutBuilder);
+			builder.add(appenderBuilder);
+		} else {
+			//one record per event, with the line breaks in the
+			//message escaped so that the records can be split
+			appenderName = "File";
+			AppenderComponentBuilder appenderBuilder = builder.newAppender(appenderName, "RandomAccessFile");
+			appenderBuilder.addAttribute("fileName", this.o.getLogFilePath().toString());
+			appenderBuilder.addAttribute("append", false);
+			appenderBuilder.addAttribute("immediateFlush", false);
+			LayoutComponentBuilder layoutBuilder = builder.newLayout("PatternLayout");
+			layoutBuilder.addAttribute("pattern", "%d{UNIX_MILLIS}\t%t\t%level\t%logger\t%enc{%msg}{CRLF}%n");
+			appenderBuilder.add(layoutBuilder);
+			builder.add(appenderBuilder);
+		}
+
+		//possibly puts a bounded buffer in front of the appender,
+		//so the logging threads do not wait for the I/O
+		final String appenderRootName;
+		if (this.o.getLogAsync()) {
+			appenderRootName = "Async";
+			AppenderComponentBuilder asyncBuilder = builder.newAppender(appenderRootName, "Async");
+			asyncBuilder.addAttribute("bufferSize", this.o.getLogAsyncBufferSize());
+			asyncBuilder.addAttribute("includeLocation", false);
+			asyncBuilder.addComponent(builder.newAppenderRef(appenderName));
+			builder.add(asyncBuilder);
+		} else {
+			appenderRootName = appenderName;
+		}
 
 		//root logger
 		RootLoggerComponentBuilder rootLoggerBuilder = builder.newRootLogger(this.o.getVerbosity());
-		rootLoggerBuilder.add(builder.newAppenderRef("Stdout"));
+		rootLoggerBuilder.add(builder.newAppenderRef(appenderRootName));
 		builder.add(rootLoggerBuilder);
 
 		LOGGER_CONTEXT = Configurator.initialize(builder.build());
@@ -109,8 +109,65 @@ public final class Options implements Cloneable {
             usage = "The number of threads in the EvoSuite thread pool")
     private int numOfThreadsEvosuite = 1;
 
+    @Option(name = "-path_condition_buffer_high_watermark",
+            usage = "The number of buffered path conditions above which JBSE defers the generation of path conditions at the deeper depths, until the buffer drains to half of it; 0 for no limit")
+    private int pathConditionBufferHighWatermark = 10_000;
+
+    @Option(name = "-use_adaptive_concurrency",
+            usage = "Whether the number of JBSE and EvoSuite threads is adapted at runtime to the depth of their input queues, to the CPU load and to the free memory; the initial numbers are -num_threads_jbse and -num_threads_evosuite; when -evosuite_multi_search=true only the JBSE threads are adapted")
+    private boolean useAdaptiveConcurrency = false;
+
+    @Option(name = "-num_threads_jbse_max",
+            usage = "The maximum number of threads in the JBSE thread pool; Meaningful only when -use_adaptive_concurrency=true")
+    private int numOfThreadsJBSEMax = 1;
+
+    @Option(name = "-num_threads_evosuite_max",
+            usage = "The maximum number of threads in the EvoSuite thread pool; Meaningful only when -use_adaptive_concurrency=true, ignored when -evosuite_multi_search=true")
+    private int numOfThreadsEvosuiteMax = 1;
+
+    @Option(name = "-adaptive_concurrency_period_duration",
+            usage = "Duration of the period between two adaptations of the number of threads; Meaningful only when -use_adaptive_concurrency=true")
+    private long adaptiveConcurrencyPeriodDuration = 10;
+
+    @Option(name = "-adaptive_concurrency_period_unit",
+            usage = "Unit of the period between two adaptations of the number of threads: NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS, MINUTES, HOURS, DAYS; Meaningful only when -use_adaptive_concurrency=true")
+    private TimeUnit adaptiveConcurrencyPeriodUnit = TimeUnit.SECONDS;
+
+    @Option(name = "-use_virtual_threads_jbse",
+            usage = "Whether the JBSE workers run in virtual threads, if the JVM supports them, rather than in a fixed thread pool; it has no effect on Java 8, that does not support virtual threads")
+    private boolean useVirtualThreadsJBSE = false;
+
+    @Option(name = "-use_metrics",
+            usage = "Whether the metrics (queue depths, job latencies, stage timings...) are exposed through JMX and periodically dumped in the temporary directory")
+    private boolean useMetrics = false;
+
+    @Option(name = "-metrics_dump_period_duration",
+            usage = "Duration of the period between two dumps of the metrics; Meaningful only when -use_metrics=true")
+    private long metricsDumpPeriodDuration = 10;
+
+    @Option(name = "-metrics_dump_period_unit",
+            usage = "Unit of the period between two dumps of the metrics: NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS, MINUTES, HOURS, DAYS; Meaningful only when -use_metrics=true")
+    private TimeUnit metricsDumpPeriodUnit = TimeUnit.SECONDS;
+
+    @Option(name = "-trace_exploration",
+            usage = "Whether the time spent by JBSE in each stage of the exploration of each test case is written to the file exploration-trace.jsonl in the temporary directory")
+    private boolean traceExploration = false;
+
+    @Option(name = "-log_async",
+            usage = "Whether the log events are queued in a bounded buffer and written by a background thread, rather than by the logging threads")
+    private boolean logAsync = false;
+
+    @Option(name = "-log_async_buffer_size",
+            usage = "Maximum number of log events that can be queued; Meaningful only when -log_async=true")
+    private int logAsyncBufferSize = 8192;
+
+    @Option(name = "-log_file",
+            usage = "File where the log events are written, one record of tab-separated fields (timestamp, thread, level, logger, message) per line, instead of the console",
+            handler = PathOptionHandler.class)
+    private Path logFilePath = null;
+
     @Option(name = "-throttle_factor_jbse",
-            usage = "The throttle factor for the JBSE thread pool",
+            usage = "The throttle factor for the JBSE thread pool; Currently ignored, since the JBSE workers take their inputs only when idle",
             handler = PercentageOptionHandler.class)
     private float throttleFactorJBSE = 1.0f;
 
@@ -175,6 +232,10 @@ public final class Options implements Cloneable {
             usage = "Whether the generated tests should have no dependency on the EvoSuite runtime")
     private boolean evosuiteNoDependency = false;
 
+    @Option(name = "-evosuite_split_batch_compilation",
+            usage = "Whether the test classes obtained by splitting an EvoSuite test class should be compiled in batches, each with a single invocation of javac")
+    private boolean evosuiteSplitBatchCompilation = false;
+
     @Option(name = "-global_time_budget_duration",
             usage = "Duration of the global time budget")
     private long globalTimeBudgetDuration = 10;
@@ -253,6 +314,42 @@ public final class Options implements Cloneable {
             usage = "The minimum size of the training set necessary for retraining")
     private int indexInfeasibilityThreshold = 200;
 
+    @Option(name = "-use_test_case_priority",
+            usage = "Whether the test cases are explored by JBSE first when their path condition is aimed at an uncovered branch, or has more uncovered neighbor branches, or is more novel, rather than in order of generation")
+    private boolean useTestCasePriority = true;
+
+    @Option(name = "-use_infeasibility_precheck",
+            usage = "Whether to check the post-frontier path conditions with Z3 before submitting them to EvoSuite, discarding the unsatisfiable ones")
+    private boolean useInfeasibilityPrecheck = false;
+
+    @Option(name = "-timeout_infeasibility_precheck_duration",
+            usage = "Duration of the timeout of the Z3 infeasibility precheck of a path condition; Meaningful only when -use_infeasibility_precheck=true")
+    private long timeoutInfeasibilityPrecheckDuration = 100;
+
+    @Option(name = "-timeout_infeasibility_precheck_unit",
+            usage = "Unit of the timeout of the Z3 infeasibility precheck of a path condition: NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS, MINUTES, HOURS, DAYS; Meaningful only when -use_infeasibility_precheck=true")
+    private TimeUnit timeoutInfeasibilityPrecheckUnit = TimeUnit.MILLISECONDS;
+
+    @Option(name = "-use_direct_test_generation",
+            usage = "Whether to generate the tests for the post-frontier path conditions that only predicate on the primitive parameters of the target method directly from a Z3 model, without invoking EvoSuite")
+    private boolean useDirectTestGeneration = false;
+
+    @Option(name = "-timeout_direct_test_generation_duration",
+            usage = "Duration of the timeout of the Z3 model calculation for the direct generation of a test; Meaningful only when -use_direct_test_generation=true")
+    private long timeoutDirectTestGenerationDuration = 1;
+
+    @Option(name = "-timeout_direct_test_generation_unit",
+            usage = "Unit of the timeout of the Z3 model calculation for the direct generation of a test: NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS, MINUTES, HOURS, DAYS; Meaningful only when -use_direct_test_generation=true")
+    private TimeUnit timeoutDirectTestGenerationUnit = TimeUnit.SECONDS;
+
+    @Option(name = "-jbse_initial_state_cache_size",
+            usage = "Maximum number of initial states of target methods that JBSE keeps cached")
+    private int jbseInitialStateCacheSize = 64;
+
+    @Option(name = "-jbse_expansions_cache_size",
+            usage = "Maximum number of expansion points for which JBSE remembers the expansion types already tried")
+    private int jbseExpansionsCacheSize = 65_536;
+
     @Option(name = "-evosuite_multi_search",
             usage = "Whether EvoSuite shall do simultaneous path-condition-guided (TARDIS) and branch-guided (ordinary) search")
     private boolean evosuiteMultiSearch = false;
@@ -265,6 +362,24 @@ public final class Options implements Cloneable {
             usage = "Unit of initial delay of test case generation based on path conditions: NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS, MINUTES, HOURS, DAYS; Meaningful only when -evosuite_multi_search=true")
     private TimeUnit delayPathConditionGenerationUnit = TimeUnit.SECONDS;
 
+    @Option(name = "-timeout_evosuite_startup_duration",
+            usage = "Duration of the timeout for the first EvoSuite server to register; Meaningful only when -evosuite_multi_search=true")
+    private long timeoutEvosuiteStartupDuration = 5;
+
+    @Option(name = "-timeout_evosuite_startup_unit",
+            usage = "Unit of the timeout for the first EvoSuite server to register: NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS, MINUTES, HOURS, DAYS; Meaningful only when -evosuite_multi_search=true")
+    private TimeUnit timeoutEvosuiteStartupUnit = TimeUnit.MINUTES;
+
+    @Option(name = "-max_evosuite_restarts",
+            usage = "Maximum number of times each EvoSuite process is respawned after it dies; Meaningful only when -evosuite_multi_search=true")
+    private int maxEvosuiteRestarts = 5;
+
+    /** 
+     * The extension classpath, calculated from the java.ext.dirs
+     * system property upon first request and then reused.
+     */
+    private List<Path> extClasspath = null;
+
 	public boolean isConsistent() {
 		if (this.optionsConfiguratorClass == null &&
 			this.targetClassName == null &&
@@ -504,6 +619,142 @@ public final class Options implements Cloneable {
         }
         this.numOfThreadsEvosuite = numOfThreads;
     }
+    
+    public int getPathConditionBufferHighWatermark() {
+        return this.pathConditionBufferHighWatermark;
+    }
+    
+    public void setPathConditionBufferHighWatermark(int pathConditionBufferHighWatermark) {
+        if (pathConditionBufferHighWatermark < 0) {
+            throw new IllegalArgumentException("Attempted to set the path condition buffer high watermark to a negative value.");
+        }
+        this.pathConditionBufferHighWatermark = pathConditionBufferHighWatermark;
+    }
+    
+    public boolean getUseAdaptiveConcurrency() {
+        return this.useAdaptiveConcurrency;
+    }
+    
+    public void setUseAdaptiveConcurrency(boolean useAdaptiveConcurrency) {
+        this.useAdaptiveConcurrency = useAdaptiveConcurrency;
+    }
+    
+    public int getNumOfThreadsJBSEMax() {
+        return Math.max(this.numOfThreadsJBSEMax, this.numOfThreadsJBSE);
+    }
+    
+    public void setNumOfThreadsJBSEMax(int numOfThreadsMax) {
+        if (numOfThreadsMax < 1) {
+            throw new IllegalArgumentException("Attempted to set JBSE maximum number of thread to a value less than 1.");
+        }
+        this.numOfThreadsJBSEMax = numOfThreadsMax;
+    }
+    
+    public int getNumOfThreadsEvosuiteMax() {
+        return Math.max(this.numOfThreadsEvosuiteMax, this.numOfThreadsEvosuite);
+    }
+    
+    public void setNumOfThreadsEvosuiteMax(int numOfThreadsMax) {
+        if (numOfThreadsMax < 1) {
+            throw new IllegalArgumentException("Attempted to set Evosuite maximum number of thread to a value less than 1.");
+        }
+        this.numOfThreadsEvosuiteMax = numOfThreadsMax;
+    }
+    
+    public long getAdaptiveConcurrencyPeriodDuration() {
+        return this.adaptiveConcurrencyPeriodDuration;
+    }
+    
+    public void setAdaptiveConcurrencyPeriodDuration(long adaptiveConcurrencyPeriodDuration) {
+        if (adaptiveConcurrencyPeriodDuration < 1) {
+            throw new IllegalArgumentException("Attempted to set the adaptive concurrency period duration to a value less than 1.");
+        }
+        this.adaptiveConcurrencyPeriodDuration = adaptiveConcurrencyPeriodDuration;
+    }
+    
+    public TimeUnit getAdaptiveConcurrencyPeriodUnit() {
+        return this.adaptiveConcurrencyPeriodUnit;
+    }
+    
+    public void setAdaptiveConcurrencyPeriodUnit(TimeUnit adaptiveConcurrencyPeriodUnit) {
+        if (adaptiveConcurrencyPeriodUnit == null) {
+            throw new IllegalArgumentException("Attempted to set the adaptive concurrency period unit to null.");
+        }
+        this.adaptiveConcurrencyPeriodUnit = adaptiveConcurrencyPeriodUnit;
+    }
+    
+    public boolean getUseVirtualThreadsJBSE() {
+        return this.useVirtualThreadsJBSE;
+    }
+    
+    public void setUseVirtualThreadsJBSE(boolean useVirtualThreadsJBSE) {
+        this.useVirtualThreadsJBSE = useVirtualThreadsJBSE;
+    }
+    
+    public boolean getUseMetrics() {
+        return this.useMetrics;
+    }
+    
+    public void setUseMetrics(boolean useMetrics) {
+        this.useMetrics = useMetrics;
+    }
+    
+    public long getMetricsDumpPeriodDuration() {
+        return this.metricsDumpPeriodDuration;
+    }
+    
+    public void setMetricsDumpPeriodDuration(long metricsDumpPeriodDuration) {
+        if (metricsDumpPeriodDuration < 1) {
+            throw new IllegalArgumentException("Attempted to set the metrics dump period duration to a value less than 1.");
+        }
+        this.metricsDumpPeriodDuration = metricsDumpPeriodDuration;
+    }
+    
+    public TimeUnit getMetricsDumpPeriodUnit() {
+        return this.metricsDumpPeriodUnit;
+    }
+    
+    public void setMetricsDumpPeriodUnit(TimeUnit metricsDumpPeriodUnit) {
+        if (metricsDumpPeriodUnit == null) {
+            throw new IllegalArgumentException("Attempted to set the metrics dump period unit to null.");
+        }
+        this.metricsDumpPeriodUnit = metricsDumpPeriodUnit;
+    }
+
+    public boolean getTraceExploration() {
+        return this.traceExploration;
+    }
+
+    public void setTraceExploration(boolean traceExploration) {
+        this.traceExploration = traceExploration;
+    }
+
+    public boolean getLogAsync() {
+        return this.logAsync;
+    }
+
+    public void setLogAsync(boolean logAsync) {
+        this.logAsync = logAsync;
+    }
+
+    public int getLogAsyncBufferSize() {
+        return this.logAsyncBufferSize;
+    }
+
+    public void setLogAsyncBufferSize(int logAsyncBufferSize) {
+        if (logAsyncBufferSize < 1) {
+            throw new IllegalArgumentException("Attempted to set the log async buffer size to a value less than 1.");
+        }
+        this.logAsyncBufferSize = logAsyncBufferSize;
+    }
+
+    public Path getLogFilePath() {
+        return this.logFilePath;
+    }
+
+    public void setLogFilePath(Path logFilePath) {
+        this.logFilePath = logFilePath;
+    }
 
     public List<Path> getClassesPath() {
         return this.classesPath;
@@ -648,13 +899,20 @@ public final class Options implements Cloneable {
         this.sushiLibPath = sushiLibPath;
     }
 
+    public synchronized List<Path> getExtClasspath() {
+        if (this.extClasspath == null) {
+            this.extClasspath = 
+                Collections.unmodifiableList(Arrays.stream(System.getProperty("java.ext.dirs", "").split(File.pathSeparator))
+                .map(s -> Paths.get(s)).collect(Collectors.toList()));
+        }
+        return this.extClasspath;
+    }
+
     public Classpath getClasspath() throws IOException {
-        final ArrayList<Path> extClasspath = 
-            new ArrayList<>(Arrays.stream(System.getProperty("java.ext.dirs").split(File.pathSeparator))
-            .map(s -> Paths.get(s)).collect(Collectors.toList()));
+        final ArrayList<Path> extClasspath = new ArrayList<>(getExtClasspath());
         final ArrayList<Path> userClasspath = new ArrayList<>();
         userClasspath.addAll(getClassesPath());
-        return new Classpath(getJBSELibraryPath(), Paths.get(System.getProperty("java.home")), extClasspath, userClasspath);
+        return new Classpath(getJBSELibraryPath(), Paths.get(System.getProperty("java.home", "")), extClasspath, userClasspath);
     }
 
     public long getEvosuiteTimeBudgetDuration() {
@@ -687,6 +945,14 @@ public final class Options implements Cloneable {
         this.evosuiteNoDependency = evosuiteNoDependency;
     }
 
+    public boolean getEvosuiteSplitBatchCompilation() {
+        return this.evosuiteSplitBatchCompilation;
+    }
+
+    public void setEvosuiteSplitBatchCompilation(boolean evosuiteSplitBatchCompilation) {
+        this.evosuiteSplitBatchCompilation = evosuiteSplitBatchCompilation;
+    }
+
     public long getGlobalTimeBudgetDuration() {
         return this.globalTimeBudgetDuration;
     }
@@ -906,6 +1172,96 @@ public final class Options implements Cloneable {
         this.indexInfeasibilityThreshold = indexInfeasibilityThreshold;
     }
     
+    public boolean getUseTestCasePriority() {
+        return this.useTestCasePriority;
+    }
+
+    public void setUseTestCasePriority(boolean useTestCasePriority) {
+        this.useTestCasePriority = useTestCasePriority;
+    }
+
+    public boolean getUseInfeasibilityPrecheck() {
+        return this.useInfeasibilityPrecheck;
+    }
+    
+    public void setUseInfeasibilityPrecheck(boolean useInfeasibilityPrecheck) {
+        this.useInfeasibilityPrecheck = useInfeasibilityPrecheck;
+    }
+    
+    public long getTimeoutInfeasibilityPrecheckDuration() {
+        return this.timeoutInfeasibilityPrecheckDuration;
+    }
+    
+    public void setTimeoutInfeasibilityPrecheckDuration(long timeoutInfeasibilityPrecheckDuration) {
+        if (timeoutInfeasibilityPrecheckDuration < 0) {
+            throw new IllegalArgumentException("Attempted to set the infeasibility precheck timeout duration to a negative value.");
+        }
+        this.timeoutInfeasibilityPrecheckDuration = timeoutInfeasibilityPrecheckDuration;
+    }
+    
+    public TimeUnit getTimeoutInfeasibilityPrecheckUnit() {
+        return this.timeoutInfeasibilityPrecheckUnit;
+    }
+    
+    public void setTimeoutInfeasibilityPrecheckUnit(TimeUnit timeoutInfeasibilityPrecheckUnit) {
+        if (timeoutInfeasibilityPrecheckUnit == null) {
+            throw new IllegalArgumentException("Attempted to set the infeasibility precheck timeout time unit to null.");
+        }
+        this.timeoutInfeasibilityPrecheckUnit = timeoutInfeasibilityPrecheckUnit;
+    }
+    
+    public boolean getUseDirectTestGeneration() {
+        return this.useDirectTestGeneration;
+    }
+    
+    public void setUseDirectTestGeneration(boolean useDirectTestGeneration) {
+        this.useDirectTestGeneration = useDirectTestGeneration;
+    }
+    
+    public long getTimeoutDirectTestGenerationDuration() {
+        return this.timeoutDirectTestGenerationDuration;
+    }
+    
+    public void setTimeoutDirectTestGenerationDuration(long timeoutDirectTestGenerationDuration) {
+        if (timeoutDirectTestGenerationDuration < 0) {
+            throw new IllegalArgumentException("Attempted to set the direct test generation timeout duration to a negative value.");
+        }
+        this.timeoutDirectTestGenerationDuration = timeoutDirectTestGenerationDuration;
+    }
+    
+    public TimeUnit getTimeoutDirectTestGenerationUnit() {
+        return this.timeoutDirectTestGenerationUnit;
+    }
+    
+    public void setTimeoutDirectTestGenerationUnit(TimeUnit timeoutDirectTestGenerationUnit) {
+        if (timeoutDirectTestGenerationUnit == null) {
+            throw new IllegalArgumentException("Attempted to set the direct test generation timeout time unit to null.");
+        }
+        this.timeoutDirectTestGenerationUnit = timeoutDirectTestGenerationUnit;
+    }
+    
+    public int getJBSEInitialStateCacheSize() {
+        return this.jbseInitialStateCacheSize;
+    }
+    
+    public void setJBSEInitialStateCacheSize(int jbseInitialStateCacheSize) {
+        if (jbseInitialStateCacheSize < 1) {
+            throw new IllegalArgumentException("Attempted to set the size of the JBSE initial state cache to a value less than 1.");
+        }
+        this.jbseInitialStateCacheSize = jbseInitialStateCacheSize;
+    }
+    
+    public int getJBSEExpansionsCacheSize() {
+        return this.jbseExpansionsCacheSize;
+    }
+    
+    public void setJBSEExpansionsCacheSize(int jbseExpansionsCacheSize) {
+        if (jbseExpansionsCacheSize < 1) {
+            throw new IllegalArgumentException("Attempted to set the size of the JBSE expansions cache to a value less than 1.");
+        }
+        this.jbseExpansionsCacheSize = jbseExpansionsCacheSize;
+    }
+    
     public boolean getEvosuiteMultiSearch() {
 		return this.evosuiteMultiSearch;
 	}
@@ -932,6 +1288,39 @@ public final class Options implements Cloneable {
         }
 		this.delayPathConditionGenerationUnit = delayPathConditionGenerationUnit;
 	}
+	
+	public long getTimeoutEvosuiteStartupDuration() {
+		return this.timeoutEvosuiteStartupDuration;
+	}
+	
+	public void setTimeoutEvosuiteStartupDuration(long timeoutEvosuiteStartupDuration) {
+        if (timeoutEvosuiteStartupDuration < 0) {
+            throw new IllegalArgumentException("Attempted to set the Evosuite timeout for startup duration to a negative value.");
+        }
+		this.timeoutEvosuiteStartupDuration = timeoutEvosuiteStartupDuration;
+	}
+
+	public TimeUnit getTimeoutEvosuiteStartupUnit() {
+		return this.timeoutEvosuiteStartupUnit;
+	}
+	
+	public void setTimeoutEvosuiteStartupUnit(TimeUnit timeoutEvosuiteStartupUnit) {
+        if (timeoutEvosuiteStartupUnit == null) {
+            throw new IllegalArgumentException("Attempted to set the Evosuite timeout for startup time unit to null.");
+        }
+		this.timeoutEvosuiteStartupUnit = timeoutEvosuiteStartupUnit;
+	}
+	
+	public int getMaxEvosuiteRestarts() {
+		return this.maxEvosuiteRestarts;
+	}
+	
+	public void setMaxEvosuiteRestarts(int maxEvosuiteRestarts) {
+        if (maxEvosuiteRestarts < 0) {
+            throw new IllegalArgumentException("Attempted to set the maximum number of EvoSuite restarts to a negative value.");
+        }
+		this.maxEvosuiteRestarts = maxEvosuiteRestarts;
+	}
 
 	public int getMaxEvosuiteItersPerPathCondition() {
 		return this.maxEvosuiteItersPerPathCondition;
@@ -0,0 +1,290 @@
+package tardis.framework;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Component that periodically adapts the number of workers of a set
+ * of {@link Performer}s to the depth of their input buffers, to the
+ * CPU load and to the free memory. A {@link Performer} whose input
+ * buffer holds more items than its workers gains a worker, and one
+ * whose input buffer stays empty loses a worker, as long as they
+ * stay within the configured bounds, and a {@link Performer} gains
+ * a worker only if there is enough free physical memory for it. 
+ * All the {@link Performer}s lose a worker when the CPU is overloaded
+ * or the memory is low.
+ *
+ * @author Pietro Braione
+ *
+ */
+public final class ConcurrencyController {
+    private static final Logger LOGGER = LogManager.getFormatterLogger(ConcurrencyController.class);
+
+    /**
+     * The system load average per processor above which
+     * the CPU is considered overloaded.
+     */
+    private static final double LOAD_HIGH = 1.5d;
+
+    /**
+     * The system load average per processor below which
+     * the CPU is considered able to sustain more workers.
+     */
+    private static final double LOAD_LOW = 0.9d;
+
+    /**
+     * The fraction of free heap memory (after the last 
+     * garbage collection) below which the memory is 
+     * considered low.
+     */
+    private static final double MEMORY_HEAP_FREE_LOW = 0.1d;
+
+    /**
+     * The fraction of free physical memory below which
+     * the memory is considered low. It is small because
+     * the operating system caches use most of the free
+     * physical memory.
+     */
+    private static final double MEMORY_PHYSICAL_FREE_LOW = 0.03d;
+
+    /**
+     * The number of consecutive checks an input buffer must
+     * be empty before its {@link Performer} loses a worker.
+     */
+    private static final int EMPTY_CHECKS_BEFORE_SHRINK = 3;
+
+    /**
+     * A {@link Performer} controlled by this {@link ConcurrencyController},
+     * with its bounds.
+     */
+    private static final class Controlled {
+        final Performer<?, ?> performer;
+        final int numOfWorkersMin;
+        final int numOfWorkersMax;
+        final long memoryPerWorker;
+        int emptyChecks = 0;
+
+        Controlled(Performer<?, ?> performer, int numOfWorkersMin, int numOfWorkersMax, long memoryPerWorker) {
+            this.performer = performer;
+            this.numOfWorkersMin = numOfWorkersMin;
+            this.numOfWorkersMax = numOfWorkersMax;
+            this.memoryPerWorker = memoryPerWorker;
+        }
+    }
+
+    /** The period of the checks. */
+    private final long periodDuration;
+
+    /** The {@link TimeUnit} for {@link #periodDuration}. */
+    private final TimeUnit periodTimeUnit;
+
+    /** The controlled {@link Performer}s. */
+    private final ArrayList<Controlled> controlled = new ArrayList<>();
+
+    /** The executor of the periodic checks. */
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(r -> { final Thread t = new Thread(r, "ConcurrencyController"); t.setDaemon(true); return t; });
+
+    /**
+     * Constructor.
+     *
+     * @param periodDuration a positive {@code long}, the period of the checks.
+     * @param periodTimeUnit the {@link TimeUnit} for {@code periodDuration}.
+     * @throws NullPointerException if {@code periodTimeUnit == null}.
+     * @throws IllegalArgumentException if {@code periodDuration <= 0}.
+     */
+    public ConcurrencyController(long periodDuration, TimeUnit periodTimeUnit) {
+        if (periodTimeUnit == null) {
+            throw new NullPointerException("Invalid null parameter in concurrency controller constructor.");
+        }
+        if (periodDuration <= 0) {
+            throw new IllegalArgumentException("Invalid negative or zero parameter in concurrency controller constructor.");
+        }
+        this.periodDuration = periodDuration;
+        this.periodTimeUnit = periodTimeUnit;
+    }
+
+    /**
+     * Puts a {@link Performer} under the control of this
+     * {@link ConcurrencyController}. Should be invoked
+     * before {@link #start()}.
+     *
+     * @param performer a {@link Performer}.
+     * @param numOfWorkersMin a positive {@code int}, the minimum number
+     *        of workers of {@code performer}.
+     * @param numOfWorkersMax an {@code int}, the maximum number of workers
+     *        of {@code performer}.
+     * @param memoryPerWorker a nonnegative {@code long}, the physical memory 
+     *        (in bytes) that one more worker of {@code performer} needs outside 
+     *        this JVM, e.g., for the external process it launches. 
+     * @throws NullPointerException if {@code performer == null}.
+     * @throws IllegalArgumentException if {@code numOfWorkersMin <= 0 || numOfWorkersMax < numOfWorkersMin || memoryPerWorker < 0}.
+     */
+    public void control(Performer<?, ?> performer, int numOfWorkersMin, int numOfWorkersMax, long memoryPerWorker) {
+        if (performer == null) {
+            throw new NullPointerException("Invalid null parameter in concurrency controller control method.");
+        }
+        if (numOfWorkersMin <= 0 || numOfWorkersMax < numOfWorkersMin) {
+            throw new IllegalArgumentException("Invalid bounds in concurrency controller control method.");
+        }
+        if (memoryPerWorker < 0) {
+            throw new IllegalArgumentException("Invalid negative memory per worker in concurrency controller control method.");
+        }
+        synchronized (this.controlled) {
+            this.controlled.add(new Controlled(performer, numOfWorkersMin, numOfWorkersMax, memoryPerWorker));
+        }
+    }
+
+    /**
+     * Starts this {@link ConcurrencyController}.
+     */
+    public void start() {
+        this.checker.scheduleAtFixedRate(this::check, this.periodDuration, this.periodDuration, this.periodTimeUnit);
+    }
+
+    /**
+     * Stops this {@link ConcurrencyController}.
+     */
+    public void stop() {
+        this.checker.shutdownNow();
+    }
+
+    /**
+     * Checks the controlled {@link Performer}s and resizes them.
+     */
+    private void check() {
+        try {
+            final boolean overloaded = isCPUOverloaded();
+            final boolean underloaded = isCPUUnderloaded();
+            final boolean memoryLow = isMemoryLow();
+            final long memoryPhysicalFree = freePhysicalMemory();
+            synchronized (this.controlled) {
+                for (Controlled c : this.controlled) {
+                    final int numOfWorkers = c.performer.getNumOfWorkers();
+                    final int inputBufferSize = c.performer.getInputBufferSize();
+                    c.emptyChecks = (inputBufferSize == 0 ? c.emptyChecks + 1 : 0);
+                    final int numOfWorkersNew;
+                    if (overloaded || memoryLow) {
+                        numOfWorkersNew = numOfWorkers - 1;
+                    } else if (c.emptyChecks >= EMPTY_CHECKS_BEFORE_SHRINK) {
+                        numOfWorkersNew = numOfWorkers - 1;
+                        c.emptyChecks = 0;
+                    } else if (underloaded && inputBufferSize > numOfWorkers && 
+                               (memoryPhysicalFree < 0 || memoryPhysicalFree > c.memoryPerWorker)) {
+                        numOfWorkersNew = numOfWorkers + 1;
+                    } else {
+                        numOfWorkersNew = numOfWorkers;
+                    }
+                    final int numOfWorkersBounded = Math.max(c.numOfWorkersMin, Math.min(numOfWorkersNew, c.numOfWorkersMax));
+                    if (numOfWorkersBounded != numOfWorkers && c.performer.resizeWorkers(numOfWorkersBounded)) {
+                        LOGGER.info("Resized %s from %d to %d workers (input buffer size: %d, CPU overloaded: %b, memory low: %b)", c.performer.getClass().getSimpleName(), numOfWorkers, numOfWorkersBounded, inputBufferSize, overloaded, memoryLow);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            //must not propagate, otherwise the checker is descheduled
+            LOGGER.error("Unexpected runtime exception while controlling concurrency");
+            LOGGER.error("Message: %s", e.toString());
+            LOGGER.error("Stack trace:");
+            for (StackTraceElement elem : e.getStackTrace()) {
+                LOGGER.error("%s", elem.toString());
+            }
+        }
+    }
+
+    /**
+     * Returns the system load average per processor.
+     *
+     * @return a {@code double}, negative if the load
+     *         average is not available.
+     */
+    private static double loadPerProcessor() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        final double load = os.getSystemLoadAverage();
+        return (load < 0 ? load : load / os.getAvailableProcessors());
+    }
+
+    private static boolean isCPUOverloaded() {
+        return loadPerProcessor() > LOAD_HIGH;
+    }
+
+    private static boolean isCPUUnderloaded() {
+        //when the load is not available, assumes
+        //that the CPU may sustain more workers
+        return loadPerProcessor() < LOAD_LOW;
+    }
+
+    /**
+     * Returns the free physical memory.
+     *
+     * @return a {@code long}, the free physical memory
+     *         in bytes, negative if it is not available.
+     */
+    private static long freePhysicalMemory() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getFreePhysicalMemorySize();
+        }
+        return -1L;
+    }
+
+    /**
+     * Returns the heap memory of this JVM that was 
+     * in use after the last garbage collection, so 
+     * the garbage is not counted as used.
+     *
+     * @return a {@code long}, the used heap memory
+     *         in bytes.
+     */
+    public static long heapUsedAfterCollection() {
+        long retVal = 0L;
+        boolean available = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isValid()) {
+                continue;
+            }
+            final MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                retVal += usage.getUsed();
+                available = true;
+            }
+        }
+        if (!available) {
+            //no pool supports it: falls back to the current usage
+            final Runtime rt = Runtime.getRuntime();
+            retVal = rt.totalMemory() - rt.freeMemory();
+        }
+        return retVal;
+    }
+
+    /**
+     * Checks whether the free memory is low, both
+     * the free heap memory of this JVM and (when
+     * available) the free physical memory, that
+     * is needed to run the external processes.
+     *
+     * @return {@code true} iff the memory is low.
+     */
+    private static boolean isMemoryLow() {
+        final long heapMax = Runtime.getRuntime().maxMemory();
+        if (heapMax - heapUsedAfterCollection() < heapMax * MEMORY_HEAP_FREE_LOW) {
+            return true;
+        }
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            final com.sun.management.OperatingSystemMXBean osSun = (com.sun.management.OperatingSystemMXBean) os;
+            final long total = osSun.getTotalPhysicalMemorySize();
+            return (total > 0 && osSun.getFreePhysicalMemorySize() < total * MEMORY_PHYSICAL_FREE_LOW);
+        }
+        return false;
+    }
+}
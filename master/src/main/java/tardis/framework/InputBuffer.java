@@ -37,4 +37,11 @@ public interface InputBuffer<I> {
      * @return {@code true} iff it is empty.  
      */
     boolean isEmpty();
+    
+    /**
+     * Returns the number of items stored in this buffer.
+     * 
+     * @return an {@code int}, the number of stored items.
+     */
+    int size();
 }
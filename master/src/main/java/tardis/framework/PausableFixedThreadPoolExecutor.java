@@ -135,6 +135,24 @@ public class PausableFixedThreadPoolExecutor extends ThreadPoolExecutor {
         }
     }
 
+    /**
+     * Changes the number of threads in this thread pool.
+     * The threads in excess terminate when they become idle.
+     * 
+     * @param nThreads the new number of threads in the pool.
+     * @throws IllegalArgumentException if {@code nThreads <= 0}.
+     */
+    final synchronized void resize(int nThreads) {
+        //the core size may never exceed the maximum size
+        if (nThreads > getMaximumPoolSize()) {
+            setMaximumPoolSize(nThreads);
+            setCorePoolSize(nThreads);
+        } else {
+            setCorePoolSize(nThreads);
+            setMaximumPoolSize(nThreads);
+        }
+    }
+
     /**
      * Checks if this thread pool is idle.
      * 
@@ -7,6 +7,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
+
 /**
  * A performer encapsulates a set of concurrent workers. Each worker  
  * executes a job, built from a batch of input items from a common {@link InputBuffer}, 
@@ -28,10 +31,18 @@ public abstract class Performer<I,O> {
     
     /**
      * The {@link OutputBuffer} where this {@link Performer} 
-     * will put the output items.
+     * will put the output items. It counts the added items
+     * in {@link #quiescenceCounter}.
      */
     private final OutputBuffer<O> out;
     
+    /**
+     * The {@link QuiescenceCounter} that counts the items
+     * in flight. It is shared by all the {@link Performer}s
+     * monitored by the same {@link TerminationManager}.
+     */
+    private volatile QuiescenceCounter quiescenceCounter;
+    
     /**
      * The maximum number of input items that are passed as a batch
      * to {@link #makeJob(List) makeJob}.
@@ -103,6 +114,12 @@ public abstract class Performer<I,O> {
     private ArrayList<I> seed;
     
     private final AtomicInteger preallocatedWorkers = new AtomicInteger(0);
+    
+    /**
+     * The {@link Histogram} of the latencies of the jobs,
+     * in milliseconds.
+     */
+    private final Histogram jobLatency;
 
     /**
      * Constructor.
@@ -130,12 +147,24 @@ public abstract class Performer<I,O> {
             throw new IllegalArgumentException("Invalid negative or zero parameter in performer constructor.");
         }
         this.in = in;
-        this.out = out;
+        this.out = item -> {
+            //counts the item before it becomes visible
+            //to the consumers
+            this.quiescenceCounter.increment(1);
+            final boolean added = out.add(item);
+            if (!added) {
+                this.quiescenceCounter.decrement(1);
+            }
+            return added;
+        };
+        this.quiescenceCounter = new QuiescenceCounter();
+        this.jobLatency = Metrics.histogram("performer." + name + ".job_latency_ms");
         this.numTargetsPerJobMax = numTargetsPerJobMax;
         this.throttleFactor = throttleFactor;
         this.timeoutDuration = timeoutDuration;
         this.timeoutTimeUnit = timeoutTimeUnit;
         this.mainThread = new Thread(() -> {
+            onStart();
             submitSeedIfPresent();
             while (true) {
                 try {
@@ -186,10 +215,22 @@ public abstract class Performer<I,O> {
    protected abstract Object[] allocateJob(List<I> items);
    
    protected abstract void executeJob(List<I> items, Object... args);
+   
+    /**
+     * Sets the {@link QuiescenceCounter} of this {@link Performer}.
+     * Should be invoked before {@link #start()}.
+     * 
+     * @param quiescenceCounter a {@link QuiescenceCounter}.
+     */
+    final void setQuiescenceCounter(QuiescenceCounter quiescenceCounter) {
+        this.quiescenceCounter = quiescenceCounter;
+    }
 
     /**
      * Gets the {@link OutputBuffer} of this {@link Performer}. Meant
      * to be used in the subclasses to implement {@link #makeJob(List)}.
+     * All the output items must be put through it, so they are counted
+     * for termination detection.
      * 
      * @return an {@link OutputBuffer}.
      */
@@ -197,6 +238,26 @@ public abstract class Performer<I,O> {
         return this.out;
     }
 
+    /**
+     * Puts an input item back in an input buffer, e.g., to 
+     * defer its processing. Meant to be used in the subclasses 
+     * instead of putting the item directly, so the item is 
+     * counted for termination detection.
+     * 
+     * @param in the {@link OutputBuffer} where the item is put. It
+     *        should be the input buffer of this {@link Performer}.
+     * @param item the input item.
+     * @return {@code true} iff the item was put in {@code in}.
+     */
+    protected final boolean putBack(OutputBuffer<I> in, I item) {
+        this.quiescenceCounter.increment(1);
+        final boolean added = in.add(item);
+        if (!added) {
+            this.quiescenceCounter.decrement(1);
+        }
+        return added;
+    }
+
     /**
      * Seeds the {@link Performer} with a set of initial items,
      * that are executed immediately as the performer 
@@ -218,9 +279,7 @@ public abstract class Performer<I,O> {
     
     /**
      * Pauses the performer. A paused performer does not
-     * consume the items in its input queue. Only a paused
-     * performer can reliably be queried on whether 
-     * it {@link #isIdle()}.
+     * consume the items in its input queue.
      */
     public final void pause() {
     	//if this performer is already paused, there is
@@ -274,7 +333,8 @@ public abstract class Performer<I,O> {
     /**
      * Checks whether this performer is idle. 
      * This method gives a reliable answer only when the
-     * performed is {@link #pause() pause}d.
+     * performer is {@link #pause() pause}d, or when no item
+     * is in flight according to its {@link QuiescenceCounter}.
      * 
      * @return {@code true} iff the performer is idle, i.e., 
      * iff all the workers are idle and the input queue is
@@ -302,6 +362,14 @@ public abstract class Performer<I,O> {
         onStop();
     }
     
+    /**
+     * Hook for initialization to do on start, 
+     * before the seed is submitted.
+     */
+    protected void onStart() {
+    	//nothing to do by default
+    }
+    
     /**
      * Hook for cleanup to do on pause.
      */
@@ -344,6 +412,49 @@ public abstract class Performer<I,O> {
      */
     protected abstract int availableWorkers();
     
+    /**
+     * Returns the number of workers.
+     * 
+     * @return an {@code int}.
+     */
+    protected abstract int getNumOfWorkers();
+    
+    /**
+     * Changes the number of workers, if this {@link Performer}
+     * supports it. Running jobs are not affected. By default
+     * it does nothing.
+     * 
+     * @param numOfWorkers a positive {@code int}, the new 
+     *        number of workers.
+     * @return {@code true} iff this {@link Performer} supports
+     *         changing the number of its workers.
+     */
+    protected boolean resizeWorkers(int numOfWorkers) {
+    	return false;
+    }
+    
+    /**
+     * Returns the number of items in the input buffer.
+     * 
+     * @return an {@code int}.
+     */
+    final int getInputBufferSize() {
+    	return this.in.size();
+    }
+    
+    /**
+     * Checks whether the workers poll the input items
+     * by themselves by means of {@link #pollJob()}. In
+     * such case the main thread does not dispatch jobs, 
+     * and only submits the seed (if present).
+     * 
+     * @return {@code true} iff the workers poll the input
+     *         items. By default returns {@code false}.
+     */
+    protected boolean workersPollInput() {
+    	return false;
+    }
+    
     protected int getPreallocatedWorkers() {
     	return this.preallocatedWorkers.get();
     }
@@ -369,8 +480,8 @@ public abstract class Performer<I,O> {
         if (this.seed == null) {
             return;
         }
-        final Runnable job = makeJob(this.seed);
-        execute(job);
+        this.quiescenceCounter.increment(this.seed.size());
+        submitJob(this.seed);
     }
 
     /**
@@ -405,6 +516,13 @@ public abstract class Performer<I,O> {
      *         interrupted while waiting for an input.
      */
     private void waitInputAndSubmitJob() throws InterruptedException {
+        //the workers poll by themselves, so there is
+        //nothing to do until pause or stop
+        if (workersPollInput()) {
+            Thread.sleep(Long.MAX_VALUE);
+            return;
+        }
+        
         //throttles
         if (availableWorkers() < this.numTargetsPerJobMax * this.throttleFactor) {
             return;
@@ -415,8 +533,60 @@ public abstract class Performer<I,O> {
         
         //submits job
         if (items != null && items.size() > 0) {
-            final Runnable job = makeJob(items);
-            execute(job);
+            submitJob(items);
         }
     }
+
+    /**
+     * To be invoked by the main thread. Makes a job for a batch
+     * of input items and submits it to the thread pool. The items
+     * are discounted from the {@link QuiescenceCounter} when the
+     * job is over.
+     * 
+     * @param items a {@link List}{@code <I>}, the batch of input items.
+     */
+    private void submitJob(List<I> items) {
+        execute(makeJobCounted(items));
+    }
+
+    /**
+     * To be invoked by a worker, when {@link #workersPollInput()}{@code == true}.
+     * Waits for input items in the input queue up to a timeout, and makes 
+     * a job for processing them, that the worker shall run.
+     * 
+     * @return a {@link Runnable}, or {@code null} if no input item 
+     *         arrived before the timeout.
+     * @throws InterruptedException if the worker is interrupted
+     *         while waiting for an input.
+     */
+    protected final Runnable pollJob() throws InterruptedException {
+        final List<I> items = this.in.pollN(this.numTargetsPerJobMax, this.timeoutDuration, this.timeoutTimeUnit);
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+        return makeJobCounted(items);
+    }
+
+    /**
+     * Makes a job for a batch of input items that, when over, 
+     * discounts the items from the {@link QuiescenceCounter}
+     * and records its latency.
+     * 
+     * @param items a {@link List}{@code <I>}, the batch of input items.
+     * @return a {@link Runnable}.
+     */
+    private Runnable makeJobCounted(List<I> items) {
+        final QuiescenceCounter quiescenceCounter = this.quiescenceCounter;
+        final Histogram jobLatency = this.jobLatency;
+        final Runnable job = makeJob(items);
+        return () -> {
+            final long start = System.nanoTime();
+            try {
+                job.run();
+            } finally {
+                jobLatency.updateMillisSince(start);
+                quiescenceCounter.decrement(items.size());
+            }
+        };
+    }
 }
@@ -72,6 +72,11 @@ public abstract class PerformerMultiServer<I,O> extends Performer<I,O> {
     	return this.threadPool.isIdle() && availableWorkers() == this.totalWorkers;
     }
     
+    @Override
+    protected final int getNumOfWorkers() {
+    	return this.totalWorkers;
+    }
+    
     @Override
     protected final void execute(Runnable job) {
     	this.threadPool.execute(job);
@@ -67,6 +67,17 @@ public abstract class PerformerPausableFixedThreadPoolExecutor<I,O> extends Perf
     	return this.threadPool.getCorePoolSize() - this.threadPool.getActiveCount() - this.getPreallocatedWorkers();
     }
     
+    @Override
+    protected final int getNumOfWorkers() {
+    	return this.threadPool.getCorePoolSize();
+    }
+    
+    @Override
+    protected final boolean resizeWorkers(int numOfWorkers) {
+    	this.threadPool.resize(numOfWorkers);
+    	return true;
+    }
+    
     @Override
     protected final void execute(Runnable job) {
     	this.threadPool.execute(job);
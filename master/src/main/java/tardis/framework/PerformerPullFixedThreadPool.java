@@ -0,0 +1,269 @@
+package tardis.framework;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Performer} whose workers poll the input items by
+ * themselves, without the mediation of the main thread. The
+ * workers are long-running loops that block while polling and
+ * while running the jobs, so they run in a fixed thread pool
+ * with one thread per worker, or in virtual threads when the 
+ * JVM supports them (i.e., never on Java 8).
+ * Since a worker polls only when it is free, the jobs are
+ * always throttled. The number of workers can be changed up
+ * to a maximum: the workers in excess wait without polling.
+ *
+ * @author Pietro Braione
+ *
+ * @param <I> The type of the items that are read from the {@link InputBuffer}.
+ * @param <O> The type of the items that are put in the {@link OutputBuffer}.
+ */
+public abstract class PerformerPullFixedThreadPool<I,O> extends Performer<I,O> {
+    /**
+     * The maximum number of workers.
+     */
+    private final int numOfWorkersMax;
+
+    /**
+     * The number of workers; the workers with
+     * index greater or equal to it wait.
+     */
+    private volatile int numOfWorkers;
+
+    /**
+     * The {@link ExecutorService} where the workers run.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The jobs submitted by the main thread (i.e., the seed)
+     * and not yet taken by a worker.
+     */
+    private final ConcurrentLinkedQueue<Runnable> jobsSubmitted = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Counts the jobs that are submitted or running.
+     */
+    private final AtomicInteger jobsActive = new AtomicInteger(0);
+
+    /**
+     * A {@link ReentrantLock} to synchronize the workers
+     * with the thread issuing a pause.
+     */
+    private final ReentrantLock lockPause = new ReentrantLock();
+
+    /**
+     * A {@link Condition} associated to {@link #lockPause}
+     * that is notified whenever this {@link PerformerPullFixedThreadPool}
+     * is resumed from a pause, or its workers are resized.
+     */
+    private final Condition conditionNotPaused = this.lockPause.newCondition();
+
+    /**
+     * Set to {@code true} whenever the workers are paused.
+     */
+    private volatile boolean paused = false;
+
+    /**
+     * Set to {@code true} upon shutdown.
+     */
+    private volatile boolean shutdown = false;
+
+    /**
+     * Constructor.
+     *
+     * @param name a meaningful name for the performer that will be used for debugging.
+     * @param in The {@link InputBuffer} from which this {@link Performer} will read the input items.
+     * @param out The {@link OutputBuffer} where this {@link Performer} will put the output items.
+     * @param numOfWorkers an {@code int}, the initial number of workers.
+     * @param numOfWorkersMax an {@code int}, the maximum number of workers.
+     *        If less than {@code numOfWorkers}, then {@code numOfWorkers}
+     *        is the maximum.
+     * @param numInputs An {@code int}, the maximum number of targets that are passed as a batch
+     *        to {@link #makeJob(List) makeJob}.
+     * @param useVirtualThreads a {@code boolean}; if {@code true} and the JVM supports
+     *        virtual threads, the workers run in virtual threads, otherwise they run
+     *        in a fixed thread pool with {@code numOfWorkersMax} threads.
+     * @param timeoutDuration The maximum duration of the time a worker will wait for
+     *        the arrival of an input item.
+     * @param timeoutTimeUnit The {@link TimeUnit} for {@code timeoutDuration}.
+     * @throws NullPointerException if {@code in == null || out == null || timeoutUnit == null}.
+     * @throws IllegalArgumentException if {@code numOfWorkers <= 0 || numInputs <= 0 || timeoutDuration < 0}.
+     */
+    public PerformerPullFixedThreadPool(String name, InputBuffer<I> in, OutputBuffer<O> out, int numOfWorkers, int numOfWorkersMax, int numInputs, boolean useVirtualThreads, long timeoutDuration, TimeUnit timeoutTimeUnit) {
+    	super(name, in, out, numInputs, 1.0f, timeoutDuration, timeoutTimeUnit);
+        if (numOfWorkers <= 0) {
+            throw new IllegalArgumentException("Invalid negative or zero parameter in PerformerPullFixedThreadPool constructor.");
+        }
+        this.numOfWorkersMax = Math.max(numOfWorkers, numOfWorkersMax);
+        this.numOfWorkers = numOfWorkers;
+        final ExecutorService virtualThreads = (useVirtualThreads ? newVirtualThreadPerTaskExecutor() : null);
+        if (virtualThreads == null) {
+            this.workers = Executors.newFixedThreadPool(this.numOfWorkersMax, new PausableFixedThreadPoolExecutor.MyThreadFactory(name));
+        } else {
+            this.workers = virtualThreads;
+        }
+    }
+
+    /**
+     * Creates an {@link ExecutorService} that runs each task in
+     * a new virtual thread. Virtual threads are looked up
+     * reflectively, since they are not available on all the
+     * supported JVMs.
+     *
+     * @return an {@link ExecutorService}, or {@code null} if
+     *         the JVM does not support virtual threads.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            final Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | SecurityException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected final boolean workersPollInput() {
+        return true;
+    }
+
+    @Override
+    protected final void onStart() {
+        for (int i = 0; i < this.numOfWorkersMax; ++i) {
+            final int index = i;
+            this.workers.execute(() -> work(index));
+        }
+    }
+
+    @Override
+    protected final void onPause() {
+        this.paused = true;
+    }
+
+    @Override
+    protected final void onResume() {
+        this.paused = false;
+        final ReentrantLock lock = this.lockPause;
+        lock.lock();
+        try {
+            this.conditionNotPaused.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected final void onShutdown() {
+        this.shutdown = true;
+        onResume(); //unlocks the paused workers, if any
+    	this.workers.shutdownNow();
+    }
+
+    @Override
+    protected final int getNumOfWorkers() {
+    	return this.numOfWorkers;
+    }
+
+    @Override
+    protected final boolean resizeWorkers(int numOfWorkers) {
+        this.numOfWorkers = Math.max(1, Math.min(numOfWorkers, this.numOfWorkersMax));
+        final ReentrantLock lock = this.lockPause;
+        lock.lock();
+        try {
+            this.conditionNotPaused.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    protected final boolean areWorkersIdle() {
+    	return this.jobsActive.get() == 0;
+    }
+
+    @Override
+    protected final int availableWorkers() {
+    	return this.numOfWorkers - this.jobsActive.get();
+    }
+
+    @Override
+    protected final void execute(Runnable job) {
+        this.jobsActive.incrementAndGet();
+        this.jobsSubmitted.add(job);
+    }
+
+    @Override
+    protected Object[] allocateJob(List<I> items) {
+    	return null; //nothing to do, and no args to return
+    }
+
+    /**
+     * The loop of a worker: Takes a submitted job if there
+     * is one, otherwise polls the input items and makes a job,
+     * and runs the job, until shutdown. A worker that is
+     * already waiting for input items when this performer is
+     * paused (or resized) may still run one job.
+     * 
+     * @param index an {@code int}, the index of the worker.
+     */
+    private void work(int index) {
+        while (!this.shutdown) {
+            try {
+                waitIfPaused(index);
+                Runnable job = this.jobsSubmitted.poll();
+                if (job == null) {
+                    job = pollJob();
+                    if (job == null) {
+                        continue;
+                    }
+                    this.jobsActive.incrementAndGet();
+                }
+                try {
+                    job.run();
+                } catch (RuntimeException e) {
+                    //as a thread pool would do, reports
+                    //the exception, but the worker survives
+                    final Thread t = Thread.currentThread();
+                    t.getUncaughtExceptionHandler().uncaughtException(t, e);
+                } finally {
+                    this.jobsActive.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                //interrupted by shutdown: the loop
+                //condition will be checked
+            }
+        }
+    }
+
+    /**
+     * To be invoked by a worker. Waits while the
+     * workers are paused, or while the worker is 
+     * in excess.
+     *
+     * @param index an {@code int}, the index of the worker.
+     * @throws InterruptedException if the worker is
+     *         interrupted while waiting to be resumed.
+     */
+    private void waitIfPaused(int index) throws InterruptedException {
+        final ReentrantLock lock = this.lockPause;
+        lock.lock();
+        try {
+            while ((this.paused || index >= this.numOfWorkers) && !this.shutdown) {
+                this.conditionNotPaused.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -38,4 +38,9 @@ public class QueueInputOutputBuffer<E> implements InputBuffer<E>, OutputBuffer<E
     public boolean isEmpty() {
         return this.queue.isEmpty();
     }
+
+    @Override
+    public int size() {
+        return this.queue.size();
+    }
 }
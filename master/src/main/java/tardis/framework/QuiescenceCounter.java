@@ -0,0 +1,142 @@
+package tardis.framework;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts the items that are in flight across a set of {@link Performer}s,
+ * i.e., the items that were put in some buffer and whose job is not yet
+ * over. An item is counted just before it is put in an {@link OutputBuffer},
+ * and it is discounted when the job that consumed it finishes. Since
+ * a job puts its output items before finishing, the count drops to zero
+ * only when there is no more work to do.
+ *
+ * @author Pietro Braione
+ *
+ */
+final class QuiescenceCounter {
+    /**
+     * A {@link ReentrantLock} guarding {@link #inFlight} and
+     * {@link #version}.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * A {@link Condition} associated to {@link #lock} that is
+     * notified whenever {@link #inFlight} drops to zero, or
+     * upon {@link #wakeUp()}.
+     */
+    private final Condition conditionQuiescent = this.lock.newCondition();
+
+    /**
+     * The number of items in flight.
+     */
+    private long inFlight = 0;
+
+    /**
+     * The number of changes of {@link #inFlight} so far.
+     */
+    private long version = 0;
+
+    /**
+     * Counts some items that are about to be put in an
+     * {@link OutputBuffer}, or that are about to be
+     * passed to a job without passing through an
+     * {@link InputBuffer} (e.g., the seed items).
+     *
+     * @param n an {@code int}, the number of items.
+     */
+    void increment(int n) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            this.inFlight += n;
+            ++this.version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discounts some items, either because the job that
+     * consumed them is over or because putting them in
+     * an {@link OutputBuffer} failed.
+     *
+     * @param n an {@code int}, the number of items.
+     */
+    void decrement(int n) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            this.inFlight -= n;
+            ++this.version;
+            if (this.inFlight <= 0) {
+                this.conditionQuiescent.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes up the threads waiting in {@link #awaitQuiescence(long, long, TimeUnit) awaitQuiescence}.
+     */
+    void wakeUp() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            this.conditionQuiescent.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits, up to a timeout, until no item is in flight and
+     * something changed since a previous observation. Returns
+     * earlier upon {@link #wakeUp()}.
+     *
+     * @param versionObserved a {@code long}, the version returned
+     *        by the previous invocation of this method ({@code 0}
+     *        the first time).
+     * @param timeoutDuration the maximum duration of the wait.
+     * @param timeoutTimeUnit the {@link TimeUnit} for {@code timeoutDuration}.
+     * @return a {@code long}: if no item is in flight, the current
+     *         version, to be passed to {@link #isQuiescentAt(long)};
+     *         otherwise, {@code -1}.
+     * @throws InterruptedException if the invoking thread is interrupted
+     *         while waiting.
+     */
+    long awaitQuiescence(long versionObserved, long timeoutDuration, TimeUnit timeoutTimeUnit) throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (this.inFlight > 0 || this.version == versionObserved) {
+                this.conditionQuiescent.await(timeoutDuration, timeoutTimeUnit);
+            }
+            return (this.inFlight <= 0 ? this.version : -1L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether no item is in flight and nothing changed
+     * since a given version.
+     *
+     * @param version a {@code long}, a version returned by
+     *        {@link #awaitQuiescence(long, long, TimeUnit) awaitQuiescence}.
+     * @return {@code true} iff no item was in flight since
+     *         {@code version} was observed.
+     */
+    boolean isQuiescentAt(long version) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (this.inFlight <= 0 && this.version == version);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -8,11 +8,22 @@ import tardis.Options;
 /**
  * Component that detects if a set of {@link Performer}s is at a fixpoint, 
  * or if a timeout is expired, and in the case stops the {@link Performer}s.
+ * The fixpoint is detected by means of a {@link QuiescenceCounter} shared
+ * by the {@link Performer}s, as soon as no more items are in flight.
  *  
  * @author Pietro Braione
  *
  */
 public final class TerminationManager {
+    /**
+     * The maximum duration of a wait of {@link #detectorTermination}
+     * for an event on {@link #quiescenceCounter}, in milliseconds. 
+     * Upon expiration the idleness of the {@link #performers} is 
+     * checked again, to account for workers that complete their 
+     * work outside the jobs (e.g., remote servers).
+     */
+    private static final long RECHECK_PERIOD_MILLIS = 1_000L;
+    
     /**
      * The maximum duration of the operativity of the {@link #performers}, 
      * i.e., the timeout.
@@ -29,15 +40,21 @@ public final class TerminationManager {
      */
     private final Performer<?,?>[] performers;
     
+    /**
+     * The {@link QuiescenceCounter} shared by the {@link #performers}.
+     */
+    private final QuiescenceCounter quiescenceCounter;
+    
     /**
      * The {@link Thread} that waits for {@link #timeoutDuration} and then stops
-     * the {@link #performers} by interrupting {@link #detectorTermination}.
+     * the {@link #performers} by waking up {@link #detectorTermination}.
      */
     private final Thread detectorTimeout;
     
     /**
-     * The {@link Thread} that periodically polls the {@link #performers}
-     * to determine whether they are at the fixpoint, and finally stops them.
+     * The {@link Thread} that waits until no item is in flight, checks 
+     * whether the {@link #performers} are at the fixpoint, and finally 
+     * stops them.
      */
     private final Thread detectorTermination;
     
@@ -61,51 +78,55 @@ public final class TerminationManager {
         this.timeoutDuration = o.getGlobalTimeBudgetDuration();
         this.timeoutTimeUnit = o.getGlobalTimeBudgetUnit();
         this.performers = performers.clone();
+        this.quiescenceCounter = new QuiescenceCounter();
+        for (Performer<?, ?> performer : this.performers) {
+            performer.setQuiescenceCounter(this.quiescenceCounter);
+        }
         this.timedOut = false;
         this.detectorTimeout = new Thread(() -> {
             try {
                 this.timeoutTimeUnit.sleep(this.timeoutDuration);
                 this.timedOut = true;
+                this.quiescenceCounter.wakeUp();
             } catch (InterruptedException e) {
-                //this should never happen, but 
-                //in the case we behave as it were
+                //interrupted by detectorTermination upon
+                //termination; anyway we behave as it were
                 //a timeout, just for safety
                 this.timedOut = true;
             }
         }, "TerminationManager-detectorTimeout");
         this.detectorTermination = new Thread(() -> {
-        	boolean activityStarted = false;
+            //the initial version is 0, so the first wait 
+            //returns only after some activity started
+            long versionObserved = 0L;
             while (true) {
+                long version;
                 try {
-                    TimeUnit.SECONDS.sleep(1);
+                    version = this.quiescenceCounter.awaitQuiescence(versionObserved, RECHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
                 } catch (InterruptedException e) {
                     //this should never happen,
                     //in the case falling through 
                     //is ok
+                    version = -1L;
                 }
 
                 //exits upon timeout
                 if (this.timedOut) {
                     break;
                 }
+                
+                //some item in flight, or no activity yet
+                if (version <= 0L) {
+                    continue;
+                }
 
-                //exits upon termination
-                //double check
-                final boolean allIdleUnsafe = allIdle();
-                if (allIdleUnsafe) {
-                    //synchronizes and repeats the check
-                    pauseAll();
-                    final boolean allIdleSafe = allIdle();
-                    resumeAll();
-                    if (allIdleSafe && activityStarted) {
-                        this.detectorTimeout.interrupt();
-                        break;
-                    } else if (!allIdleSafe) {
-                    	activityStarted = true;
-                    }
-                } else {
-                	activityStarted = true;
+                //exits upon termination: no item was in 
+                //flight while checking the performers
+                if (allIdle() && this.quiescenceCounter.isQuiescentAt(version)) {
+                    this.detectorTimeout.interrupt();
+                    break;
                 }
+                versionObserved = version;
             }
 
             //quits
@@ -113,20 +134,6 @@ public final class TerminationManager {
         }, "TerminationManager-detectorTermination");
     }
 
-    /**
-     * Pauses all the performers.
-     */
-    private void pauseAll() {
-        Arrays.stream(this.performers).forEach(Performer::pause);
-    }
-
-    /**
-     * Resumes all the performers.
-     */
-    private void resumeAll() {
-        Arrays.stream(this.performers).forEach(Performer::resume);
-    }
-
     /**
      * Stops all the performers.
      */
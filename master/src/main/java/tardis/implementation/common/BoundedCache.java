@@ -0,0 +1,154 @@
+package tardis.implementation.common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import tardis.framework.ConcurrencyController;
+
+/**
+ * A thread-safe cache with a maximum number of entries and
+ * least-recently-used eviction. The cache also evicts half
+ * of its entries whenever an insertion happens and the used
+ * heap memory is above a high watermark, so it never is the
+ * reason of an {@link OutOfMemoryError}.
+ *
+ * @author Pietro Braione
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public final class BoundedCache<K, V> {
+    /**
+     * The fraction of the maximum heap memory above which
+     * the cache is considered under memory pressure.
+     */
+    private static final double MEMORY_HIGH_WATERMARK = 0.9d;
+
+    /** The maximum number of entries. */
+    private final int maxSize;
+
+    /** The entries, in access order. Guarded by {@code this}. */
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The number of lookups that found the key. Guarded by {@code this}. */
+    private long hits = 0;
+
+    /** The number of lookups that did not find the key. Guarded by {@code this}. */
+    private long misses = 0;
+
+    /** The number of evicted entries. Guarded by {@code this}. */
+    private long evictions = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize a positive {@code int}, the maximum
+     *        number of entries of the cache.
+     * @throws IllegalArgumentException if {@code maxSize < 1}.
+     */
+    public BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Attempted to create a cache with maximum size less than 1.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Looks up a key.
+     *
+     * @param key a {@code K}.
+     * @return the {@code V} associated to {@code key}, or
+     *         {@code null} if {@code key} is not cached.
+     */
+    public synchronized V get(K key) {
+        final V retVal = this.entries.get(key);
+        if (retVal == null) {
+            ++this.misses;
+        } else {
+            ++this.hits;
+        }
+        return retVal;
+    }
+
+    /**
+     * Looks up a key, and if it is not cached associates
+     * it to a newly calculated value.
+     *
+     * @param key a {@code K}.
+     * @param mappingFunction a {@link Function}{@code <? super K, ? extends V>},
+     *        calculating the value to associate to {@code key} when it is not
+     *        cached. It is invoked without holding the cache lock, so other 
+     *        threads are not blocked while it runs; if some thread caches a 
+     *        value for {@code key} in the meantime, the calculated value is 
+     *        discarded.
+     * @return the {@code V} associated to {@code key} after
+     *         the invocation.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        final V cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final V calculated = mappingFunction.apply(key);
+        final V retVal = putIfAbsent(key, calculated);
+        return (retVal == null ? calculated : retVal);
+    }
+
+    /**
+     * Associates a key to a value, unless the key is
+     * already cached.
+     *
+     * @param key a {@code K}.
+     * @param value a {@code V}, not {@code null}.
+     * @return the {@code V} associated to {@code key} before
+     *         the invocation, or {@code null} if {@code key} 
+     *         was not cached (in which case it is now associated
+     *         to {@code value}).
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        final V retVal = this.entries.putIfAbsent(key, value);
+        if (retVal == null) {
+            evict();
+        }
+        return retVal;
+    }
+
+    private void evict() {
+        int toEvict = this.entries.size() - this.maxSize;
+        if (isMemoryLow()) {
+            toEvict = Math.max(toEvict, this.entries.size() / 2);
+        }
+        final Iterator<Map.Entry<K, V>> it = this.entries.entrySet().iterator();
+        while (toEvict > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            ++this.evictions;
+            --toEvict;
+        }
+    }
+
+    private static boolean isMemoryLow() {
+        //the memory in use after collection, since the 
+        //garbage is not a reason to evict
+        final long used = ConcurrencyController.heapUsedAfterCollection();
+        return used > Runtime.getRuntime().maxMemory() * MEMORY_HIGH_WATERMARK;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+}
@@ -0,0 +1,112 @@
+package tardis.implementation.common;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jbse.common.exc.InvalidInputException;
+import jbse.dec.DecisionProcedure;
+import jbse.dec.DecisionProcedureAlwSat;
+import jbse.dec.DecisionProcedureSMTLIB2_AUFNIRA;
+import jbse.dec.exc.DecisionException;
+import jbse.rewr.CalculatorRewriting;
+import jbse.rewr.RewriterExpressionOrConversionOnSimplex;
+import jbse.rewr.RewriterFunctionApplicationOnSimplex;
+import jbse.rewr.RewriterNegationElimination;
+import jbse.rewr.RewriterZeroUnit;
+
+/**
+ * Provides every thread with its own {@link DecisionProcedure}
+ * backed by a Z3 process, lazily created upon first use.
+ *
+ * @author Pietro Braione
+ */
+public final class DecisionProceduresZ3 implements AutoCloseable {
+    private static final String SWITCH_CHAR = System.getProperty("os.name").toLowerCase().contains("windows") ? "/" : "-";
+
+    /** The command line to launch Z3. */
+    private final List<String> z3CommandLine;
+
+    /** The {@link DecisionProcedure} of each thread. */
+    private final ThreadLocal<DecisionProcedure> decisionProcedure = new ThreadLocal<>();
+
+    /**
+     * All the {@link DecisionProcedure}s created so far,
+     * to close them.
+     */
+    private final List<DecisionProcedure> decisionProcedures = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Constructor.
+     *
+     * @param z3Path the {@link Path} of the Z3 executable.
+     * @param timeoutMillis a {@code long}, the timeout
+     *        in milliseconds of every Z3 query.
+     */
+    public DecisionProceduresZ3(Path z3Path, long timeoutMillis) {
+        final ArrayList<String> z3CommandLine = new ArrayList<>();
+        z3CommandLine.add(z3Path.toString());
+        z3CommandLine.add(SWITCH_CHAR + "smt2");
+        z3CommandLine.add(SWITCH_CHAR + "in");
+        z3CommandLine.add(SWITCH_CHAR + "t:" + Math.max(1L, timeoutMillis));
+        this.z3CommandLine = Collections.unmodifiableList(z3CommandLine);
+    }
+
+    /**
+     * Returns the {@link DecisionProcedure} of the current
+     * thread, creating it if it does not exist.
+     *
+     * @return a {@link DecisionProcedure}.
+     * @throws InvalidInputException if the creation of the
+     *         {@link DecisionProcedure} fails.
+     * @throws DecisionException if the creation of the
+     *         {@link DecisionProcedure} fails.
+     */
+    public DecisionProcedure get() throws InvalidInputException, DecisionException {
+    	DecisionProcedure retVal = this.decisionProcedure.get();
+    	if (retVal == null) {
+    		final CalculatorRewriting calc = new CalculatorRewriting();
+    		calc.addRewriter(new RewriterExpressionOrConversionOnSimplex());
+    		calc.addRewriter(new RewriterFunctionApplicationOnSimplex());
+    		calc.addRewriter(new RewriterZeroUnit());
+    		calc.addRewriter(new RewriterNegationElimination());
+    		retVal = new DecisionProcedureSMTLIB2_AUFNIRA(new DecisionProcedureAlwSat(calc), this.z3CommandLine);
+    		this.decisionProcedure.set(retVal);
+    		this.decisionProcedures.add(retVal);
+    	}
+    	return retVal;
+    }
+
+    /**
+     * Closes and forgets the {@link DecisionProcedure} of
+     * the current thread, e.g., after it failed. The next
+     * invocation of {@link #get()} will create a new one.
+     */
+    public void discard() {
+    	final DecisionProcedure dec = this.decisionProcedure.get();
+    	if (dec != null) {
+    		this.decisionProcedure.remove();
+    		this.decisionProcedures.remove(dec);
+    		closeQuietly(dec);
+    	}
+    }
+
+    private static void closeQuietly(DecisionProcedure dec) {
+    	try {
+    		dec.close();
+    	} catch (Exception e) {
+    		//nothing to do
+    	}
+    }
+
+    @Override
+    public void close() {
+    	synchronized (this.decisionProcedures) {
+    		for (DecisionProcedure dec : this.decisionProcedures) {
+    			closeQuietly(dec);
+    		}
+    		this.decisionProcedures.clear();
+    	}
+    }
+}
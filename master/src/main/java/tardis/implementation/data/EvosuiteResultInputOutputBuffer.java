@@ -1,45 +1,333 @@
 package tardis.implementation.data;
 
+import static tardis.implementation.common.Util.filterOnPattern;
+
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
-import tardis.framework.QueueInputOutputBuffer;
+import jbse.mem.Clause;
+import tardis.Options;
+import tardis.framework.InputBuffer;
+import tardis.framework.OutputBuffer;
 import tardis.implementation.evosuite.EvosuiteResult;
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
+
+/**
+ * The buffer of the test cases generated by EvoSuite and waiting to
+ * be explored by JBSE. The seed test cases come first, then the
+ * deferred explorations (when they may be resumed), then all the
+ * other test cases, ordered by how promising they are: first the
+ * test cases generated for a path condition aimed at a branch that
+ * is not yet covered, then those whose generating path condition
+ * has more uncovered neighbor branches, then those whose generating
+ * path condition is more novel, and finally in order of arrival.
+ *
+ * @author Pietro Braione
+ */
+public class EvosuiteResultInputOutputBuffer implements InputBuffer<EvosuiteResult>, OutputBuffer<EvosuiteResult> {
+    /** The maximum score for the neighbor branches that are not yet covered. */
+    private static final int SCORE_IMPROVABILITY_MAX = 10;
+
+    /**
+     * An {@link EvosuiteResult} with its score. The score must
+     * not change while it is in {@link EvosuiteResultInputOutputBuffer#queue},
+     * so rescoring creates a new {@link Scored}.
+     *
+     * @author Pietro Braione
+     */
+    private static final class Scored {
+        private static final Comparator<Scored> ORDER =
+            Comparator.<Scored>comparingInt(s -> (s.targetUncovered ? 0 : 1))
+            .thenComparingInt(s -> -s.improvability)
+            .thenComparingInt(s -> s.novelty)
+            .thenComparingLong(s -> s.arrival);
+
+        final EvosuiteResult item;
+        final long arrival;
+        boolean targetUncovered = false;
+        int improvability = 0;
+        int novelty = 0;
 
-public class EvosuiteResultInputOutputBuffer extends QueueInputOutputBuffer<EvosuiteResult> {
+        Scored(EvosuiteResult item, long arrival) {
+            this.item = item;
+            this.arrival = arrival;
+        }
+        
+        Scored(Scored other) {
+            this(other.item, other.arrival);
+        }
+    }
+
+    /** The seed test cases. */
     private final ConcurrentLinkedDeque<EvosuiteResult> queueWithPriority = new ConcurrentLinkedDeque<>();
+
+    /** The deferred explorations, polled only when {@link #resumeDeferred} holds. */
+    private final ConcurrentLinkedDeque<EvosuiteResult> queueDeferred = new ConcurrentLinkedDeque<>();
+
+    /** 
+     * All the other test cases, ordered by score. Guarded by 
+     * {@code this}; it is replaced when the test cases are
+     * rescored.
+     */
+    private PriorityQueue<Scored> queue = new PriorityQueue<>(11, Scored.ORDER);
     
+    /** 
+     * Rescores the test cases, so the rescorings are serialized
+     * and do not run on the threads that request them.
+     */
+    private final ExecutorService rescorer = Executors.newSingleThreadExecutor(r -> { final Thread t = new Thread(r, "TestCaseRescorer"); t.setDaemon(true); return t; });
+    
+    /** 
+     * Set when a rescoring is requested and not yet started, so 
+     * the requests that arrive in the meantime are coalesced.
+     */
+    private final AtomicBoolean rescorePending = new AtomicBoolean(false);
+
+    /** Generates the arrival numbers of the test cases. */
+    private final AtomicLong arrivals = new AtomicLong(0);
+
+    /** Tells when the deferred explorations may be resumed. */
+    private volatile BooleanSupplier resumeDeferred = () -> true;
+
+    /** Whether the test cases are scored, otherwise they are polled in order of arrival. */
+    private final boolean useTestCasePriority;
+
+    /** The {@link TreePath} used to score the test cases. */
+    private final TreePath treePath;
+
+    /**
+     * The pattern of the branches that are considered when
+     * scoring the uncovered neighbor branches.
+     */
+    private final String patternBranchesImprovability;
+
+    /** The time spent rescoring the test cases. */
+    private final Histogram rescoreTime = Metrics.histogram("buffer.test_cases.rescore_ms");
+
+    public EvosuiteResultInputOutputBuffer(Options o, TreePath treePath) {
+    	this.useTestCasePriority = o.getUseTestCasePriority();
+    	this.treePath = treePath;
+    	this.patternBranchesImprovability = (o.getIndexImprovabilityBranchPattern() == null ? o.patternBranchesTarget() : o.getIndexImprovabilityBranchPattern());
+    	Metrics.gauge("buffer.test_cases.queue_priority.size", this.queueWithPriority::size);
+    	Metrics.gauge("buffer.test_cases.queue_deferred.size", this.queueDeferred::size);
+    	Metrics.gauge("buffer.test_cases.queue_normal.size", this::sizeNormal);
+    }
+
+    /**
+     * Sets the condition under which the deferred explorations
+     * (see {@link EvosuiteResult#isDeferredExploration()}) are
+     * polled. Until it holds they stay in this buffer.
+     *
+     * @param resumeDeferred a {@link BooleanSupplier}.
+     */
+    public void setResumeDeferred(BooleanSupplier resumeDeferred) {
+    	this.resumeDeferred = resumeDeferred;
+    }
+
     @Override
     public boolean add(EvosuiteResult item) {
-    	if (item.getPathConditionGenerating() == null) {
+    	if (item.isDeferredExploration()) {
+    		this.queueDeferred.addLast(item);
+    		synchronized (this) {
+    			notifyAll();
+    		}
+    	} else if (item.getPathConditionGenerating() == null) {
     		this.queueWithPriority.addFirst(item);
-    		return true;
+    		synchronized (this) {
+    			notifyAll();
+    		}
     	} else {
-    		return super.add(item);
+    		final Scored scored = new Scored(item, this.arrivals.getAndIncrement());
+    		score(scored);
+    		synchronized (this) {
+    			this.queue.add(scored);
+    			notifyAll();
+    		}
     	}
+    	return true;
     }
-    
+
     @Override
     public List<EvosuiteResult> pollN(int n, long timeoutDuration, TimeUnit timeoutTimeUnit)
     throws InterruptedException {
     	final ArrayList<EvosuiteResult> retVal = new ArrayList<>();
-    	for (int i = 1; i <= n; ++i) {
+    	final long deadline = System.nanoTime() + timeoutTimeUnit.toNanos(timeoutDuration);
+    	synchronized (this) {
+    		//every add notifies, whatever the queue, so this waits 
+    		//until some queue has an item to poll (the deferred 
+    		//explorations may become pollable without notification, 
+    		//but then they are polled at most at the timeout)
+    		while (true) {
+    			pollAvailable(n, retVal);
+    			if (retVal.size() >= n) {
+    				return retVal;
+    			}
+    			final long remaining = deadline - System.nanoTime();
+    			if (remaining <= 0) {
+    				return retVal;
+    			}
+    			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    		}
+    	}
+    }
+    
+    /**
+     * Polls the available items without waiting, first from
+     * {@link #queueWithPriority}, then from {@link #queueDeferred}
+     * (if the deferred explorations may be resumed), and finally 
+     * from {@link #queue}. Must be invoked while holding the
+     * lock on {@code this}.
+     * 
+     * @param n an {@code int}, the number of items to poll.
+     * @param retVal the {@link List}{@code <}{@link EvosuiteResult}{@code >} 
+     *        where the polled items are added; it is filled up to size 
+     *        {@code n}.
+     */
+    private void pollAvailable(int n, List<EvosuiteResult> retVal) {
+    	while (retVal.size() < n) {
     		final EvosuiteResult item = this.queueWithPriority.pollFirst();
     		if (item == null) {
     			break;
     		}
     		retVal.add(item);
     	}
-    	if (retVal.size() < n) {
-    		retVal.addAll(super.pollN(n - retVal.size(), timeoutDuration, timeoutTimeUnit));
+    	if (retVal.size() < n && !this.queueDeferred.isEmpty() && this.resumeDeferred.getAsBoolean()) {
+    		while (retVal.size() < n) {
+    			final EvosuiteResult item = this.queueDeferred.pollFirst();
+    			if (item == null) {
+    				break;
+    			}
+    			retVal.add(item);
+    		}
+    	}
+    	while (retVal.size() < n && !this.queue.isEmpty()) {
+    		retVal.add(this.queue.poll().item);
     	}
-    	return retVal;
     }
-    
+
     @Override
     public boolean isEmpty() {
-    	return queueWithPriority.isEmpty() && super.isEmpty();
+    	return this.queueWithPriority.isEmpty() && this.queueDeferred.isEmpty() && sizeNormal() == 0;
+    }
+
+    @Override
+    public int size() {
+    	return this.queueWithPriority.size() + this.queueDeferred.size() + sizeNormal();
+    }
+    
+    private synchronized int sizeNormal() {
+    	return this.queue.size();
+    }
+
+    /**
+     * Requests to recalculate the scores of all the test cases 
+     * stored in this buffer and to reorder them. To be invoked 
+     * when the coverage changes. It returns immediately: the 
+     * test cases are rescored by a background thread, and the
+     * requests that arrive before the rescoring starts are 
+     * served by that rescoring.
+     */
+    public void rescore() {
+    	if (!this.useTestCasePriority) {
+    		return;
+    	}
+    	if (this.rescorePending.compareAndSet(false, true)) {
+    		this.rescorer.execute(this::doRescore);
+    	}
+    }
+    
+    /**
+     * Rescores the test cases. They are scored without 
+     * locking this buffer, and then the reordered queue 
+     * replaces the current one at once, so the test cases
+     * remain visible to the consumers while they are rescored.
+     */
+    private void doRescore() {
+    	//the coverage changes after this point request a new rescoring
+    	this.rescorePending.set(false);
+    	final long start = System.nanoTime();
+
+    	//scores a snapshot of the queue, locking the treePath 
+    	//once for all the test cases
+    	final ArrayList<Scored> snapshot;
+    	synchronized (this) {
+    		snapshot = new ArrayList<>(this.queue);
+    	}
+    	final IdentityHashMap<Scored, Scored> rescored = new IdentityHashMap<>();
+    	synchronized (this.treePath) {
+    		for (Scored scored : snapshot) {
+    			final Scored scoredNew = new Scored(scored);
+    			scoreLocked(scoredNew);
+    			rescored.put(scored, scoredNew);
+    		}
+    	}
+
+    	//replaces the queue; the test cases polled in the 
+    	//meantime are dropped, and those added in the meantime
+    	//are kept as they are, since they are freshly scored
+    	synchronized (this) {
+    		final PriorityQueue<Scored> queueNew = new PriorityQueue<>(Math.max(11, this.queue.size()), Scored.ORDER);
+    		for (Scored scored : this.queue) {
+    			queueNew.add(rescored.getOrDefault(scored, scored));
+    		}
+    		this.queue = queueNew;
+    	}
+    	this.rescoreTime.updateMillisSince(start);
+    }
+
+    /**
+     * Calculates the score of a test case, based on the
+     * {@link TreePath} information about the path condition
+     * for which it was generated.
+     *
+     * @param scored a {@link Scored}. It must not be in
+     *        {@link #queue}.
+     */
+    private void score(Scored scored) {
+    	if (!this.useTestCasePriority) {
+    		return;
+    	}
+    	synchronized (this.treePath) {
+    		scoreLocked(scored);
+    	}
+    }
+
+    /**
+     * Same as {@link #score(Scored)}, but must be invoked 
+     * while holding the lock on {@link #treePath}.
+     *
+     * @param scored a {@link Scored}. It must not be in
+     *        {@link #queue}.
+     */
+    private void scoreLocked(Scored scored) {
+    	final String entryPoint = scored.item.getTargetMethodSignature();
+    	final List<Clause> pathCondition = scored.item.getPathConditionGenerating();
+    	final String targetBranch = scored.item.getTargetBranch();
+    	scored.targetUncovered = (targetBranch != null && !this.treePath.covers(targetBranch));
+    	final Set<String> branchesNeighbor = this.treePath.getBranchesNeighbor(entryPoint, pathCondition);
+    	if (branchesNeighbor == null) {
+    		scored.improvability = 0;
+    	} else {
+    		int improvability = 0;
+    		for (String branch : filterOnPattern(branchesNeighbor, this.patternBranchesImprovability)) {
+    			if (!this.treePath.covers(branch)) {
+    				++improvability;
+    			}
+    		}
+    		scored.improvability = Math.min(improvability, SCORE_IMPROVABILITY_MAX);
+    	}
+    	scored.novelty = Math.max(0, this.treePath.getIndexNovelty(entryPoint, pathCondition));
     }
 }
@@ -13,6 +13,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -26,6 +27,8 @@ import tardis.framework.InputBuffer;
 import tardis.framework.OutputBuffer;
 import tardis.implementation.data.ClassifierKNN.ClassificationResult;
 import tardis.implementation.jbse.JBSEResult;
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
 
 /**
  * An {@link InputBuffer} and {@link OutputBuffer} for {@link JBSEResult}s that
@@ -177,16 +180,46 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
     
     /** The {@link TreePath} used to store information about the path conditions. */
     private final TreePath treePath;
+    
+    /** 
+     * The number of stored items above which the producers should 
+     * defer the production of items, or {@code 0} for no limit.
+     */
+    private final int highWatermark;
+
+    /** 
+     * Whether {@link #pollN(int, long, TimeUnit) pollN} returns only 
+     * items with the same target class, so they can be evolved by 
+     * a single EvoSuite process.
+     */
+    private final boolean pollSameTargetClass;
 
     /** The queues where the {@link JBSEResult}s are stored. */
     private final HashMap<Integer, LinkedBlockingQueue<JBSEResult>> queues = new HashMap<>();
     
+    /** 
+     * The number of stored items, updated when items are added 
+     * and polled, so it can be read without locking this buffer
+     * (the reclassifications move items between queues and do not 
+     * change it).
+     */
+    private final AtomicInteger count = new AtomicInteger(0);
+    
     /** 
      * The number of training samples learned by the KNN classifier since
      * the last reclassification of the queues items
      */
     private int trainingSetSize = 0;
     
+    /** The {@link Histogram} of the times to reclassify by the improvability index, in milliseconds. */
+    private final Histogram reclassifyTimeImprovability = Metrics.histogram("buffer.path_conditions.reclassify_improvability_ms");
+    
+    /** The {@link Histogram} of the times to reclassify by the novelty index, in milliseconds. */
+    private final Histogram reclassifyTimeNovelty = Metrics.histogram("buffer.path_conditions.reclassify_novelty_ms");
+    
+    /** The {@link Histogram} of the times to reclassify by the infeasibility index, in milliseconds. */
+    private final Histogram reclassifyTimeInfeasibility = Metrics.histogram("buffer.path_conditions.reclassify_infeasibility_ms");
+    
     public JBSEResultInputOutputBuffer(Options o, TreePath treePath) {
     	this.useIndexImprovability = o.getUseIndexImprovability();
     	this.useIndexNovelty = o.getUseIndexNovelty();
@@ -197,8 +230,12 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
     	this.queueProbabilities = queueProbabilities();
     	this.trainingSetMinimumThreshold = o.getIndexInfeasibilityThreshold();
         this.treePath = treePath;
+        this.highWatermark = o.getPathConditionBufferHighWatermark();
+        this.pollSameTargetClass = !o.getEvosuiteMultiSearch();
         for (int i = 0; i < queueRanking.length; ++i) {
-            this.queues.put(i, new LinkedBlockingQueue<>());
+            final LinkedBlockingQueue<JBSEResult> queue = new LinkedBlockingQueue<>();
+            this.queues.put(i, queue);
+            Metrics.gauge("buffer.path_conditions.queue_" + i + ".size", queue::size);
         }
     }
 
@@ -217,12 +254,24 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
         }
         final int queueNumber = calculateQueueNumber(entryPoint, pathCondition);
         if (queueRanking[queueNumber] < queueRanking.length - 1) {
-			LOGGER.info("Priority path condition with last clause: " + pathCondition.get(pathCondition.size() - 1) + " -- priority=" + queueNumber + " (wrt min priority=" + queueRanking[queueRanking.length - 1] + ")");
+			LOGGER.info("Priority path condition with last clause: %s -- priority=%d (wrt min priority=%d)", () -> pathCondition.get(pathCondition.size() - 1), () -> queueNumber, () -> queueRanking[queueRanking.length - 1]);
         }
         final LinkedBlockingQueue<JBSEResult> queue = this.queues.get(queueNumber);
-        return queue.add(item);
+        final boolean retVal = queue.add(item);
+        if (retVal) {
+        	this.count.incrementAndGet();
+        }
+        return retVal;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * Unless EvoSuite runs in multi search mode, all the returned 
+     * items have the same target class as the first one, and the 
+     * items with other target classes are left in the buffer for 
+     * later polls.
+     */
     @Override
     public List<JBSEResult> pollN(int n, long timeoutDuration, TimeUnit timeoutTimeUnit) throws InterruptedException {
         //chooses the index considering the different probabilities
@@ -237,6 +286,7 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
         //assert (0 < j && j <= INDEX_VALUES.length)
 
         final ArrayList<JBSEResult> retVal = new ArrayList<>();
+        String targetClassName = null;
         for (int k = 1; k <= n; ++k) {
         	JBSEResult item = null;
         	synchronized (this) {
@@ -247,20 +297,29 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
         			if (queue.isEmpty()) {
         				continue;
         			} else {
-        				item = queue.poll(0, timeoutTimeUnit); //nothing to wait
+        				item = pollOfTargetClass(queue, targetClassName);
+        				if (item == null) {
+        					continue;
+        				}
         				break;
         			}
         		}
-        		//extracts the item, second chance
+        		//extracts the item, second chance (waits only for the 
+        		//first item, the others must be already there)
         		if (item == null) {
-            		timeoutTimeUnit.sleep(timeoutDuration);
+        			if (targetClassName == null) {
+        				timeoutTimeUnit.sleep(timeoutDuration);
+        			}
         			for (int i = j - 2; i >= 0; --i) {
         				final LinkedBlockingQueue<JBSEResult> queue = this.queues.get(this.queueRanking[i]);
         				//selects the next queue if the extracted queue is empty
         				if (queue.isEmpty()) {
         					continue;
         				} else {
-        					item = queue.poll(0, timeoutTimeUnit); //nothing to wait
+        					item = pollOfTargetClass(queue, targetClassName);
+        					if (item == null) {
+        						continue;
+        					}
         					break;
         				}
         			}
@@ -269,11 +328,42 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
         	if (item == null) {
         		break;
         	} else {
+        		this.count.decrementAndGet();
         		retVal.add(item);
+        		if (this.pollSameTargetClass) {
+        			targetClassName = targetClassName(item);
+        		}
         	}
         }
         return retVal;
     }
+    
+    /**
+     * Removes the first item of a queue with a given target class.
+     * 
+     * @param queue a {@link LinkedBlockingQueue}{@code <}{@link JBSEResult}{@code >}.
+     * @param targetClassName a {@link String}, the name of the target class, 
+     *        or {@code null} for any target class.
+     * @return the removed {@link JBSEResult}, or {@code null} if {@code queue}
+     *         has no item with target class {@code targetClassName}.
+     */
+    private static String targetClassName(JBSEResult item) {
+    	return (item.hasTargetMethod() ? item.getTargetMethodClassName() : item.getTargetClassName());
+    }
+    
+    private static JBSEResult pollOfTargetClass(LinkedBlockingQueue<JBSEResult> queue, String targetClassName) {
+    	if (targetClassName == null) {
+    		return queue.poll();
+    	}
+    	for (Iterator<JBSEResult> it = queue.iterator(); it.hasNext(); ) {
+    		final JBSEResult item = it.next();
+    		if (targetClassName.equals(targetClassName(item))) {
+    			it.remove();
+    			return item;
+    		}
+    	}
+    	return null;
+    }
 
     @Override
     public synchronized boolean isEmpty() {
@@ -285,6 +375,33 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
         return true;
     }
     
+    /**
+     * Checks whether the producers should defer the production 
+     * of items, because this buffer stores too many of them.
+     * 
+     * @return {@code true} iff the number of stored items
+     *         is at least the high watermark.
+     */
+    public boolean isAboveHighWatermark() {
+        return this.highWatermark > 0 && size() >= this.highWatermark;
+    }
+    
+    /**
+     * Checks whether the producers may resume the deferred 
+     * production of items, because this buffer drained.
+     * 
+     * @return {@code true} iff the number of stored items
+     *         is below half the high watermark.
+     */
+    public boolean isBelowLowWatermark() {
+        return this.highWatermark <= 0 || size() < this.highWatermark / 2;
+    }
+    
+    @Override
+    public int size() {
+        return this.count.get();
+    }
+    
     /**
      * Caches the fact that a set of branches was covered.
      * Used to recalculate the improvability index.
@@ -342,6 +459,7 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
      * stored in this buffer and reclassifies their priorities. 
      */
     public synchronized void updateIndexImprovabilityAndReclassify() {
+        final long start = System.nanoTime();
         synchronized (this.treePath) {
             forAllQueuedItemsToUpdateImprovability((queueNumber, bufferedJBSEResult) -> {
             	final String entryPoint = bufferedJBSEResult.getTargetMethodSignature();
@@ -351,11 +469,12 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
                 if (queueNumberNew != queueNumber) {
                     this.queues.get(queueNumber).remove(bufferedJBSEResult);
                     this.queues.get(queueNumberNew).add(bufferedJBSEResult);
-                    LOGGER.info("Priority update for path condition with last clause: " + pathCondition.get(pathCondition.size() - 1) + " -- priority=" + queueNumber + " --> " + queueNumberNew + " (wrt min priority=" + queueRanking[queueRanking.length - 1] + ")");
+                    LOGGER.info("Priority update for path condition with last clause: %s -- priority=%d --> %d (wrt min priority=%d)", () -> pathCondition.get(pathCondition.size() - 1), () -> queueNumber, () -> queueNumberNew, () -> queueRanking[queueRanking.length - 1]);
                 }
             });
             this.coverageSetImprovability.clear();
         }
+        this.reclassifyTimeImprovability.updateMillisSince(start);
     }
             
     /**
@@ -363,6 +482,7 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
      * stored in this buffer and reclassifies their priorities. 
      */
     public synchronized void updateIndexNoveltyAndReclassify() {
+        final long start = System.nanoTime();
         synchronized (this.treePath) {
             forAllQueuedItemsToUpdateNovelty((queueNumber, bufferedJBSEResult) -> {
             	final String entryPoint = bufferedJBSEResult.getTargetMethodSignature();
@@ -376,6 +496,7 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
             });
             this.coverageSetNovelty.clear();
         }
+        this.reclassifyTimeNovelty.updateMillisSince(start);
     }
 
     /**
@@ -383,6 +504,7 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
      * stored in this buffer and reclassifies their priorities. 
      */
     public synchronized void updateIndexInfeasibilityAndReclassify() {
+        final long start = System.nanoTime();
         synchronized (this.treePath) {
             //reclassifies the queued items only if this.trainingSetSize is big enough
             if (this.trainingSetSize >= this.trainingSetMinimumThreshold) {
@@ -399,6 +521,7 @@ public final class JBSEResultInputOutputBuffer implements InputBuffer<JBSEResult
                 this.trainingSetSize = 0;
             }
         }
+        this.reclassifyTimeInfeasibility.updateMillisSince(start);
     }
     
     /**
@@ -0,0 +1,86 @@
+package tardis.implementation.data;
+
+import static tardis.implementation.common.Util.shorten;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jbse.mem.Clause;
+import tardis.implementation.common.BoundedCache;
+
+/**
+ * Detects the post-frontier path conditions that are semantically
+ * equivalent to some path condition that was previously dispatched
+ * for test generation. Two path conditions are considered equivalent
+ * when they have same entry point and their canonical forms are equal.
+ * The canonical form of a path condition is the set of its clauses,
+ * without the clauses about class initialization. It is therefore
+ * insensitive to the order of the clauses, to the (redundant) class
+ * initialization clauses, and to the repeated clauses. Only the
+ * most recently dispatched path conditions are remembered, so
+ * the memory used by the deduplicator is bounded.
+ *
+ * @author Pietro Braione
+ */
+public final class PathConditionDeduplicator {
+    /** The maximum number of remembered path conditions. */
+    private static final int MAX_DISPATCHED = 100_000;
+
+    /**
+     * Contains the pairs (entry point, canonical form) of the 
+     * path conditions dispatched so far.
+     */
+    private final BoundedCache<Map.Entry<String, Set<Clause>>, Boolean> dispatched = new BoundedCache<>(MAX_DISPATCHED);
+
+    /** The number of duplicate path conditions detected so far. */
+    private long duplicates = 0;
+
+    /**
+     * Calculates the canonical form of a path condition.
+     *
+     * @param pathCondition a {@link List}{@code <}{@link Clause}{@code >}.
+     * @return a {@link Set}{@code <}{@link Clause}{@code >}, the canonical
+     *         form of {@code pathCondition}. Its {@link Set#hashCode() hashCode}
+     *         does not depend on the order of the clauses in {@code pathCondition}.
+     */
+    public static Set<Clause> canonicalize(List<Clause> pathCondition) {
+    	return Collections.unmodifiableSet(new HashSet<>(shorten(pathCondition)));
+    }
+
+    /**
+     * Checks whether a path condition is new, i.e., it is not
+     * equivalent to a previously dispatched one, and in the
+     * positive case records it as dispatched.
+     *
+     * @param entryPoint a {@link String}, the identifier of a
+     *        method's entry point where the path starts.
+     * @param pathCondition a {@link List}{@code <}{@link Clause}{@code >}.
+     *        The first is the closest to the root, the last is the leaf.
+     * @return {@code true} iff {@code pathCondition} is not equivalent
+     *         to any path condition with same {@code entryPoint} that was
+     *         previously passed to this method and is still remembered.
+     */
+    public synchronized boolean addIfNew(String entryPoint, List<Clause> pathCondition) {
+    	final boolean retVal = (this.dispatched.putIfAbsent(new SimpleImmutableEntry<>(entryPoint, canonicalize(pathCondition)), Boolean.TRUE) == null);
+    	if (!retVal) {
+    		++this.duplicates;
+    	}
+    	return retVal;
+    }
+
+    /**
+     * Returns the number of duplicate path conditions
+     * detected so far.
+     *
+     * @return a {@code long}, the number of invocations of
+     *         {@link #addIfNew(String, List)} that returned
+     *         {@code false}.
+     */
+    public synchronized long getDuplicates() {
+    	return this.duplicates;
+    }
+}
@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import jbse.mem.Clause;
+import tardis.metrics.Metrics;
 
 /**
  * Stores the tree of the explored and yet-to-explored paths, 
@@ -133,6 +134,7 @@ public final class TreePath {
         Node addChild(List<Clause> path) {
             final Node retVal = new Node(this, path);
             this.children.add(retVal);
+            ++TreePath.this.numOfNodes;
             return retVal;
         }
     }
@@ -141,6 +143,16 @@ public final class TreePath {
      * The root {@link Node}s, associated to the entry points.
      */
     private final HashMap<String, Node> roots = new HashMap<>();
+    
+    /**
+     * The number of {@link Node}s, written only while holding
+     * the lock and readable without it.
+     */
+    private volatile int numOfNodes = 0;
+    
+    public TreePath() {
+        Metrics.gauge("tree_path.size", this::size);
+    }
 
     /**
      * Returns the root {@link Node} for an entry point.
@@ -164,6 +176,18 @@ public final class TreePath {
         return this.coverage.contains(branch);
     }
 
+    /**
+     * Returns the number of nodes. Does not
+     * need to lock this {@link TreePath}.
+     * 
+     * @return a nonnegative {@code int}, the number of 
+     *         path condition prefixes stored in this
+     *         {@link TreePath}.
+     */
+    public int size() {
+        return this.numOfNodes;
+    }
+
     /**
      * Returns the number of covered items.
      * 
@@ -198,6 +222,7 @@ public final class TreePath {
     private Node ensureRoot(String entryPoint) {
     	if (!this.roots.containsKey(entryPoint)) {
     		this.roots.put(entryPoint, new Node());
+    		++this.numOfNodes;
     	}
 		return this.roots.get(entryPoint);
     }
@@ -0,0 +1,378 @@
+package tardis.implementation.evosuite;
+
+import static jbse.common.Type.splitParametersDescriptors;
+import static tardis.implementation.common.Util.shorten;
+import static tardis.implementation.common.Util.stringifyPostFrontierPathCondition;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.tools.JavaCompiler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jbse.bc.Signature;
+import jbse.common.exc.InvalidInputException;
+import jbse.dec.DecisionProcedure;
+import jbse.dec.exc.DecisionException;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.mem.ClauseAssumeExpands;
+import jbse.val.Any;
+import jbse.val.Expression;
+import jbse.val.NarrowingConversion;
+import jbse.val.Primitive;
+import jbse.val.PrimitiveSymbolic;
+import jbse.val.Simplex;
+import jbse.val.Term;
+import jbse.val.Value;
+import jbse.val.WideningConversion;
+import tardis.Options;
+import tardis.implementation.common.DecisionProceduresZ3;
+import tardis.implementation.jbse.JBSEResult;
+
+/**
+ * Generates tests for the simple post-frontier path conditions without
+ * invoking EvoSuite. A path condition is simple when it only predicates
+ * on the primitive parameters of the target method, in which case a Z3
+ * model of the path condition directly yields the arguments of a test
+ * that invokes the target method.
+ *
+ * @author Pietro Braione
+ */
+final class DirectTestGenerator implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getFormatterLogger(DirectTestGenerator.class);
+
+    private final Options o;
+    private final JavaCompiler compiler;
+    private final String classpathCompilationTest;
+
+    /** The Z3 {@link DecisionProcedure}s of the threads. */
+    private final DecisionProceduresZ3 decisionProcedures;
+
+    /**
+     * Constructor.
+     *
+     * @param o an {@link Options} object. It must not be {@code null}.
+     * @param compiler the {@link JavaCompiler} to compile the generated tests.
+     * @param classpathCompilationTest a {@link String}, the classpath for
+     *        the compilation of the generated tests.
+     */
+    DirectTestGenerator(Options o, JavaCompiler compiler, String classpathCompilationTest) {
+        this.o = o;
+        this.compiler = compiler;
+        this.classpathCompilationTest = classpathCompilationTest;
+        final long timeoutMillis = o.getTimeoutDirectTestGenerationUnit().toMillis(o.getTimeoutDirectTestGenerationDuration());
+        this.decisionProcedures = new DecisionProceduresZ3(o.getZ3Path(), timeoutMillis);
+    }
+
+    /**
+     * Tries to generate and compile a test for the post-frontier
+     * path condition of a {@link JBSEResult}.
+     *
+     * @param testCount an {@code int}, the number that identifies
+     *        the generated test.
+     * @param item a {@link JBSEResult}, the result of the symbolic execution
+     *        for whose post-frontier path condition the test must be generated.
+     * @return an {@link EvosuiteResult} for the generated test, or {@code null}
+     *         if the post-frontier path condition of {@code item} is not simple,
+     *         or Z3 could not find a model for it, or the compilation of the
+     *         generated test failed. In these cases the test must be generated
+     *         by EvoSuite.
+     */
+    EvosuiteResult generateTest(int testCount, JBSEResult item) {
+        if (item.isSeed()) {
+            return null;
+        }
+
+        //gets the parameters of the target method, and checks
+        //that the path condition only predicates on them
+        if (item.getWrapperSource() == null) {
+            return null; //the arguments of the target method are not available
+        }
+        final List<Clause> pathCondition = shorten(item.getPathConditionMangled());
+        final Signature targetMethodSignature = new Signature(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName());
+        final boolean isStatic = item.isTargetMethodStatic();
+        final String[] parameterTypes = splitParametersDescriptors(targetMethodSignature.getDescriptor());
+        final ArrayList<Primitive> parameters = new ArrayList<>();
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            final Value parameter = item.getTargetMethodParameters().get(i);
+            if (!isPrimitiveType(parameterTypes[i]) || !(parameter instanceof Primitive)) {
+                return null;
+            }
+            parameters.add((Primitive) parameter);
+        }
+        if (!isSimple(pathCondition, targetMethodSignature.getClassName(), item.getTargetMethodReceiver(), new HashSet<>(parameters))) {
+            return null;
+        }
+
+        //asks Z3 for a model of the path condition
+        final Map<PrimitiveSymbolic, Simplex> model = solve(pathCondition);
+        if (model == null) {
+            return null;
+        }
+        final ArrayList<String> arguments = new ArrayList<>();
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            arguments.add(literal(parameterTypes[i].charAt(0), model.get(parameters.get(i))));
+        }
+
+        //emits and compiles the test
+        final String testCaseClassName = item.getTargetMethodClassName() + "_" + testCount + "_Test";
+        final Path testCase = this.o.getTmpTestsDirectoryPath().resolve(testCaseClassName + ".java");
+        try {
+            emitTest(testCase, testCaseClassName, targetMethodSignature, isStatic, arguments);
+            if (!compileTest(testCase, testCount)) {
+                LOGGER.warn("Compilation of directly generated test case %s failed, falling back to EvoSuite", testCaseClassName);
+                //the file must not be mistaken for the one EvoSuite will emit
+                Files.deleteIfExists(testCase);
+                return null;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unexpected I/O error while emitting or compiling directly generated test case %s", testCaseClassName);
+            LOGGER.error("Message: %s", e.toString());
+            LOGGER.error("Stack trace:");
+            for (StackTraceElement elem : e.getStackTrace()) {
+                LOGGER.error("%s", elem.toString());
+            }
+            return null;
+        }
+
+        final int depth = item.getDepth();
+        LOGGER.info("Generated test case %s from Z3 model, depth: %d, post-frontier path condition: %s:%s", testCaseClassName, depth, item.getTargetMethodSignature(), stringifyPostFrontierPathCondition(item));
+        final TestCase newTestCase = new TestCase(testCaseClassName, "()V", "test0", this.o.getTmpTestsDirectoryPath(), false);
+        return new EvosuiteResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), item.getPathConditionMangled(), item.getTargetBranch(), newTestCase, depth + 1);
+    }
+
+    private static boolean isPrimitiveType(String type) {
+        return type.length() == 1 && "BCDFIJSZ".indexOf(type.charAt(0)) >= 0;
+    }
+
+    /**
+     * Checks whether a path condition is simple.
+     *
+     * @param pathCondition a {@link List}{@code <}{@link Clause}{@code >},
+     *        without class initialization clauses.
+     * @param className a {@link String}, the name of the class of the
+     *        target method.
+     * @param receiver the {@link Value} of the {@code this} parameter
+     *        of the target method, or {@code null} if it is static.
+     * @param parameters a {@link Set}{@code <}{@link Primitive}{@code >},
+     *        the values of the (primitive) parameters of the target method.
+     * @return {@code true} iff all the clauses in {@code pathCondition}
+     *         are numeric clauses over {@code parameters}, except possibly
+     *         the expansion of {@code receiver} to an object with class
+     *         {@code className} (the test creates the receiver with the
+     *         default constructor of the class).
+     */
+    private static boolean isSimple(List<Clause> pathCondition, String className, Value receiver, Set<Primitive> parameters) {
+        for (Clause c : pathCondition) {
+            if (c instanceof ClauseAssume) {
+                if (!isOver(((ClauseAssume) c).getCondition(), parameters)) {
+                    return false;
+                }
+            } else if (c instanceof ClauseAssumeExpands) {
+                final ClauseAssumeExpands cExpands = (ClauseAssumeExpands) c;
+                if (receiver == null || !receiver.equals(cExpands.getReference()) ||
+                    !className.equals(cExpands.getObjekt().getType().getClassName())) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOver(Primitive p, Set<Primitive> parameters) {
+        if (p instanceof Simplex || p instanceof Term) {
+            return true;
+        } else if (p instanceof Any) {
+            return false;
+        } else if (p instanceof Expression) {
+            final Expression e = (Expression) p;
+            if (e.isUnary()) {
+                return isOver(e.getOperand(), parameters);
+            } else {
+                return isOver(e.getFirstOperand(), parameters) && isOver(e.getSecondOperand(), parameters);
+            }
+        } else if (p instanceof WideningConversion) {
+            return isOver(((WideningConversion) p).getArg(), parameters);
+        } else if (p instanceof NarrowingConversion) {
+            return isOver(((NarrowingConversion) p).getArg(), parameters);
+        } else { //PrimitiveSymbolic, or function application
+            return parameters.contains(p);
+        }
+    }
+
+    /**
+     * Asks Z3 for a model of a simple path condition.
+     *
+     * @param pathCondition a {@link List}{@code <}{@link Clause}{@code >},
+     *        a simple path condition.
+     * @return a {@link Map}{@code <}{@link PrimitiveSymbolic}{@code , }{@link Simplex}{@code >},
+     *         the model, or {@code null} if Z3 finds {@code pathCondition}
+     *         unsatisfiable, does not answer within the timeout, or some
+     *         error occurs.
+     */
+    private Map<PrimitiveSymbolic, Simplex> solve(List<Clause> pathCondition) {
+    	final ArrayList<ClauseAssume> clausesNumeric = new ArrayList<>();
+    	for (Clause c : pathCondition) {
+    		if (c instanceof ClauseAssume) {
+    			clausesNumeric.add((ClauseAssume) c);
+    		}
+    	}
+    	if (clausesNumeric.isEmpty()) {
+    		return Collections.emptyMap();
+    	}
+    	final ClauseAssume clauseLast = clausesNumeric.get(clausesNumeric.size() - 1);
+    	try {
+    		final DecisionProcedure dec = this.decisionProcedures.get();
+    		dec.clearAssumptions();
+    		for (ClauseAssume c : clausesNumeric.subList(0, clausesNumeric.size() - 1)) {
+    			dec.pushAssumption(c);
+    		}
+    		if (clauseLast.getCondition() instanceof Expression && !dec.isSat((Expression) clauseLast.getCondition())) {
+    			return null;
+    		}
+    		dec.pushAssumption(clauseLast);
+    		return dec.getModel();
+    	} catch (InvalidInputException | DecisionException e) {
+    		LOGGER.warn("Unexpected error while calculating a model for direct test generation, falling back to EvoSuite");
+    		LOGGER.warn("Message: %s", e.toString());
+    		this.decisionProcedures.discard();
+    		return null;
+    	}
+    }
+
+    /**
+     * Converts a value in a model to a Java literal.
+     *
+     * @param type a {@code char}, the type of the value.
+     * @param value a {@link Simplex}, the value, or {@code null}
+     *        if the model does not constrain it.
+     * @return a {@link String}, the literal for {@code value}.
+     */
+    private static String literal(char type, Simplex value) {
+        final Object actualValue = (value == null ? null : value.getActualValue());
+        final Number n;
+        if (actualValue instanceof Number) {
+            n = (Number) actualValue;
+        } else if (actualValue instanceof Character) {
+            n = Integer.valueOf((Character) actualValue);
+        } else if (actualValue instanceof Boolean) {
+            n = Integer.valueOf(((Boolean) actualValue) ? 1 : 0);
+        } else {
+            n = Integer.valueOf(0);
+        }
+        switch (type) {
+        case 'Z':
+            return (n.intValue() == 0 ? "false" : "true");
+        case 'B':
+            return "(byte) " + n.byteValue();
+        case 'C':
+            return "(char) " + (int) (char) n.intValue();
+        case 'S':
+            return "(short) " + n.shortValue();
+        case 'I':
+            return Integer.toString(n.intValue());
+        case 'J':
+            return n.longValue() + "L";
+        case 'F': {
+            final float f = n.floatValue();
+            if (Float.isNaN(f)) {
+                return "Float.NaN";
+            } else if (Float.isInfinite(f)) {
+                return (f > 0 ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY");
+            } else {
+                return Float.toString(f) + "F";
+            }
+        }
+        case 'D': {
+            final double d = n.doubleValue();
+            if (Double.isNaN(d)) {
+                return "Double.NaN";
+            } else if (Double.isInfinite(d)) {
+                return (d > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY");
+            } else {
+                return Double.toString(d) + "D";
+            }
+        }
+        default:
+            throw new AssertionError("Unexpected primitive type " + type);
+        }
+    }
+
+    /**
+     * Emits the source file of a test that invokes the target method.
+     *
+     * @param testCase the {@link Path} of the source file.
+     * @param testCaseClassName a {@link String}, the name of the test class.
+     * @param targetMethodSignature the {@link Signature} of the target method.
+     * @param isStatic a {@code boolean}, whether the target method is static.
+     * @param arguments a {@link List}{@code <}{@link String}{@code >}, the
+     *        literals of the arguments of the invocation.
+     * @throws IOException if writing the source file fails.
+     */
+    private static void emitTest(Path testCase, String testCaseClassName, Signature targetMethodSignature, boolean isStatic, List<String> arguments)
+    throws IOException {
+        final String targetMethodClassName = targetMethodSignature.getClassName();
+        final int lastSlash = targetMethodClassName.lastIndexOf('/');
+        final String packageName = (lastSlash == -1 ? "" : targetMethodClassName.substring(0, lastSlash).replace('/', '.'));
+        final String targetMethodClassSimpleName = targetMethodClassName.substring(lastSlash + 1).replace('$', '.');
+        final String testCaseClassSimpleName = testCaseClassName.substring(testCaseClassName.lastIndexOf('/') + 1);
+        final String receiver = (isStatic ? targetMethodClassSimpleName : "new " + targetMethodClassSimpleName + "()");
+
+        final StringBuilder s = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            s.append("package " + packageName + ";\n\n");
+        }
+        s.append("import org.junit.Test;\n\n");
+        s.append("public class " + testCaseClassSimpleName + " {\n");
+        s.append("    @Test\n");
+        s.append("    public void test0() throws Throwable {\n");
+        s.append("        try {\n");
+        s.append("            " + receiver + "." + targetMethodSignature.getName() + "(" + String.join(", ", arguments) + ");\n");
+        s.append("        } catch (Throwable e) {\n");
+        s.append("            //the path to the frontier was covered anyway\n");
+        s.append("        }\n");
+        s.append("    }\n");
+        s.append("}\n");
+
+        Files.createDirectories(testCase.getParent());
+        try (final BufferedWriter w = Files.newBufferedWriter(testCase)) {
+            w.write(s.toString());
+        }
+    }
+
+    /**
+     * Compiles a directly generated test.
+     *
+     * @param testCase the {@link Path} of the source file of the test.
+     * @param testCount an {@code int}, the number that identifies
+     *        the test (used to name the compilation log file).
+     * @return {@code true} iff the compilation succeeded.
+     * @throws IOException if creating the compilation log file fails.
+     */
+    private boolean compileTest(Path testCase, int testCount) throws IOException {
+        final Path javacLogFilePath = this.o.getTmpTestsDirectoryPath().resolve("javac-log-test-" +  testCount + ".txt");
+        final String[] javacParameters = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCase.toString() };
+        try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
+            return (this.compiler.run(null, w, w, javacParameters) == 0);
+        }
+    }
+
+    @Override
+    public void close() {
+    	this.decisionProcedures.close();
+    }
+}
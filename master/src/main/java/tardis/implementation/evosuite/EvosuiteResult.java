@@ -35,6 +35,13 @@ public final class EvosuiteResult {
      * if {@link #testCase} was generated by seeding.
      */
     private final List<Clause> pathConditionGenerating;
+    
+    /**
+     * The branch at which {@link #pathConditionGenerating}
+     * is aimed, or {@code null} if it is not aimed at a 
+     * branch or {@link #testCase} was generated by seeding.
+     */
+    private final String targetBranch;
      
     /**
      * The depth starting from which the 
@@ -42,6 +49,13 @@ public final class EvosuiteResult {
      * by the JBSE performer.
      */
     private final int startDepth;
+    
+    /**
+     * The depth where the analysis of {@link #testCase}
+     * by the JBSE performer must stop, or {@code -1} if 
+     * this is not a deferred exploration.
+     */
+    private final int stopDepth;
 
     /**
      * Constructor.
@@ -53,22 +67,46 @@ public final class EvosuiteResult {
      * @param targetMethodName A {@link String}, the name of the target method.
      * @param pathConditionGenerating A {@link List}{@code <}{@link Clause}{@code >}, 
      *        a partial path condition. It can be null.
+     * @param targetBranch A {@link String}, the branch at which {@code pathConditionGenerating}
+     *        is aimed. It can be null.
      * @param testCase A {@link TestCase}. Its execution should hit {@code targetMethod}
      *        and cover {@code pathConditionGenerating} when present.
      * @param startDepth A positive {@code int}, indicating the depth starting 
      *        from which the {@code testCase} must be analyzed by the JBSE performer.
      */
-    public EvosuiteResult(String targetMethodClassName, String targetMethodDescriptor, String targetMethodName, List<Clause> pathConditionGenerating, TestCase testCase, int startDepth) {
+    public EvosuiteResult(String targetMethodClassName, String targetMethodDescriptor, String targetMethodName, List<Clause> pathConditionGenerating, String targetBranch, TestCase testCase, int startDepth) {
         this.targetMethodClassName = targetMethodClassName;
         this.targetMethodDescriptor = targetMethodDescriptor;
         this.targetMethodName = targetMethodName;
         this.pathConditionGenerating = pathConditionGenerating == null ? null : Collections.unmodifiableList(new ArrayList<>(pathConditionGenerating));
+        this.targetBranch = targetBranch;
         this.testCase = testCase;
         this.startDepth = startDepth;
+        this.stopDepth = -1;
+    }
+    
+    /**
+     * Copy constructor for deferred explorations.
+     * 
+     * @param other the {@link EvosuiteResult} to copy.
+     * @param startDepth An {@code int}, the depth where the
+     *        deferred exploration starts.
+     * @param stopDepth An {@code int}, the depth where the
+     *        deferred exploration stops.
+     */
+    private EvosuiteResult(EvosuiteResult other, int startDepth, int stopDepth) {
+        this.targetMethodClassName = other.targetMethodClassName;
+        this.targetMethodDescriptor = other.targetMethodDescriptor;
+        this.targetMethodName = other.targetMethodName;
+        this.pathConditionGenerating = other.pathConditionGenerating;
+        this.targetBranch = other.targetBranch;
+        this.testCase = other.testCase;
+        this.startDepth = startDepth;
+        this.stopDepth = stopDepth;
     }
 
     /**
-     * Constructor. Equivalent to {@link #EvosuiteResult(String, String, String, List<Clause>, TestCase, int) EvosuiteResult}{@code (targetMethod.get(0), targetMethod.get(1), targetMethod.get(2), null, testCase, startDepth)}.
+     * Constructor. Equivalent to {@link #EvosuiteResult(String, String, String, List<Clause>, String, TestCase, int) EvosuiteResult}{@code (targetMethod.get(0), targetMethod.get(1), targetMethod.get(2), null, null, testCase, startDepth)}.
      * 
      * @param targetMethod A {@link List}{@code <}{@link String}{@code >} that
      *        must have (at least) length 3.
@@ -77,7 +115,7 @@ public final class EvosuiteResult {
      *        from which the {@code testCase} must be analyzed by the JBSE performer.
      */
     public EvosuiteResult(List<String> targetMethod, TestCase testCase, int startDepth) {
-        this(targetMethod.get(0), targetMethod.get(1), targetMethod.get(2), null, testCase, startDepth);
+        this(targetMethod.get(0), targetMethod.get(1), targetMethod.get(2), null, null, testCase, startDepth);
     }
 
     /**
@@ -129,6 +167,18 @@ public final class EvosuiteResult {
     	return this.pathConditionGenerating;
     }
     
+    /**
+     * Gets the branch at which the path condition, to cover 
+     * which the {@link TestCase} was generated, is aimed.
+     * 
+     * @return a {@link String}, or {@code null} if the path
+     *         condition is not aimed at a branch or the 
+     *         {@link TestCase} was generated by seeding.
+     */
+    public String getTargetBranch() {
+    	return this.targetBranch;
+    }
+    
     /**
      * Returns the {@link TestCase}.
      * 
@@ -148,4 +198,44 @@ public final class EvosuiteResult {
     public int getStartDepth() {
         return this.startDepth;
     }
+    
+    /**
+     * Makes a token for resuming later the analysis of the 
+     * {@link #getTestCase() test case} by the JBSE performer,
+     * after it was interrupted at some depth. The token is
+     * cheap, since it holds no symbolic state.
+     * 
+     * @param startDepth An {@code int}, the depth where the 
+     *        analysis must be resumed.
+     * @param stopDepth An {@code int}, the depth where the 
+     *        analysis must stop.
+     * @return an {@link EvosuiteResult} with the same test case
+     *         as this one, such that {@link #isDeferredExploration()}{@code == true}.
+     */
+    public EvosuiteResult deferredExploration(int startDepth, int stopDepth) {
+        return new EvosuiteResult(this, startDepth, stopDepth);
+    }
+    
+    /**
+     * Checks whether this {@link EvosuiteResult} is a token
+     * for a deferred exploration, i.e., the test case was 
+     * already analyzed, but only up to {@link #getStartDepth()}.
+     * 
+     * @return a {@code boolean}.
+     */
+    public boolean isDeferredExploration() {
+        return this.stopDepth >= 0;
+    }
+    
+    /**
+     * Returns the depth where the analysis of the 
+     * {@link #getTestCase() test case} by the JBSE 
+     * performer must stop. 
+     * 
+     * @return An {@code int}, meaningful only if 
+     *         {@link #isDeferredExploration()}{@code == true}.
+     */
+    public int getStopDepth() {
+        return this.stopDepth;
+    }
 }
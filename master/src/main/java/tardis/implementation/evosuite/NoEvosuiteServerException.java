@@ -0,0 +1,23 @@
+package tardis.implementation.evosuite;
+
+/**
+ * Exception thrown whenever no EvoSuite server 
+ * registers within the startup timeout.
+ * 
+ * @author Pietro Braione
+ */
+public final class NoEvosuiteServerException extends Exception {
+    /**
+     * The serial version UID of the {@link NoEvosuiteServerException} objects.
+     */
+    private static final long serialVersionUID = -2213570987317046520L;
+
+    /**
+     * Constructor.
+     * 
+     * @param message a {@link String}, the detail message.
+     */
+    public NoEvosuiteServerException(String message) {
+        super(message);
+    }
+}
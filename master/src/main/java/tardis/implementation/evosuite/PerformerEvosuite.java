@@ -15,25 +15,25 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.tools.JavaCompiler;
 import javax.tools.ToolProvider;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import jbse.apps.StateFormatterSushiPathCondition;
 import jbse.bc.ClassFile;
-import jbse.bc.ClassFileFactoryJavassist;
-import jbse.bc.Classpath;
 import jbse.bc.Signature;
 import jbse.bc.exc.BadClassFileVersionException;
 import jbse.bc.exc.ClassFileIllFormedException;
@@ -49,10 +49,7 @@ import jbse.bc.exc.WrongClassNameException;
 import jbse.common.exc.InvalidInputException;
 import jbse.mem.State;
 import jbse.mem.exc.CannotAssumeSymbolicObjectException;
-import jbse.mem.exc.FrozenStateException;
 import jbse.mem.exc.HeapMemoryExhaustedException;
-import jbse.val.HistoryPoint;
-import jbse.val.SymbolFactory;
 import tardis.Options;
 import tardis.framework.OutputBuffer;
 import tardis.framework.Performer;
@@ -60,6 +57,10 @@ import tardis.framework.PerformerPausableFixedThreadPoolExecutor;
 import tardis.implementation.common.NoJavaCompilerException;
 import tardis.implementation.data.JBSEResultInputOutputBuffer;
 import tardis.implementation.jbse.JBSEResult;
+import tardis.implementation.jbse.WrapperSource;
+import tardis.metrics.Counter;
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
 
 /**
  * A {@link Performer} that consumes {@link JBSEResult}s by invoking Evosuite
@@ -70,6 +71,18 @@ import tardis.implementation.jbse.JBSEResult;
  */
 public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExecutor<JBSEResult, EvosuiteResult> {
     private static final Logger LOGGER = LogManager.getFormatterLogger(PerformerEvosuite.class);
+    private static final Counter GOALS_SOLVED = Metrics.counter("evosuite.goals_solved");
+    private static final Histogram TIME_JAVAC_WRAPPER = Metrics.histogram("evosuite.javac_wrapper_ms");
+    private static final Histogram TIME_JAVAC_TEST = Metrics.histogram("evosuite.javac_test_ms");
+    
+    /** 
+     * The number of split seed tests compiled with a single invocation
+     * of javac, when the split tests are compiled in batches.
+     */
+    private static final int SPLIT_COMPILATION_BATCH_SIZE = 16;
+    
+    /** The maximum heap size (in megabytes) of an EvoSuite process. */
+    public static final int EVOSUITE_HEAP_MAX_MB = 4096;
     
     private final List<List<String>> visibleTargetMethods;
     private final JavaCompiler compiler;
@@ -80,8 +93,27 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
     private final URL[] classpathTestURLClassLoader;
     private final String classpathCompilationTest;
     private final String classpathCompilationWrapper;
+    private final DirectTestGenerator directTestGenerator;
+    private final PreInitialStateFactory preInitialStateFactory;
     private int testCount;
-    private volatile boolean stopForSeeding;
+    
+    /**
+     * A {@link ReentrantLock} to synchronize the creation of 
+     * jobs with the execution of the seeding job.
+     */
+    private final ReentrantLock lockSeeding = new ReentrantLock();
+    
+    /**
+     * A {@link Condition} associated to {@link #lockSeeding}
+     * that is notified when the seeding job ends.
+     */
+    private final Condition conditionNotSeeding = this.lockSeeding.newCondition();
+    
+    /**
+     * Set to {@code true} while the seeding job is executing.
+     * Guarded by {@link #lockSeeding}.
+     */
+    private boolean seeding;
     
     public PerformerEvosuite(Options o, JBSEResultInputOutputBuffer in, OutputBuffer<EvosuiteResult> out) 
     throws NoJavaCompilerException, ClassNotFoundException, MalformedURLException, SecurityException {
@@ -111,8 +143,10 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
         }
         this.classpathCompilationTest = this.o.getTmpBinDirectoryPath().toString() + File.pathSeparator + classesPathString + File.pathSeparator + this.o.getJBSELibraryPath().toString() + File.pathSeparator + this.o.getSushiLibPath().toString() + File.pathSeparator + this.o.getEvosuitePath().toString();
         this.classpathCompilationWrapper = classesPathString + File.pathSeparator + this.o.getSushiLibPath().toString();
+        this.directTestGenerator = (o.getUseDirectTestGeneration() ? new DirectTestGenerator(o, this.compiler, this.classpathCompilationTest) : null);
+        this.preInitialStateFactory = new PreInitialStateFactory(o);
         this.testCount = (o.getInitialTestCase() == null ? 0 : 1);
-        this.stopForSeeding = false;
+        this.seeding = false;
     }
     
     private static URL toURL(Path path) {
@@ -129,7 +163,6 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
         final int testCountInitial = this.testCount;
         final boolean isSeed = items.stream().map(JBSEResult::isSeed).reduce(true, (a, b) -> a && b); 
         if (isSeed) {
-            this.stopForSeeding = true;
         	generateTestsAndScheduleJBSESeed(testCountInitial, items);
         } else {
             this.testCount += items.size();
@@ -139,9 +172,64 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
 
     @Override
     protected Runnable makeJob(List<JBSEResult> items) {
-        while (this.stopForSeeding) ; //ugly spinlocking
+        //waits until the seeding job (if any) is over
+        final ReentrantLock lock = this.lockSeeding;
+        lock.lock();
+        try {
+            while (this.seeding) {
+                try {
+                    this.conditionNotSeeding.await();
+                } catch (InterruptedException e) {
+                    //the performer is pausing or stopping: stops 
+                    //waiting and restores the interrupt flag, so
+                    //the main thread notices it at its next wait
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
         return super.makeJob(items);
     }
+    
+    @Override
+    protected void onStop() {
+        if (this.directTestGenerator != null) {
+            this.directTestGenerator.close();
+        }
+    }
+    
+    /**
+     * Blocks the creation of jobs in {@link #makeJob(List)}
+     * until the seeding job is over. To be invoked by the
+     * seeding job, so the creation of jobs is not blocked
+     * by a seeding job that never runs.
+     */
+    private void seedingStarted() {
+        final ReentrantLock lock = this.lockSeeding;
+        lock.lock();
+        try {
+            this.seeding = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Notifies the threads waiting in {@link #makeJob(List)}
+     * that the seeding job is over.
+     */
+    private void seedingDone() {
+        final ReentrantLock lock = this.lockSeeding;
+        lock.lock();
+        try {
+            this.seeding = false;
+            this.conditionNotSeeding.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
 
     /**
      * Invokes EvoSuite to generate a set of {@link TestCase}s that cover a 
@@ -159,6 +247,7 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
      *        then it must be {@code items.}{@link List#size() size}{@code () == 1}.
      */
     private void generateTestsAndScheduleJBSESeed(int testCountInitial, List<JBSEResult> items) {
+        seedingStarted();
         try {
             final boolean targetIsASetOfMethods = items.get(0).hasTargetMethod();
             if (targetIsASetOfMethods) {
@@ -168,7 +257,7 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
             }
         } finally {
             //unlocks
-            this.stopForSeeding = false;
+            seedingDone();
         }
     }
 
@@ -235,7 +324,7 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
     	final Path evosuiteLogFilePath = this.o.getTmpDirectoryPath().resolve("evosuite-log-seed.txt");
     	final Process evosuiteProcess;
     	try {
-    		evosuiteProcess = launchProcess(evosuiteCommand);
+    		evosuiteProcess = launchProcess(evosuiteCommand, evosuiteLogFilePath);
     		LOGGER.info("Launched EvoSuite seed process, command line: %s", evosuiteCommand.stream().reduce("", (s1, s2) -> { return s1 + " " + s2; }));
     	} catch (IOException e) {
     		LOGGER.error("Unexpected I/O error while running EvoSuite seed process");
@@ -251,11 +340,11 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
     	//JBSE for exploring them
     	final Thread tJBSE;
     	try {
-    		final TestDetector tdJBSE = new TestDetector(this, this.o, testCountInitial, items, evosuiteProcess.getInputStream(), evosuiteLogFilePath, this.in);
+    		final TestDetector tdJBSE = new TestDetector(this, this.o, testCountInitial, items, evosuiteProcess, evosuiteLogFilePath, this.in);
     		tJBSE = new Thread(tdJBSE);
     		tJBSE.start();
     	} catch (IOException e) {
-    		LOGGER.error("Unexpected I/O error while opening the EvoSuite output file");
+    		LOGGER.error("Unexpected I/O error while watching the EvoSuite tests directory");
     		LOGGER.error("Message: %s", e.toString());
     		LOGGER.error("Stack trace:");
     		for (StackTraceElement elem : e.getStackTrace()) {
@@ -335,9 +424,11 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
 
     	//splits output
     	final List<JBSEResult> splitItems;
+    	final List<Path> splitFiles;
     	try {
     		final SeedSplitter seedSplitter = new SeedSplitter(this.o, items.get(0).getTargetClassName(), this.visibleTargetMethods, testCountInitial);
     		splitItems = seedSplitter.split();
+    		splitFiles = seedSplitter.splitFiles();
     	} catch (NoTestFileException e) {
     		LOGGER.error("Failed to split the seed test case %s: the generated test class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString());
     		return;
@@ -362,48 +453,109 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
     		return;
     	}
 
-    	//schedules JBSE
-    	int testCount = testCountInitial;
-    	for (JBSEResult item : splitItems) {
-    		try {
-    			checkTestCompileAndScheduleJBSE(testCount, item);
-    		} catch (NoTestFileException e) {
-    			LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: The generated test class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
-    			//continue
-    		} catch (NoTestFileScaffoldingException e) {
-    			LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: The generated scaffolding class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
-    			//continue
-    		} catch (NoTestMethodException e) {
-    			LOGGER.warn("Failed to generate the test case %s for post-frontier path condition %s:%s: The generated files does not contain a test method (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
-    			//continue
-    		} catch (CompilationFailedTestException e) {
-    			LOGGER.error("Internal error: EvoSuite test case %s compilation failed", e.file.toAbsolutePath().toString());
-    			//continue
-    		} catch (CompilationFailedTestScaffoldingException e) {
-    			LOGGER.error("Internal error: EvoSuite test case scaffolding %s compilation failed", e.file.toAbsolutePath().toString());
-    			//continue
-    		} catch (ClassFileAccessException e) {
-    			LOGGER.error("Unexpected error while verifying that class %s exists and has a test method", e.className);
-    			LOGGER.error("Message: %s", e.e.toString());
-    			LOGGER.error("Stack trace:");
-    			for (StackTraceElement elem : e.e.getStackTrace()) {
-    				LOGGER.error("%s", elem.toString());
-    			}
-    			//continue
-    		} catch (IOFileCreationException e) {
-    			LOGGER.error("Unexpected I/O error while creating test case compilation log file %s", e.file.toAbsolutePath().toString());
-    			LOGGER.error("Message: %s", e.e.toString());
-    			LOGGER.error("Stack trace:");
-    			for (StackTraceElement elem : e.e.getStackTrace()) {
-    				LOGGER.error("%s", elem.toString());
-    			}
-    			//continue
-    		} finally {
-    			++testCount;
-    		}
+    	//updates the counter
+    	this.testCount = testCountInitial + splitItems.size();
 
-    		//updates the counter
-    		this.testCount = testCount;
+    	//schedules JBSE: the split tests are compiled and verified in
+    	//parallel, and each of them is scheduled as soon as it is ready;
+    	//if the split tests are compiled in batches, the tests of a batch
+    	//are verified and scheduled while the next batch is compiled
+    	final int numOfThreads = Math.max(1, Math.min(splitItems.size(), Runtime.getRuntime().availableProcessors()));
+    	final ExecutorService splitTestsCheckers = Executors.newFixedThreadPool(numOfThreads, r -> { final Thread t = new Thread(r, "EvosuiteSeedChecker"); t.setDaemon(true); return t; });
+    	final boolean batchCompilation = this.o.getEvosuiteSplitBatchCompilation();
+    	final int batchSize = (batchCompilation ? SPLIT_COMPILATION_BATCH_SIZE : splitItems.size());
+    	for (int batchStart = 0; batchStart < splitItems.size(); batchStart += batchSize) {
+    		final int batchEnd = Math.min(batchStart + batchSize, splitItems.size());
+    		final List<JBSEResult> batch = splitItems.subList(batchStart, batchEnd);
+    		final boolean compiled = (batchCompilation && compileSplitTests(splitFilesOfBatch(splitFiles, testCountInitial + batchStart, batch), testCountInitial + batchStart));
+    		int testCount = testCountInitial + batchStart;
+    		for (JBSEResult item : batch) {
+    			final int testCountItem = testCount++;
+    			splitTestsCheckers.execute(() -> checkSplitTestCompileAndScheduleJBSE(testCountItem, item, compiled));
+    		}
+    	}
+    	
+    	//waits for all the split tests to be scheduled (if it didn't 
+    	//the performer would consider the job over and would incorrectly 
+    	//detect whether it is idle)
+    	splitTestsCheckers.shutdown();
+    	try {
+    		splitTestsCheckers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    	} catch (InterruptedException e) {
+    		//this performer was shut down: stops checking
+    		splitTestsCheckers.shutdownNow();
+    	}
+    }
+    
+    /**
+     * Selects the source files of a batch of split tests.
+     * 
+     * @param splitFiles a {@link List}{@code <}{@link Path}{@code >}, 
+     *        the source files of all the split classes.
+     * @param testCountStart an {@code int}, the number that identifies 
+     *        the first split test in {@code batch}.
+     * @param batch a {@link List}{@code <}{@link JBSEResult}{@code >}, 
+     *        the (seed) items associated to the split tests of the batch.
+     * @return a {@link List}{@code <}{@link Path}{@code >}, the test and
+     *         scaffolding source files in {@code splitFiles} of the 
+     *         split tests in {@code batch}.
+     */
+    private List<Path> splitFilesOfBatch(List<Path> splitFiles, int testCountStart, List<JBSEResult> batch) {
+    	final HashSet<Path> batchFiles = new HashSet<>();
+    	int testCount = testCountStart;
+    	for (JBSEResult item : batch) {
+    		final String testCaseClassName = (item.hasTargetMethod() ? item.getTargetMethodClassName() : item.getTargetClassName()) + "_" + testCount++ + "_Test";
+    		batchFiles.add(this.o.getTmpTestsDirectoryPath().resolve(testCaseClassName + ".java"));
+    		batchFiles.add(this.o.getTmpTestsDirectoryPath().resolve(testCaseClassName + "_scaffolding.java"));
+    	}
+    	final ArrayList<Path> retVal = new ArrayList<>();
+    	for (Path splitFile : splitFiles) {
+    		if (batchFiles.contains(splitFile)) {
+    			retVal.add(splitFile);
+    		}
+    	}
+    	return retVal;
+    }
+    
+    /**
+     * Checks, compiles and schedules for exploration one of the 
+     * tests obtained by splitting the seed test class, logging 
+     * (rather than throwing) the errors.
+     * 
+     * @param testCount an {@code int}, the number that identifies 
+     *        the split test.
+     * @param item a {@link JBSEResult}, the (seed) item associated
+     *        to the split test.
+     * @param compiled a {@code boolean}, {@code true} iff the test (and its
+     *        scaffolding) were already compiled.
+     */
+    private void checkSplitTestCompileAndScheduleJBSE(int testCount, JBSEResult item, boolean compiled) {
+    	try {
+    		checkTestCompileAndScheduleJBSE(testCount, item, compiled);
+    	} catch (NoTestFileException e) {
+    		LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: The generated test class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
+    	} catch (NoTestFileScaffoldingException e) {
+    		LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: The generated scaffolding class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
+    	} catch (NoTestMethodException e) {
+    		LOGGER.warn("Failed to generate the test case %s for post-frontier path condition %s:%s: The generated files does not contain a test method (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
+    	} catch (CompilationFailedTestException e) {
+    		LOGGER.error("Internal error: EvoSuite test case %s compilation failed", e.file.toAbsolutePath().toString());
+    	} catch (CompilationFailedTestScaffoldingException e) {
+    		LOGGER.error("Internal error: EvoSuite test case scaffolding %s compilation failed", e.file.toAbsolutePath().toString());
+    	} catch (ClassFileAccessException e) {
+    		LOGGER.error("Unexpected error while verifying that class %s exists and has a test method", e.className);
+    		LOGGER.error("Message: %s", e.e.toString());
+    		LOGGER.error("Stack trace:");
+    		for (StackTraceElement elem : e.e.getStackTrace()) {
+    			LOGGER.error("%s", elem.toString());
+    		}
+    	} catch (IOFileCreationException e) {
+    		LOGGER.error("Unexpected I/O error while creating test case compilation log file %s", e.file.toAbsolutePath().toString());
+    		LOGGER.error("Message: %s", e.e.toString());
+    		LOGGER.error("Stack trace:");
+    		for (StackTraceElement elem : e.e.getStackTrace()) {
+    			LOGGER.error("%s", elem.toString());
+    		}
     	}
     }
     
@@ -413,133 +565,116 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
      * starting from the depth of the respective path conditions.
      * 
      * @param testCountInitial an {@code int}, the number used to identify 
-     *        the generated tests. The test generated from {@code items.get(i)}
-     *        will be numbered {@code testCountInitial + i}.
+     *        the generated tests. The generated tests will be numbered 
+     *        from {@code testCountInitial} to (at most) 
+     *        {@code testCountInitial + items.}{@link List#size() size}{@code () - 1}.
      * @param items a {@link List}{@code <}{@link JBSEResult}{@code >}, results of symbolic execution.
      */
     private void generateTestsAndScheduleJBSE(int testCountInitial, List<JBSEResult> items) {
-        //splits items in sublists having same target method
-        final List<List<JBSEResult>> splitItems = new ArrayList<>();
-        for (int i = 0; i < items.size() / this.o.getNumTargetsEvosuitePerJob(); ++i) {
-        	final int start = i * items.size();
-        	final int end = (i + 1) * items.size();
-        	splitItems.add(items.subList(start, end));
-        }
-        if (items.size() % this.o.getNumTargetsEvosuitePerJob() != 0) {
-        	splitItems.add(items.subList((items.size() / this.o.getNumTargetsEvosuitePerJob()) * items.size(), items.size()));
-        }
-
-        //launches an EvoSuite process for each sublist
-        final ArrayList<TestDetector> testDetectors = new ArrayList<>();
-        final ArrayList<Thread> threads = new ArrayList<>();
-        final ArrayList<Process> processes = new ArrayList<>();
+        //generates directly the tests for the simple path 
+        //conditions, and leaves the other ones to EvoSuite
         int testCountStart = testCountInitial;
-        for (List<JBSEResult> subItems : splitItems) {
-            final int testCount = testCountStart; //copy into final variable to keep compiler happy
-            testCountStart += subItems.size(); //for the next iteration
-
-            //generates and compiles the wrappers
-            final ArrayList<JBSEResult> compiled = new ArrayList<>();
-            int i = testCount;
-            for (JBSEResult item : subItems) {
-                try {
-                    emitAndCompileEvoSuiteWrapper(i, item.getInitialState(), item.getPostFrontierState(), item.getStringLiterals(), item.getStringOthers(), item.getForbiddenExpansions());
-                    compiled.add(item);
-                } catch (CompilationFailedWrapperException e) {
-                    LOGGER.error("Internal error: EvoSuite wrapper %s compilation failed", e.file.toAbsolutePath().toString());
-                    //falls through
-                } catch (IOFileCreationException e) {
-                    LOGGER.error("Unexpected I/O error during EvoSuite wrapper creation/compilation while creating file %s", e.file.toAbsolutePath().toString());
-                    LOGGER.error("Message: %s", e.toString());
-                    LOGGER.error("Stack trace:");
-                    for (StackTraceElement elem : e.getStackTrace()) {
-                        LOGGER.error("%s", elem.toString());
-                    }
-                    //falls through
-                } catch (FrozenStateException e) {
-                    LOGGER.error("Internal error while creating EvoSuite wrapper");
-                    LOGGER.error("Message: %s", e.toString());
-                    LOGGER.error("Stack trace:");
-                    for (StackTraceElement elem : e.getStackTrace()) {
-                        LOGGER.error("%s", elem.toString());
-                    }
-                    //falls through
-                }
-                ++i;
-            }
-
-            //skips to next subitems if failed to compile all
-            if (compiled.size() == 0) {
-            	continue;
+        final ArrayList<JBSEResult> itemsEvosuite = new ArrayList<>();
+        for (JBSEResult item : items) {
+            final EvosuiteResult result = (this.directTestGenerator == null ? null : this.directTestGenerator.generateTest(testCountStart, item));
+            if (result == null) {
+                itemsEvosuite.add(item);
+            } else {
+                getOutputBuffer().add(result);
+                ++testCountStart;
             }
-            
-            //builds the EvoSuite command line
-            final List<String> evosuiteCommand = buildEvoSuiteCommand(testCount, compiled); 
+        }
+        if (itemsEvosuite.isEmpty()) {
+            return;
+        }
+        
+        //all the items have same target class (the buffer polls 
+        //them so), thus a single EvoSuite process evolves them all; 
+        //orders them so the items with same target method are 
+        //adjacent
+        final List<JBSEResult> itemsOrdered = orderByTargetMethod(itemsEvosuite);
+        final int testCount = testCountStart; //copy into final variable to keep compiler happy
 
-            //launches EvoSuite
-            final Path evosuiteLogFilePath = this.o.getTmpDirectoryPath().resolve("evosuite-log-" + testCount + ".txt");
-            final Process evosuiteProcess;
+        //generates and compiles the wrappers; the items whose 
+        //wrapper fails to compile are dropped, and their number 
+        //is reused, so the wrappers are numbered consecutively 
+        //as buildEvoSuiteCommand and TestDetector expect
+        final ArrayList<JBSEResult> compiled = new ArrayList<>();
+        for (JBSEResult item : itemsOrdered) {
             try {
-                evosuiteProcess = launchProcess(evosuiteCommand);
-                processes.add(evosuiteProcess);
-                LOGGER.info("Launched EvoSuite process, command line: %s", evosuiteCommand.stream().reduce("", (s1, s2) -> { return s1 + " " + s2; }));
-            } catch (IOException e) {
-                LOGGER.error("Unexpected I/O error while running EvoSuite process");
+                emitAndCompileEvoSuiteWrapper(testCount + compiled.size(), item.getWrapperSource());
+                compiled.add(item);
+            } catch (CompilationFailedWrapperException e) {
+                LOGGER.error("Internal error: EvoSuite wrapper %s compilation failed", e.file.toAbsolutePath().toString());
+                //falls through
+            } catch (IOFileCreationException e) {
+                LOGGER.error("Unexpected I/O error during EvoSuite wrapper creation/compilation while creating file %s", e.file.toAbsolutePath().toString());
                 LOGGER.error("Message: %s", e.toString());
                 LOGGER.error("Stack trace:");
                 for (StackTraceElement elem : e.getStackTrace()) {
                     LOGGER.error("%s", elem.toString());
                 }
-                continue;
+                //falls through
             }
+        }
 
-            //launches a thread that waits for tests and schedules 
-            //JBSE for exploring them
-            try {
-            	final TestDetector tdJBSE = new TestDetector(this, this.o, testCount, subItems, evosuiteProcess.getInputStream(), evosuiteLogFilePath, this.in);
-                final Thread tJBSE = new Thread(tdJBSE);
-                tJBSE.start();
-                testDetectors.add(tdJBSE);
-                threads.add(tJBSE);
-            } catch (IOException e) {
-                LOGGER.error("Unexpected I/O error while opening the EvoSuite output file");
-                LOGGER.error("Message: %s", e.toString());
-                LOGGER.error("Stack trace:");
-                for (StackTraceElement elem : e.getStackTrace()) {
-                    LOGGER.error("%s", elem.toString());
-                }
-                evosuiteProcess.destroy();
+        //gives up if failed to compile all
+        if (compiled.size() == 0) {
+            return;
+        }
+
+        //builds the EvoSuite command line
+        final List<String> evosuiteCommand = buildEvoSuiteCommand(testCount, compiled); 
+
+        //launches EvoSuite
+        final Path evosuiteLogFilePath = this.o.getTmpDirectoryPath().resolve("evosuite-log-" + testCount + ".txt");
+        final Process evosuiteProcess;
+        try {
+            evosuiteProcess = launchProcess(evosuiteCommand, evosuiteLogFilePath);
+            LOGGER.info("Launched EvoSuite process, command line: %s", evosuiteCommand.stream().reduce("", (s1, s2) -> { return s1 + " " + s2; }));
+        } catch (IOException e) {
+            LOGGER.error("Unexpected I/O error while running EvoSuite process");
+            LOGGER.error("Message: %s", e.toString());
+            LOGGER.error("Stack trace:");
+            for (StackTraceElement elem : e.getStackTrace()) {
+                LOGGER.error("%s", elem.toString());
             }
+            return;
         }
 
-        //waits for all the threads to end (if it didn't the performer
-        //would consider the job over and would incorrectly detect whether 
-        //it is idle)
+        //launches a thread that waits for tests and schedules 
+        //JBSE for exploring them, and waits for it to end (if 
+        //it didn't the performer would consider the job over 
+        //and would incorrectly detect whether it is idle)
         boolean interrupted = false;
-        for (Thread thread : threads) {
+        try {
+            final TestDetector tdJBSE = new TestDetector(this, this.o, testCount, compiled, evosuiteProcess, evosuiteLogFilePath, this.in);
+            final Thread tJBSE = new Thread(tdJBSE);
+            tJBSE.start();
             try {
-                if (interrupted) {
-                    thread.interrupt();
-                } else {
-                    thread.join();
-                }
+                tJBSE.join();
             } catch (InterruptedException e) {
                 interrupted = true;
-                thread.interrupt();
+                tJBSE.interrupt();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unexpected I/O error while watching the EvoSuite tests directory");
+            LOGGER.error("Message: %s", e.toString());
+            LOGGER.error("Stack trace:");
+            for (StackTraceElement elem : e.getStackTrace()) {
+                LOGGER.error("%s", elem.toString());
             }
+            interrupted = true; //nobody waits for the tests, so kills EvoSuite
         }
         
-        //same for processes (safety net)
-        for (Process process : processes) {
+        //same for the process (safety net)
+        if (interrupted) {
+            evosuiteProcess.destroy();
+        } else {
             try {
-                if (interrupted) {
-                    process.destroy();
-                } else {
-                    process.waitFor();
-                }
+                evosuiteProcess.waitFor();
             } catch (InterruptedException e) {
-                interrupted = true;
-                process.destroy();
+                evosuiteProcess.destroy();
             }
         }
     }
@@ -579,76 +714,45 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
     PleaseLoadClassException, BadClassFileVersionException, RenameUnsupportedException, WrongClassNameException, 
     CannotAssumeSymbolicObjectException, MethodNotFoundException, MethodCodeNotFoundException, HeapMemoryExhaustedException, 
     IOFileCreationException, CompilationFailedWrapperException {
-        final Classpath cp = new Classpath(this.o.getJBSELibraryPath(),
-                                           Paths.get(System.getProperty("java.home", "")), 
-                                           new ArrayList<>(Arrays.stream(System.getProperty("java.ext.dirs", "").split(File.pathSeparator))
-                                           .map(s -> Paths.get(s)).collect(Collectors.toList())), 
-                                           this.o.getClassesPath());
-        final State initialState = new State(true, HistoryPoint.startingPreInitial(true), 1_000, 100_000, cp, ClassFileFactoryJavassist.class, new HashMap<>(), new HashMap<>(), new SymbolFactory());
+        final State initialState = this.preInitialStateFactory.make(targetMethodClassName);
         final ClassFile cf = initialState.getClassHierarchy().loadCreateClass(CLASSLOADER_APP, targetMethodClassName, true);
         initialState.pushFrameSymbolic(cf, new Signature(targetMethodClassName, targetMethodDescriptor, targetMethodName));
         final State finalState = initialState.clone();
         final Map<Long, String> stringLiterals = Collections.emptyMap();
         final Set<Long> stringOthers = Collections.emptySet();
-        emitAndCompileEvoSuiteWrapper(testCount, initialState, finalState, stringLiterals, stringOthers, null);
+        emitAndCompileEvoSuiteWrapper(testCount, WrapperSource.format(initialState, finalState, stringLiterals, stringOthers, null));
     }
     
     /**
-     * Emits and compiles the EvoSuite wrapper for the path condition of some state.
+     * Emits and compiles the EvoSuite wrapper for a path condition.
      * 
      * @param testCount an {@code int}, the number used to identify the test.
-     * @param initialState a {@link State}; must be the initial state in the execution 
-     *        for which we want to generate the wrapper.
-     * @param finalState a {@link State}; must be the final state in the execution 
-     *        for which we want to generate the wrapper.
-     * @param stringLiterals a {@link Map}{@code <}{@link Long}{@code , }{@link String}{@code >}, 
-     *        mapping a heap position of a {@link String} literal to the
-     *        corresponding value of the literal.
-     * @param stringOthers a {@link List}{@code <}{@link Long}{@code >}, 
-     *        listing the heap positions of the nonconstant {@link String}s.
-     * @throws FrozenStateException if {@code initialState} is frozen.
+     * @param wrapperSource the {@link WrapperSource} of the wrapper.
      * @throws IOFileCreationException if some I/O error occurs while creating the wrapper, the directory 
      *         that must contain it, or the compilation log file.
      * @throws CompilationFailedWrapperException if the compilation of the wrapper class fails.
      */
-    private void emitAndCompileEvoSuiteWrapper(int testCount, State initialState, State finalState, Map<Long, String> stringLiterals, Set<Long> stringOthers, Set<String> forbiddenExpansions) 
-    throws FrozenStateException, IOFileCreationException, CompilationFailedWrapperException {
-        final String initialCurrentClassName = initialState.getStack().get(0).getMethodClass().getClassName();
-        final int lastSlash = initialCurrentClassName.lastIndexOf('/');
-        final String initialCurrentClassPackageName = (lastSlash == -1 ? "" : initialCurrentClassName.substring(0, lastSlash));
-        
-        final StateFormatterSushiPathCondition fmt = new StateFormatterSushiPathCondition(initialCurrentClassPackageName, testCount, () -> initialState, true);
-        fmt.setStringConstants(stringLiterals);
-        fmt.setStringNonconstants(stringOthers);
-        if (forbiddenExpansions != null) {
-        	fmt.setForbiddenExpansions(forbiddenExpansions);
+    private void emitAndCompileEvoSuiteWrapper(int testCount, WrapperSource wrapperSource) 
+    throws IOFileCreationException, CompilationFailedWrapperException {
+        final Path wrapperDirectoryPath = this.o.getTmpWrappersDirectoryPath().resolve(wrapperSource.getPackageName());
+        try {
+            Files.createDirectories(wrapperDirectoryPath);
+        } catch (IOException e) {
+            throw new IOFileCreationException(e, wrapperDirectoryPath);
         }
-        fmt.formatPrologue();
-        fmt.formatState(finalState);
-        fmt.formatEpilogue();
-        
-        final Path wrapperFilePath;
-        try { 
-            final Path wrapperDirectoryPath = this.o.getTmpWrappersDirectoryPath().resolve(initialCurrentClassPackageName);
-            try {
-                Files.createDirectories(wrapperDirectoryPath);
-            } catch (IOException e) {
-                throw new IOFileCreationException(e, wrapperDirectoryPath);
-            }
-            wrapperFilePath = wrapperDirectoryPath.resolve("PathConditionEvaluator_" + testCount + ".java");
-            try (final BufferedWriter w = Files.newBufferedWriter(wrapperFilePath)) {
-                w.write(fmt.emit());
-            } catch (IOException e) {
-                throw new IOFileCreationException(e, wrapperFilePath);
-            }
-        } finally {
-            fmt.cleanup();
+        final Path wrapperFilePath = wrapperDirectoryPath.resolve("PathConditionEvaluator_" + testCount + ".java");
+        try (final BufferedWriter w = Files.newBufferedWriter(wrapperFilePath)) {
+            w.write(wrapperSource.emit(testCount));
+        } catch (IOException e) {
+            throw new IOFileCreationException(e, wrapperFilePath);
         }
 
         final Path javacLogFilePath = this.o.getTmpDirectoryPath().resolve("javac-log-wrapper-" + testCount + ".txt");
         final String[] javacParameters = { "-cp", this.classpathCompilationWrapper, "-d", this.o.getTmpBinDirectoryPath().toString(), "-source", "8", "-target", "8", wrapperFilePath.toString() };
+        final long startJavac = System.nanoTime();
         try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
             final int success = this.compiler.run(null, w, w, javacParameters);
+            TIME_JAVAC_WRAPPER.updateMillisSince(startJavac);
             if (success != 0) {
                 throw new CompilationFailedWrapperException(wrapperFilePath);
             }
@@ -668,7 +772,7 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
     private ArrayList<String> buildEvoSuiteCommandCommon(String targetClass) {
         final ArrayList<String> retVal = new ArrayList<>();
         retVal.add(this.o.getJava8Command());
-        retVal.add("-Xmx4G");
+        retVal.add("-Xmx" + EVOSUITE_HEAP_MAX_MB + "M");
         retVal.add("-jar");
         retVal.add(this.o.getEvosuitePath().toString());
         retVal.add("-class");
@@ -722,6 +826,26 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
         return retVal;
     }
 
+    /**
+     * Orders a list of {@link JBSEResult}s so the items with same 
+     * target method are adjacent, preserving the order of their 
+     * first occurrence.
+     * 
+     * @param items a {@link List}{@code <}{@link JBSEResult}{@code >}, results of symbolic execution.
+     * @return a {@link List}{@code <}{@link JBSEResult}{@code >}, the ordered items.
+     */
+    private static List<JBSEResult> orderByTargetMethod(List<JBSEResult> items) {
+    	final LinkedHashMap<String, List<JBSEResult>> itemsByTargetMethod = new LinkedHashMap<>();
+    	for (JBSEResult item : items) {
+    		itemsByTargetMethod.computeIfAbsent(item.getTargetMethodSignature(), k -> new ArrayList<>()).add(item);
+    	}
+    	final ArrayList<JBSEResult> retVal = new ArrayList<>(items.size());
+    	for (List<JBSEResult> itemsOfMethod : itemsByTargetMethod.values()) {
+    		retVal.addAll(itemsOfMethod);
+    	}
+    	return retVal;
+    }
+
     /**
      * Builds the command line for invoking EvoSuite.
      * 
@@ -758,21 +882,6 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
         return retVal;
     }
 
-    /**
-     * Creates and launches an external process. The stderr of the
-     * process will be redirected to the stdout.
-     * 
-     * @param commandLine a {@link List}{@code <}{@link String}{@code >}, the command line
-     *        to launch the process in the format expected by {@link ProcessBuilder}.
-     * @return the created {@link Process}.
-     * @throws IOException if thrown by {@link ProcessBuilder#start()}.
-     */
-    private Process launchProcess(List<String> commandLine) throws IOException {
-        final ProcessBuilder pb = new ProcessBuilder(commandLine).redirectErrorStream(true);
-        final Process pr = pb.start();
-        return pr;
-    }
-
     /**
      * Creates and launches an external process.
      * 
@@ -826,6 +935,72 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
      */
     void checkTestCompileAndScheduleJBSE(int testCount, JBSEResult item) 
     throws NoTestFileException, NoTestFileScaffoldingException, NoTestMethodException, IOFileCreationException, 
+    CompilationFailedTestException, CompilationFailedTestScaffoldingException, ClassFileAccessException {
+    	checkTestCompileAndScheduleJBSE(testCount, item, false);
+    }
+    
+    /**
+     * Compiles the test and scaffolding classes obtained by
+     * splitting an EvoSuite test class with a single invocation 
+     * of javac.
+     * 
+     * @param splitFiles a {@link List}{@code <}{@link Path}{@code >}, 
+     *        the source files of the split classes.
+     * @param testCount an {@code int}, the number that identifies 
+     *        the first split test (used to name the compilation
+     *        log file).
+     * @return {@code true} iff the compilation succeeded. Otherwise
+     *         the split classes must be compiled one by one, so a 
+     *         single failing class does not prevent the others from
+     *         being scheduled.
+     */
+    private boolean compileSplitTests(List<Path> splitFiles, int testCount) {
+        if (splitFiles.isEmpty()) {
+            return false;
+        }
+        final Path javacLogFilePath = this.o.getTmpTestsDirectoryPath().resolve("javac-log-split-" +  testCount + ".txt");
+        final ArrayList<String> javacParameters = new ArrayList<>();
+        javacParameters.add("-cp");
+        javacParameters.add(this.classpathCompilationTest);
+        javacParameters.add("-d");
+        javacParameters.add(this.o.getTmpBinDirectoryPath().toString());
+        for (Path splitFile : splitFiles) {
+            javacParameters.add(splitFile.toString());
+        }
+        try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
+            return (this.compiler.run(null, w, w, javacParameters.toArray(new String[0])) == 0);
+        } catch (IOException e) {
+            LOGGER.error("Unexpected I/O error while creating split test cases compilation log file %s", javacLogFilePath.toAbsolutePath().toString());
+            LOGGER.error("Message: %s", e.toString());
+            LOGGER.error("Stack trace:");
+            for (StackTraceElement elem : e.getStackTrace()) {
+                LOGGER.error("%s", elem.toString());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether EvoSuite emitted a well-formed test class, and in the
+     * positive case compiles the generated test and schedules JBSE for its
+     * exploration.
+     *  
+     * @param testCount an {@code int}, the number that identifies 
+     *        the generated test.
+     * @param item a {@link JBSEResult}, the result of the symbolic execution
+     *        from which the test was generated.
+     * @param compiled a {@code boolean}, {@code true} iff the test (and its
+     *        scaffolding) were already compiled.
+     * @throws NoTestFileException if the test file does not exist.
+     * @throws NoTestFileScaffoldingException if the scaffolding file does not exist. 
+     * @throws NoTestMethodException if the test method does not exist in the test class.
+     * @throws IOFileCreationException if some I/O error occurs while creating the compilation log file.
+     * @throws CompilationFailedTestException if the compilation of the test class fails.
+     * @throws CompilationFailedTestScaffoldingException if the compilation of the scaffolding class fails.
+     * @throws ClassFileAccessException if the test class is not accessible.
+     */
+    private void checkTestCompileAndScheduleJBSE(int testCount, JBSEResult item, boolean compiled) 
+    throws NoTestFileException, NoTestFileScaffoldingException, NoTestMethodException, IOFileCreationException, 
     CompilationFailedTestException, CompilationFailedTestScaffoldingException, ClassFileAccessException {
         //checks if EvoSuite generated the files
         final String testCaseClassName = (item.hasTargetMethod() ? item.getTargetMethodClassName() : item.getTargetClassName()) + "_" + testCount + "_Test";
@@ -838,23 +1013,27 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
             throw new NoTestFileScaffoldingException(testCaseScaff);
         }
 
-        //compiles the generated test
-        final Path javacLogFilePath = this.o.getTmpTestsDirectoryPath().resolve("javac-log-test-" +  testCount + ".txt");
-        final String[] javacParametersTestCase = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCase.toString() };
-        try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
-            if (testCaseScaff != null) {
-                final String[] javacParametersTestScaff = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCaseScaff.toString() };
-                final int successTestCaseScaff = this.compiler.run(null, w, w, javacParametersTestScaff);
-                if (successTestCaseScaff != 0) {
-                    throw new CompilationFailedTestScaffoldingException(testCaseScaff);
+        //compiles the generated test (unless already compiled)
+        if (!compiled) {
+            final Path javacLogFilePath = this.o.getTmpTestsDirectoryPath().resolve("javac-log-test-" +  testCount + ".txt");
+            final String[] javacParametersTestCase = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCase.toString() };
+            final long startJavac = System.nanoTime();
+            try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
+                if (testCaseScaff != null) {
+                    final String[] javacParametersTestScaff = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCaseScaff.toString() };
+                    final int successTestCaseScaff = this.compiler.run(null, w, w, javacParametersTestScaff);
+                    if (successTestCaseScaff != 0) {
+                        throw new CompilationFailedTestScaffoldingException(testCaseScaff);
+                    }
                 }
+                final int successTestCase = this.compiler.run(null, w, w, javacParametersTestCase);
+                TIME_JAVAC_TEST.updateMillisSince(startJavac);
+                if (successTestCase != 0) {
+                    throw new CompilationFailedTestException(testCase);
+                }
+            } catch (IOException e) {
+                throw new IOFileCreationException(e, javacLogFilePath);
             }
-            final int successTestCase = this.compiler.run(null, w, w, javacParametersTestCase);
-            if (successTestCase != 0) {
-                throw new CompilationFailedTestException(testCase);
-            }
-        } catch (IOException e) {
-            throw new IOFileCreationException(e, javacLogFilePath);
         }
 
         //creates the TestCase and schedules it for further exploration
@@ -863,7 +1042,8 @@ public final class PerformerEvosuite extends PerformerPausableFixedThreadPoolExe
             final int depth = item.getDepth();
             LOGGER.info("Generated test case %s, depth: %d, post-frontier path condition: %s:%s", testCaseClassName, depth, item.getTargetMethodSignature(), stringifyPostFrontierPathCondition(item));
             final TestCase newTestCase = new TestCase(testCaseClassName, "()V", "test0", this.o.getTmpTestsDirectoryPath(), (testCaseScaff != null));
-            getOutputBuffer().add(new EvosuiteResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), item.getPathConditionMangled(), newTestCase, depth + 1));
+            getOutputBuffer().add(new EvosuiteResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), item.getPathConditionMangled(), item.getTargetBranch(), newTestCase, depth + 1));
+            GOALS_SOLVED.increment();
         } catch (NoSuchMethodException e) { 
             throw new NoTestMethodException(testCase, item.getTargetMethodSignature(), stringifyPostFrontierPathCondition(item));
         } catch (SecurityException | NoClassDefFoundError | ClassNotFoundException e) {
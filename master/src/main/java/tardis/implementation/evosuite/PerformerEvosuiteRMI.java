@@ -16,7 +16,6 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.rmi.NoSuchObjectException;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
@@ -27,22 +26,26 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 import javax.tools.JavaCompiler;
 import javax.tools.ToolProvider;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import jbse.apps.StateFormatterSushiPathCondition;
 import jbse.bc.ClassFile;
-import jbse.bc.ClassFileFactoryJavassist;
-import jbse.bc.Classpath;
 import jbse.bc.Signature;
 import jbse.bc.exc.BadClassFileVersionException;
 import jbse.bc.exc.ClassFileIllFormedException;
@@ -59,10 +62,7 @@ import jbse.common.exc.InvalidInputException;
 import jbse.mem.Clause;
 import jbse.mem.State;
 import jbse.mem.exc.CannotAssumeSymbolicObjectException;
-import jbse.mem.exc.FrozenStateException;
 import jbse.mem.exc.HeapMemoryExhaustedException;
-import jbse.val.HistoryPoint;
-import jbse.val.SymbolFactory;
 import shaded.org.evosuite.coverage.branch.BranchCoverageTestFitness;
 import shaded.org.evosuite.ga.FitnessFunction;
 import shaded.org.evosuite.rmi.service.EvosuiteRemote;
@@ -74,6 +74,10 @@ import tardis.framework.PerformerMultiServer;
 import tardis.implementation.common.NoJavaCompilerException;
 import tardis.implementation.data.JBSEResultInputOutputBuffer;
 import tardis.implementation.jbse.JBSEResult;
+import tardis.implementation.jbse.WrapperSource;
+import tardis.metrics.Counter;
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
 
 /**
  * A {@link Performer} that consumes {@link JBSEResult}s by invoking Evosuite
@@ -83,34 +87,70 @@ import tardis.implementation.jbse.JBSEResult;
  * @author Pietro Braione
  * @author Lorenzo Benatti
  */
-public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult, EvosuiteResult> implements TestListenerRemote {
+public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult, EvosuiteResult> {
     private static final Logger LOGGER = LogManager.getFormatterLogger(PerformerEvosuite.class);
+    private static final Counter GOALS_SOLVED = Metrics.counter("evosuite.goals_solved");
+    private static final Counter GOALS_DISMISSED = Metrics.counter("evosuite.goals_dismissed");
+    private static final Histogram TIME_JAVAC_WRAPPER = Metrics.histogram("evosuite.javac_wrapper_ms");
+    private static final Histogram TIME_JAVAC_TEST = Metrics.histogram("evosuite.javac_test_ms");
     private static final String TARDIS_RMI_IDENTIFIER = "TARDIS_RMI_IDENTIFIER";
     private static final int RMI_REGISTRY_PORT_BASE = 2000;
     private static final int RMI_REGISTRY_PORT_RANGE = 20000;
     
+    /**
+     * Bonus to the score of an EvoSuite server already evolving
+     * some goal with same target method of the goal to allocate.
+     */
+    private static final double LOCALITY_SAME_METHOD_BONUS = 1.0d;
+    
+    /**
+     * Bonus to the score of an EvoSuite server already evolving
+     * some goal whose path condition has a common prefix with the
+     * path condition of the goal to allocate, multiplied by the 
+     * fraction of the path condition that is shared.
+     */
+    private static final double LOCALITY_PREFIX_BONUS = 1.0d;
+    
+    /** The period (in milliseconds) of the EvoSuite processes supervisor. */
+    private static final long SUPERVISOR_PERIOD_MILLIS = 1_000L;
+    
+    /** The initial delay (in milliseconds) before respawning a dead EvoSuite process. */
+    private static final long RESPAWN_BACKOFF_INITIAL_MILLIS = 1_000L;
+    
+    /** The maximum delay (in milliseconds) before respawning a dead EvoSuite process. */
+    private static final long RESPAWN_BACKOFF_MAX_MILLIS = 60_000L;
+    
     private final JavaCompiler compiler;
     private final Options o;
 	private final List<List<String>> visibleTargetMethods;
     private final long timeBudgetSeconds;
+    private final long startTime;
     private final String classpathEvosuite;
     private final URL[] classpathTestURLClassLoader;
     private final String classpathCompilationTest;
     private final String classpathCompilationWrapper;
+    private final DirectTestGenerator directTestGenerator;
+    private final PreInitialStateFactory preInitialStateFactory;
     private final AtomicInteger testCount = new AtomicInteger(0);
 	private final Map<Integer, JBSEResult> itemsMap = Collections.synchronizedMap(new HashMap<>());
-	private final ArrayList<Process> evosuiteProcesses = new ArrayList<>();
-	private final Map<String, EvosuiteRemote> evosuiteNodes = Collections.synchronizedMap(new HashMap<>());
-	private final Map<String, Integer> evosuiteCapacityCounter = Collections.synchronizedMap(new HashMap<>());
+	private final ArrayList<EvosuiteProcessSlot> evosuiteProcesses = new ArrayList<>();
+	private final ArrayList<Pair<JBSEResult, Integer>> goalsOrphan = new ArrayList<>();
+	private final ScheduledExecutorService supervisor = Executors.newSingleThreadScheduledExecutor(r -> { final Thread t = new Thread(r, "EvosuiteSupervisor"); t.setDaemon(true); return t; });
+	private volatile boolean stopping = false;
+	private final Map<String, EvosuiteRemote> evosuiteNodes = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> evosuiteCapacityCounter = new ConcurrentHashMap<>();
+	private final Map<String, EvosuiteNodeLoad> evosuiteNodesLoad = new ConcurrentHashMap<>();
+	private final ExecutorService callbackWorkers;
+	private final AtomicInteger callbackEventsPending = new AtomicInteger(0);
 	private Registry registry = null;
     private int registryPort = -1;
     private boolean terminated = false;
-    private volatile boolean stopUntilFirstEvosuite = true;
+    private final CountDownLatch firstEvosuiteReady = new CountDownLatch(1);
     private List<PerformerEvosuiteListener> listeners = new ArrayList<>();
     
     public PerformerEvosuiteRMI(Options o, JBSEResultInputOutputBuffer in, OutputBuffer<EvosuiteResult> out) 
     throws NoJavaCompilerException, ClassNotFoundException, MalformedURLException, SecurityException, 
-    RemoteException, InterruptedException {
+    RemoteException, InterruptedException, NoEvosuiteServerException {
         super("PerformerEvosuiteRMI", in, out, o.getNumOfThreadsEvosuite(), o.getNumTargetsEvosuitePerJob() + o.getNumTargetsEvosuiteOverloaded(), o.getNumTargetsEvosuitePerJob(), o.getThrottleFactorEvosuite(), o.getTimeoutEvosuiteJobCreationDuration() / o.getNumTargetsEvosuitePerJob(), o.getTimeoutEvosuiteJobCreationUnit());
         this.compiler = ToolProvider.getSystemJavaCompiler();
         if (this.compiler == null) {
@@ -118,7 +158,9 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
         }
         this.o = o;
         this.visibleTargetMethods = getTargets(o);
+        this.callbackWorkers = Executors.newFixedThreadPool(o.getNumOfThreadsEvosuite(), r -> { final Thread t = new Thread(r, "EvosuiteCallback"); t.setDaemon(true); return t; });
         this.timeBudgetSeconds = o.getGlobalTimeBudgetUnit().toSeconds(o.getGlobalTimeBudgetDuration()); //EvoSuite must be running for all configured time budget
+        this.startTime = System.currentTimeMillis();
         final String classesPathString = String.join(File.pathSeparator, stream(o.getClassesPath()).map(Object::toString).toArray(String[]::new)); 
         this.classpathEvosuite = classesPathString + File.pathSeparator + this.o.getJBSELibraryPath().toString() + File.pathSeparator + this.o.getSushiLibPath().toString();
         final ArrayList<Path> classpathTestPath = new ArrayList<>(o.getClassesPath());
@@ -136,12 +178,17 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
         }
         this.classpathCompilationTest = this.o.getTmpBinDirectoryPath().toString() + File.pathSeparator + classesPathString + File.pathSeparator + this.o.getJBSELibraryPath().toString() + File.pathSeparator + this.o.getSushiLibPath().toString() + File.pathSeparator + this.o.getEvosuitePath().toString();
         this.classpathCompilationWrapper = classesPathString + File.pathSeparator + this.o.getSushiLibPath().toString();
+        this.directTestGenerator = (o.getUseDirectTestGeneration() ? new DirectTestGenerator(o, this.compiler, this.classpathCompilationTest) : null);
+        this.preInitialStateFactory = new PreInitialStateFactory(o);
         
         //creates the RMI registry, exports this object and binds it to the registry
         startRMI();
         
         //creates the EvoSuite instances
         createEvosuite();
+        
+        //starts supervising them
+        this.supervisor.scheduleAtFixedRate(this::supervise, SUPERVISOR_PERIOD_MILLIS, SUPERVISOR_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
     }
     
     public void registerListener(PerformerEvosuiteListener l) {
@@ -183,39 +230,82 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
 			throw exc;
 		}
 		LOGGER.info("Started RMI registry on port %d", this.registryPort);
-		
-		final TestListenerRemote stub = (TestListenerRemote) exportObject(this);
-		this.registry.rebind(TARDIS_RMI_IDENTIFIER, stub);
-		LOGGER.info("PerformerEvosuiteRMI exported and bound to RMI registry");
 	}
 	
-	private void createEvosuite() throws ClassNotFoundException, MalformedURLException, SecurityException, InterruptedException {
-        final List<String> evosuiteCommand = buildEvoSuiteCommand(); 
+	private void createEvosuite() throws ClassNotFoundException, MalformedURLException, SecurityException, InterruptedException, RemoteException, NoEvosuiteServerException {
+        //launches all the processes at once: each slot has its 
+        //own listener, so the server that connects back is 
+        //associated to its slot whatever the order of startup;
+        //the slots where launching fails are retried by the
+        //supervisor
+        boolean launched = false;
         for (int i = 0; i < this.o.getNumOfThreadsEvosuite(); ++i) {
-            final Path evosuiteLogFilePath = this.o.getTmpDirectoryPath().resolve("evosuite-log-" + i + ".txt");
-        	launchEvosuite(evosuiteCommand, evosuiteLogFilePath);
+            final EvosuiteProcessSlot slot = new EvosuiteProcessSlot(this, i, this.o.getTmpDirectoryPath().resolve("evosuite-log-" + i + ".txt"));
+            synchronized (this) {
+            	this.evosuiteProcesses.add(slot);
+            }
+            exportListener(slot);
+            final Process process = launchEvosuite(buildEvoSuiteCommand(this.timeBudgetSeconds, slot.listenerRmiIdentifier), slot.logFilePath);
+            launched(slot, process);
+            launched = launched || (process != null);
+        }
+        if (!launched) {
+        	shutdownRMI();
+        	throw new NoEvosuiteServerException("No EvoSuite process could be launched");
         }
         
         //waits for at least one EvoSuite instance to connect back
-        //(ugly spinlock)
-        while (this.stopUntilFirstEvosuite) ;
+        final long timeoutDuration = this.o.getTimeoutEvosuiteStartupDuration();
+        final TimeUnit timeoutUnit = this.o.getTimeoutEvosuiteStartupUnit();
+        if (!this.firstEvosuiteReady.await(timeoutDuration, timeoutUnit)) {
+        	LOGGER.error("No EvoSuite server registered within %d %s", timeoutDuration, timeoutUnit.toString().toLowerCase());
+        	for (EvosuiteProcessSlot slot : this.evosuiteProcesses) {
+        		if (slot.process == null) {
+        			continue;
+        		} else if (slot.process.isAlive()) {
+        			LOGGER.error("EvoSuite process %d is still running but did not connect back, killing it (see log file %s)", slot.index, slot.logFilePath.toString());
+        			slot.process.destroyForcibly();
+        		} else {
+        			LOGGER.error("EvoSuite process %d terminated with exit code %d (see log file %s)", slot.index, slot.process.exitValue(), slot.logFilePath.toString());
+        		}
+        	}
+        	shutdownRMI();
+        	throw new NoEvosuiteServerException("No EvoSuite server registered within " + timeoutDuration + " " + timeoutUnit.toString().toLowerCase());
+        }
+	}
+	
+	/**
+	 * Exports the listener of a slot and binds it to the RMI
+	 * registry.
+	 * 
+	 * @param slot an {@link EvosuiteProcessSlot}.
+	 * @throws RemoteException if exporting or binding fails.
+	 */
+	private void exportListener(EvosuiteProcessSlot slot) throws RemoteException {
+		final TestListenerRemote stub = (TestListenerRemote) exportObject(slot.listener);
+		this.registry.rebind(slot.listenerRmiIdentifier, stub);
+		LOGGER.info("Listener of EvoSuite process %d exported and bound to RMI registry", slot.index);
 	}
     
     /**
      * Builds the command line for invoking EvoSuite.
      * 
+     * @param searchBudgetSeconds a {@code long}, the search budget 
+     *        of EvoSuite in seconds.
+     * @param listenerRmiIdentifier a {@link String}, the RMI identifier 
+     *        of the listener the EvoSuite server must call back.
      * @return a command line in the format of an {@link ArrayList}{@code <}{@link String}{@code >},
      *         suitable to be passed to a {@link ProcessBuilder}.
      * @throws SecurityException 
      * @throws MalformedURLException 
      * @throws ClassNotFoundException 
      */
-    private ArrayList<String> buildEvoSuiteCommand() throws ClassNotFoundException, MalformedURLException, SecurityException {
+    private ArrayList<String> buildEvoSuiteCommand(long searchBudgetSeconds, String listenerRmiIdentifier) throws ClassNotFoundException, MalformedURLException, SecurityException {
         final List<String> targetMethod = this.o.getTargetMethod();
         final String targetClass = this.o.getTargetClass();
         final ArrayList<String> retVal = new ArrayList<>();
         retVal.add(this.o.getJava8Command());
-        retVal.add("-Xmx4G");
+        retVal.add("-Xmx" + PerformerEvosuite.EVOSUITE_HEAP_MAX_MB + "M");
         retVal.add("-jar");
         retVal.add(this.o.getEvosuitePath().toString());
     	retVal.add("-class");
@@ -260,7 +350,7 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
         retVal.add("-DCP=" + this.classpathEvosuite); 
         retVal.add("-Dassertions=false");
         retVal.add("-Dreport_dir=" + this.o.getTmpDirectoryPath().toString());
-        retVal.add("-Dsearch_budget=" + this.timeBudgetSeconds);
+        retVal.add("-Dsearch_budget=" + searchBudgetSeconds);
         retVal.add("-Dtest_dir=" + this.o.getTmpTestsDirectoryPath().toString());
         retVal.add("-Dvirtual_fs=false");
         retVal.add("-Dselection_function=ROULETTEWHEEL");
@@ -277,7 +367,7 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
         retVal.add("-Dalgorithm=DYNAMOSA");
         retVal.add("-generateMOSuite");
         retVal.add("-Dexternal_rmi_registry_port=" + this.registryPort);
-        retVal.add("-Dtest_listener_rmi_identifier=" + TARDIS_RMI_IDENTIFIER);
+        retVal.add("-Dtest_listener_rmi_identifier=" + listenerRmiIdentifier);
         retVal.add("-Dinjected_path_conditions_checking_rate=50");
         retVal.add("-Ddismiss_path_conditions_no_improve_iterations=" + this.o.getMaxEvosuiteItersPerPathCondition());
         retVal.add("-Dcriterion=PATHCONDITION:BRANCH");             
@@ -288,10 +378,22 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
         return retVal;
     }
     
-    private void launchEvosuite(final List<String> evosuiteCommand, Path evosuiteLogFilePath) {
+    /**
+     * Launches an EvoSuite process. Must not be invoked while
+     * holding the lock on {@code this}, since launching may be
+     * slow and would block the callbacks.
+     * 
+     * @param evosuiteCommand a {@link List}{@code <}{@link String}{@code >}, 
+     *        the EvoSuite command line.
+     * @param logFilePath the {@link Path} of the log file of the process.
+     * @return the launched {@link Process}, or {@code null} if the 
+     *         process could not be launched.
+     */
+    private static Process launchEvosuite(final List<String> evosuiteCommand, Path logFilePath) {
         try {
-            this.evosuiteProcesses.add(launchProcess(evosuiteCommand, evosuiteLogFilePath));
+            final Process retVal = launchProcess(evosuiteCommand, logFilePath);
             LOGGER.info("Launched EvoSuite process, command line: %s", evosuiteCommand.stream().reduce("", (s1, s2) -> { return s1 + " " + s2; }));
+            return retVal;
         } catch (IOException e) {
             LOGGER.error("Unexpected I/O error while running EvoSuite process");
             LOGGER.error("Message: %s", e.toString());
@@ -299,6 +401,7 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
             for (StackTraceElement elem : e.getStackTrace()) {
                 LOGGER.error("%s", elem.toString());
             }
+            return null;
         }
 	}
 
@@ -320,63 +423,255 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
 
     @Override
     protected Object[] allocateJob(List<JBSEResult> items) {
-    	ArrayList<Pair<JBSEResult, Integer>> compiled = generateWrappers(items);
-    	String workerKey = allocateGoalsToSomeEvosuite(compiled);
-    	return new Object[]{workerKey, compiled};
+    	final ArrayList<Pair<JBSEResult, Integer>> compiled = generateWrappers(items);
+    	final Map<String, List<Pair<JBSEResult, Integer>>> allocation = allocateGoalsToSomeEvosuite(compiled);
+    	return new Object[]{allocation};
     }
 
     @Override
     protected void executeJob(List<JBSEResult> items, Object... args) {
-    	String workerKey = (String) args[0];
     	@SuppressWarnings("unchecked")
-		ArrayList<Pair<JBSEResult, Integer>> compiled = (ArrayList<Pair<JBSEResult, Integer>>) args[1];
+    	final Map<String, List<Pair<JBSEResult, Integer>>> allocation = (Map<String, List<Pair<JBSEResult, Integer>>>) args[0];
     	if (this.terminated) {
     		LOGGER.info("All Evosuite instances terminated, Evosuite job ignored");
-    	} else if (workerKey != null) {
-    		sendGoalsToEvosuite(workerKey, compiled);
+    	} else {
+    		for (Map.Entry<String, List<Pair<JBSEResult, Integer>>> e : allocation.entrySet()) {
+    			sendGoalsToEvosuite(e.getKey(), e.getValue());
+    		}
     	}
     }
     
     @Override
     protected void onStop() {
-		for (Process process : this.evosuiteProcesses) {
+    	this.stopping = true;
+    	this.supervisor.shutdownNow();
+    	final ArrayList<EvosuiteProcessSlot> slots;
+    	synchronized (this) {
+    		slots = new ArrayList<>(this.evosuiteProcesses);
+    	}
+		for (EvosuiteProcessSlot slot : slots) {
+			LOGGER.info("EvoSuite process %d was restarted %d times", slot.index, slot.restarts);
+			if (slot.process == null) {
+				continue;
+			}
 			try {
-				process.waitFor();
+				slot.process.waitFor();
 			} catch (InterruptedException e) {
 				//nevermind and continue
 			}
 		}
-		try {
-			this.registry.unbind(TARDIS_RMI_IDENTIFIER);
-		} catch (RemoteException | NotBoundException e) {
-			//just ignore
-		}
-		try {
-			UnicastRemoteObject.unexportObject(this, false);
-		} catch (NoSuchObjectException e) {
-			//just ignore
+		shutdownRMI();
+		this.callbackWorkers.shutdown();
+		if (this.directTestGenerator != null) {
+			this.directTestGenerator.close();
 		}
     }
     
+    /**
+     * Supervises the EvoSuite processes. Invoked periodically, 
+     * respawns (with exponential backoff) the processes that 
+     * died without shutting down, evicts the EvoSuite servers 
+     * of the dead processes, and reassigns the goals that were 
+     * in flight on the evicted servers.
+     */
+    private void supervise() {
+    	try {
+    		final ArrayList<Pair<JBSEResult, Integer>> goalsToReassign;
+    		final ArrayList<EvosuiteProcessSlot> slotsToLaunch = new ArrayList<>();
+    		long searchBudgetSeconds = 0;
+    		synchronized (this) {
+    			if (this.stopping || this.terminated) {
+    				return;
+    			}
+    			final long now = System.currentTimeMillis();
+
+    			//detects dead processes, evicts their servers, and 
+    			//selects the processes to (re)spawn
+    			for (EvosuiteProcessSlot slot : this.evosuiteProcesses) {
+    				if (slot.retired || slot.launching) {
+    					continue;
+    				}
+    				if (slot.process != null && slot.process.isAlive()) {
+    					continue;
+    				}
+    				if (slot.process != null) {
+    					//the process just died
+    					LOGGER.warn("EvoSuite process %d died with exit code %d (see log file %s)", slot.index, slot.process.exitValue(), slot.logFilePath.toString());
+    					slot.process = null;
+    					if (slot.rmiIdentifier != null) {
+    						evictEvosuiteServer(slot.rmiIdentifier);
+    						slot.rmiIdentifier = null;
+    					}
+    					if (slot.shutDown) {
+    						slot.retired = true;
+    					} else if (slot.restarts >= this.o.getMaxEvosuiteRestarts()) {
+    						LOGGER.error("EvoSuite process %d was restarted %d times, giving up restarting it", slot.index, slot.restarts);
+    						slot.retired = true;
+    					} else {
+    						slot.respawnTime = now + slot.backoffMillis;
+    						slot.backoffMillis = Math.min(2 * slot.backoffMillis, RESPAWN_BACKOFF_MAX_MILLIS);
+    					}
+    				} else if (now >= slot.respawnTime) {
+    					searchBudgetSeconds = this.timeBudgetSeconds - (now - this.startTime) / 1_000L;
+    					if (searchBudgetSeconds <= 0) {
+    						slot.retired = true;
+    						continue;
+    					}
+    					if (slot.everLaunched) {
+    						++slot.restarts;
+    						slot.logFilePath = this.o.getTmpDirectoryPath().resolve("evosuite-log-" + slot.index + "-" + slot.restarts + ".txt");
+    						LOGGER.info("Respawning EvoSuite process %d (restart %d)", slot.index, slot.restarts);
+    					}
+    					slot.respawnTime = 0L;
+    					slot.launching = true;
+    					slotsToLaunch.add(slot);
+    				}
+    			}
+
+    			//if no process can be respawned and all the servers are 
+    			//gone, gives up
+    			if (this.evosuiteNodes.isEmpty() && this.evosuiteProcesses.stream().allMatch(slot -> slot.retired)) {
+    				LOGGER.info("All Evosuite servers down and no Evosuite process can be respawned");
+    				releaseAllPreallocatedWorkers();
+    				this.terminated = true;
+    				notifyAllEvosuiteTerminated();
+    				return;
+    			}
+    		}
+    		
+    		//launches outside the lock, so the callbacks are not blocked
+    		for (EvosuiteProcessSlot slot : slotsToLaunch) {
+    			Process process = null;
+    			try {
+    				process = launchEvosuite(buildEvoSuiteCommand(searchBudgetSeconds, slot.listenerRmiIdentifier), slot.logFilePath);
+    			} finally {
+    				launched(slot, process);
+    			}
+    		}
+
+    		//picks the goals to reassign
+    		synchronized (this) {
+    			if (this.goalsOrphan.isEmpty() || this.evosuiteNodes.isEmpty()) {
+    				return;
+    			}
+    			goalsToReassign = new ArrayList<>(this.goalsOrphan);
+    			this.goalsOrphan.clear();
+    		}
+
+    		//reassigns the goals
+    		LOGGER.info("Reassigning %d goals that were in flight on dead EvoSuite servers", goalsToReassign.size());
+    		final Map<String, List<Pair<JBSEResult, Integer>>> allocation = allocateGoalsToSomeEvosuite(goalsToReassign);
+    		for (Map.Entry<String, List<Pair<JBSEResult, Integer>>> e : allocation.entrySet()) {
+    			sendGoalsToEvosuite(e.getKey(), e.getValue());
+    		}
+    	} catch (ClassNotFoundException | MalformedURLException | SecurityException e) {
+    		LOGGER.error("Unexpected error while supervising the EvoSuite processes");
+    		LOGGER.error("Message: %s", e.toString());
+    		LOGGER.error("Stack trace:");
+    		for (StackTraceElement elem : e.getStackTrace()) {
+    			LOGGER.error("%s", elem.toString());
+    		}
+    	} catch (RuntimeException e) {
+    		//must not propagate, otherwise the supervisor is descheduled
+    		LOGGER.error("Unexpected runtime exception while supervising the EvoSuite processes");
+    		LOGGER.error("Message: %s", e.toString());
+    		LOGGER.error("Stack trace:");
+    		for (StackTraceElement elem : e.getStackTrace()) {
+    			LOGGER.error("%s", elem.toString());
+    		}
+    	}
+    }
+    
+    /**
+     * Records the outcome of the launch of a process in a slot.
+     * 
+     * @param slot the {@link EvosuiteProcessSlot} where the process
+     *        was launched.
+     * @param process the launched {@link Process}, or {@code null}
+     *        if the launch failed.
+     */
+    private synchronized void launched(EvosuiteProcessSlot slot, Process process) {
+    	slot.launching = false;
+    	slot.everLaunched = true;
+    	if (process == null) {
+    		slot.respawnTime = System.currentTimeMillis() + slot.backoffMillis;
+    		slot.backoffMillis = Math.min(2 * slot.backoffMillis, RESPAWN_BACKOFF_MAX_MILLIS);
+    	} else {
+    		slot.process = process;
+    	}
+    }
+    
+    /**
+     * Removes an EvoSuite server that is believed dead, and 
+     * marks the goals it was working on for reassignment. 
+     * 
+     * @param evosuiteServerRmiIdentifier a {@link String}, the RMI identifier
+     *        of the EvoSuite RMI server instance.
+     */
+    private synchronized void evictEvosuiteServer(String evosuiteServerRmiIdentifier) {
+    	if (this.evosuiteNodes.remove(evosuiteServerRmiIdentifier) == null) {
+    		return; //already evicted
+    	}
+    	LOGGER.warn("Evosuite server %s is believed dead, evicting it", evosuiteServerRmiIdentifier);
+    	this.evosuiteCapacityCounter.remove(evosuiteServerRmiIdentifier);
+    	final EvosuiteNodeLoad load = this.evosuiteNodesLoad.remove(evosuiteServerRmiIdentifier);
+    	if (load != null) {
+    		this.goalsOrphan.addAll(load.goalsInFlight());
+    	}
+    }
+    
+    /**
+     * Unbinds the listeners of the slots from the RMI registry 
+     * and unexports them.
+     */
+    private void shutdownRMI() {
+    	final ArrayList<EvosuiteProcessSlot> slots;
+    	synchronized (this) {
+    		slots = new ArrayList<>(this.evosuiteProcesses);
+    	}
+    	for (EvosuiteProcessSlot slot : slots) {
+    		try {
+    			this.registry.unbind(slot.listenerRmiIdentifier);
+    		} catch (RemoteException | NotBoundException e) {
+    			//just ignore
+    		}
+    		try {
+    			UnicastRemoteObject.unexportObject(slot.listener, false);
+    		} catch (NoSuchObjectException e) {
+    			//just ignore
+    		}
+    	}
+    }
+    
     @Override
-    protected synchronized int availableWorkers() {
+    protected int availableWorkers() {
     	int retVal = 0;
-    	for (Map.Entry<String, Integer> e : this.evosuiteCapacityCounter.entrySet()) {
-    		retVal += e.getValue();
+    	for (AtomicInteger capacity : this.evosuiteCapacityCounter.values()) {
+    		retVal += capacity.get();
     	}
-    	return retVal - getPreallocatedWorkers();
+    	//the callback events still to be processed are work in progress 
+    	return retVal - getPreallocatedWorkers() - this.callbackEventsPending.get();
     }
 
-    @Override
-	public synchronized void evosuiteServerReady(String evosuiteServerRmiIdentifier) throws RemoteException {
-		LOGGER.info("Evosuite server is ready, RMI identifier is %s", evosuiteServerRmiIdentifier);
+    /**
+     * Invoked when the EvoSuite server of the process in a slot
+     * is ready.
+     * 
+     * @param slot the {@link EvosuiteProcessSlot} of the server.
+     * @param evosuiteServerRmiIdentifier a {@link String}, the RMI identifier
+     *        of the EvoSuite RMI server instance.
+     */
+	private synchronized void evosuiteServerReady(EvosuiteProcessSlot slot, String evosuiteServerRmiIdentifier) {
+		LOGGER.info("Evosuite server of process %d is ready, RMI identifier is %s", slot.index, evosuiteServerRmiIdentifier);
 		try {
 			final EvosuiteRemote remote = (EvosuiteRemote) this.registry.lookup(evosuiteServerRmiIdentifier);
 			this.evosuiteNodes.put(evosuiteServerRmiIdentifier, remote);
-			this.evosuiteCapacityCounter.put(evosuiteServerRmiIdentifier, Integer.valueOf(this.o.getNumTargetsEvosuitePerJob() + this.o.getNumTargetsEvosuiteOverloaded()));
+			this.evosuiteCapacityCounter.put(evosuiteServerRmiIdentifier, new AtomicInteger(this.o.getNumTargetsEvosuitePerJob() + this.o.getNumTargetsEvosuiteOverloaded()));
+			this.evosuiteNodesLoad.put(evosuiteServerRmiIdentifier, new EvosuiteNodeLoad(this.o.getNumTargetsEvosuitePerJob() + this.o.getNumTargetsEvosuiteOverloaded()));
+			slot.rmiIdentifier = evosuiteServerRmiIdentifier;
 			
-			//at least one EvoSuite server is ready: unlock spinlock
-			this.stopUntilFirstEvosuite = false;
+			//at least one EvoSuite server is ready: unlocks the constructor
+			this.firstEvosuiteReady.countDown();
 		} catch (NotBoundException e) {
 			LOGGER.error("Failed connection to Evosuite server with RMI identifier %s", evosuiteServerRmiIdentifier);
             LOGGER.error("Message: %s", e.toString());
@@ -388,18 +683,58 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
 		LOGGER.info("Connected to Evosuite process with RMI identifier %s", evosuiteServerRmiIdentifier);
 	}
     
-	@Override
-	public synchronized void generatedTest(String evosuiteServerRmiIdentifier, FitnessFunction<?> goal, String testFileName) throws RemoteException {
+	private void generatedTest(String evosuiteServerRmiIdentifier, FitnessFunction<?> goal, String testFileName) {
 		LOGGER.info("Evosuite server communicated new test %s for goal %s", testFileName, goal);
-		
+		//the bookkeeping is done here, the rest is done 
+		//asynchronously so the callback returns quickly
+		final boolean goalIsBranch = (goal instanceof BranchCoverageTestFitness);
+		final int testCount;
+		if (goalIsBranch) {
+			testCount = -1;
+		} else {
+			releaseCapacity(evosuiteServerRmiIdentifier);
+			final String[] testFileNameSplit = testFileName.split("_");
+			testCount = Integer.parseInt(testFileNameSplit[testFileNameSplit.length - 2]);
+			goalCompleted(evosuiteServerRmiIdentifier, testCount);
+		}
+		this.callbackEventsPending.incrementAndGet();
+		try {
+			this.callbackWorkers.execute(() -> {
+				try {
+					processGeneratedTest(testFileName, testCount);
+				} finally {
+					this.callbackEventsPending.decrementAndGet();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			this.callbackEventsPending.decrementAndGet();
+			LOGGER.info("Performer stopped, test %s ignored", testFileName);
+		}
+	}
+	
+	/**
+	 * Processes a test generated by some EvoSuite server: If it was
+	 * generated for a branch goal splits it, then compiles the test(s)
+	 * and schedules JBSE. 
+	 * 
+	 * @param testFileName a {@link String}, the name of the test file.
+	 * @param testCount an {@code int}, the number that identifies the 
+	 *        path condition goal for which the test was generated, or 
+	 *        a negative number if the test was generated for a branch goal.
+	 */
+	private void processGeneratedTest(String testFileName, int testCount) {
     	final List<Pair<JBSEResult, Integer>> items;
-		if (goal instanceof BranchCoverageTestFitness) {
+    	final boolean compiled;
+		if (testCount < 0) {
 			//the goal is a branch, i.e., no path condition:
 	    	//splits the test
     		final String targetClass = (this.o.getTargetClass() == null ? this.o.getTargetMethod().get(0) : this.o.getTargetClass());
     		final EvosuiteSplitter splitter = new EvosuiteSplitter(this.o, testFileName, targetClass, this.visibleTargetMethods, this.testCount);
 	    	try {
 	    		items = splitter.split();
+	    		
+	    		//possibly compiles all the split tests at once
+	    		compiled = (this.o.getEvosuiteSplitBatchCompilation() && !items.isEmpty() && compileSplitTests(splitter.splitFiles(), items.get(0).second()));
 	    	} catch (NoTestFileException e) {
 	    		LOGGER.error("Failed to split the test case %s: the generated test class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString());
 	    		return;
@@ -425,18 +760,15 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
 	    	}
 		} else {
 			//the goal is a path condition
-			final int old = this.evosuiteCapacityCounter.get(evosuiteServerRmiIdentifier);  
-			this.evosuiteCapacityCounter.put(evosuiteServerRmiIdentifier, Integer.valueOf(old + 1));
-			final String[] testFileNameSplit = testFileName.split("_");
-			final int testCount = Integer.parseInt(testFileNameSplit[testFileNameSplit.length - 2]);
 			final JBSEResult jbseResult = this.itemsMap.get(testCount);
 			items = Collections.singletonList(new Pair<>(jbseResult, testCount));
+			compiled = false;
 		}
 
     	//schedules JBSE
     	for (Pair<JBSEResult, Integer> item : items) {
     		try {
-    			checkTestCompileAndScheduleJBSE(item.second(), item.first());
+    			checkTestCompileAndScheduleJBSE(item.second(), item.first(), compiled);
     		} catch (NoTestFileException e) {
     			LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: the generated test class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
     			//continue
@@ -472,19 +804,70 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
     	}
 	}
 
-	@Override
-	public synchronized void dismissedFitnessGoal(String evosuiteServerRmiIdentifier, FitnessFunction<?> goal, int iteration, double fitnessValue, int[] updateIterations) throws RemoteException {
+	private void dismissedFitnessGoal(String evosuiteServerRmiIdentifier, FitnessFunction<?> goal, int iteration, double fitnessValue, int[] updateIterations) {
 		LOGGER.info("Evosuite server %s communicated dismissed goal %s, iteration is %d, fitness is %f, with updates at iterations %s", evosuiteServerRmiIdentifier, goal, iteration, fitnessValue, Arrays.toString(updateIterations));
-		final int old = this.evosuiteCapacityCounter.get(evosuiteServerRmiIdentifier);  
-		this.evosuiteCapacityCounter.put(evosuiteServerRmiIdentifier, Integer.valueOf(old + 1));
+		if (goal instanceof BranchCoverageTestFitness) {
+			//not one of the injected goals: as in generatedTest,
+			//no capacity is released and no goal is completed
+			return;
+		}
+		GOALS_DISMISSED.increment();
+		releaseCapacity(evosuiteServerRmiIdentifier);
+		final EvosuiteNodeLoad load = this.evosuiteNodesLoad.get(evosuiteServerRmiIdentifier);
+		final int testCount = (load == null ? -1 : load.goalInFlightMentionedBy(String.valueOf(goal)));
+		if (testCount < 0) {
+			LOGGER.warn("Unable to identify the path condition of the goal %s dismissed by Evosuite server %s, the goal will stay in flight until it becomes stale", goal, evosuiteServerRmiIdentifier);
+		}
+		goalCompleted(evosuiteServerRmiIdentifier, testCount);
+	}
+	
+	/**
+	 * Records that an EvoSuite server finished working on a goal,
+	 * either because it generated a test for it or because it 
+	 * dismissed it.
+	 * 
+	 * @param evosuiteServerRmiIdentifier a {@link String}, the RMI identifier
+	 *        of the EvoSuite RMI server instance.
+	 * @param testCount an {@code int}, the number that identifies the goal, 
+	 *        or a negative number if the goal is not known.
+	 */
+	private void goalCompleted(String evosuiteServerRmiIdentifier, int testCount) {
+		final EvosuiteNodeLoad load = this.evosuiteNodesLoad.get(evosuiteServerRmiIdentifier);
+		if (load != null) {
+			load.completed(testCount);
+		}
+	}
+	
+	/**
+	 * Gives back to an EvoSuite server the capacity for
+	 * one goal.
+	 * 
+	 * @param evosuiteServerRmiIdentifier a {@link String}, the RMI identifier
+	 *        of the EvoSuite RMI server instance.
+	 */
+	private void releaseCapacity(String evosuiteServerRmiIdentifier) {
+		final AtomicInteger capacity = this.evosuiteCapacityCounter.get(evosuiteServerRmiIdentifier);
+		if (capacity != null) {
+			capacity.incrementAndGet();
+		}
 	}
 	
 
-	@Override
-	public synchronized void evosuiteServerShutdown(String evosuiteServerRmiIdentifier) throws RemoteException {
-		LOGGER.info("Evosuite server %s communicated shutdown", evosuiteServerRmiIdentifier);
+	/**
+	 * Invoked when the EvoSuite server of the process in a slot
+	 * shuts down in an orderly way (e.g., because its search 
+	 * budget is exhausted), so the process is not respawned.
+	 * 
+	 * @param slot the {@link EvosuiteProcessSlot} of the server.
+	 * @param evosuiteServerRmiIdentifier a {@link String}, the RMI identifier
+	 *        of the EvoSuite RMI server instance.
+	 */
+	private synchronized void evosuiteServerShutdown(EvosuiteProcessSlot slot, String evosuiteServerRmiIdentifier) {
+		LOGGER.info("Evosuite server %s of process %d communicated shutdown", evosuiteServerRmiIdentifier, slot.index);
+		slot.shutDown = true;
 		this.evosuiteNodes.remove(evosuiteServerRmiIdentifier);
-		this.evosuiteCapacityCounter.put(evosuiteServerRmiIdentifier, Integer.valueOf(this.o.getNumTargetsEvosuitePerJob() + this.o.getNumTargetsEvosuiteOverloaded()));
+		this.evosuiteNodesLoad.remove(evosuiteServerRmiIdentifier);
+		this.evosuiteCapacityCounter.remove(evosuiteServerRmiIdentifier);
 		if (this.evosuiteNodes.isEmpty()) {
 			LOGGER.info("All Evosuite servers down");
 			releaseAllPreallocatedWorkers();
@@ -493,6 +876,47 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
 		}
 	}
 
+    /**
+     * Compiles the test and scaffolding classes obtained by
+     * splitting an EvoSuite test class with a single invocation 
+     * of javac.
+     * 
+     * @param splitFiles a {@link List}{@code <}{@link Path}{@code >}, 
+     *        the source files of the split classes.
+     * @param testCount an {@code int}, the number that identifies 
+     *        the first split test (used to name the compilation
+     *        log file).
+     * @return {@code true} iff the compilation succeeded. Otherwise
+     *         the split classes must be compiled one by one, so a 
+     *         single failing class does not prevent the others from
+     *         being scheduled.
+     */
+    private boolean compileSplitTests(List<Path> splitFiles, int testCount) {
+        if (splitFiles.isEmpty()) {
+            return false;
+        }
+        final Path javacLogFilePath = this.o.getTmpTestsDirectoryPath().resolve("javac-log-split-" +  testCount + ".txt");
+        final ArrayList<String> javacParameters = new ArrayList<>();
+        javacParameters.add("-cp");
+        javacParameters.add(this.classpathCompilationTest);
+        javacParameters.add("-d");
+        javacParameters.add(this.o.getTmpBinDirectoryPath().toString());
+        for (Path splitFile : splitFiles) {
+            javacParameters.add(splitFile.toString());
+        }
+        try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
+            return (this.compiler.run(null, w, w, javacParameters.toArray(new String[0])) == 0);
+        } catch (IOException e) {
+            LOGGER.error("Unexpected I/O error while creating split test cases compilation log file %s", javacLogFilePath.toAbsolutePath().toString());
+            LOGGER.error("Message: %s", e.toString());
+            LOGGER.error("Stack trace:");
+            for (StackTraceElement elem : e.getStackTrace()) {
+                LOGGER.error("%s", elem.toString());
+            }
+            return false;
+        }
+    }
+
     /**
      * Checks whether EvoSuite emitted a well-formed test class, and in the
      * positive case compiles the generated test and schedules JBSE for its
@@ -502,6 +926,8 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
      *        the generated test.
      * @param item a {@link JBSEResult}, the result of the symbolic execution
      *        from which the test was generated.
+     * @param compiled a {@code boolean}, {@code true} iff the test (and its
+     *        scaffolding) were already compiled.
      * @throws NoTestFileException if the test file does not exist.
      * @throws NoTestFileScaffoldingException if the scaffolding file does not exist. 
      * @throws NoTestMethodException if the test method does not exist in the test class.
@@ -510,7 +936,7 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
      * @throws CompilationFailedTestScaffoldingException if the compilation of the scaffolding class fails.
      * @throws ClassFileAccessException if the test class is not accessible.
      */
-    private void checkTestCompileAndScheduleJBSE(int testCount, JBSEResult item) 
+    private void checkTestCompileAndScheduleJBSE(int testCount, JBSEResult item, boolean compiled) 
     throws NoTestFileException, NoTestFileScaffoldingException, NoTestMethodException, IOFileCreationException, 
     CompilationFailedTestException, CompilationFailedTestScaffoldingException, ClassFileAccessException {
         //checks if EvoSuite generated the files
@@ -524,23 +950,27 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
             throw new NoTestFileScaffoldingException(testCaseScaff);
         }
 
-        //compiles the generated test
-        final Path javacLogFilePath = this.o.getTmpTestsDirectoryPath().resolve("javac-log-test-" +  testCount + ".txt");
-        final String[] javacParametersTestCase = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCase.toString() };
-        try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
-            if (testCaseScaff != null) {
-                final String[] javacParametersTestScaff = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCaseScaff.toString() };
-                final int successTestCaseScaff = this.compiler.run(null, w, w, javacParametersTestScaff);
-                if (successTestCaseScaff != 0) {
-                    throw new CompilationFailedTestScaffoldingException(testCaseScaff);
+        //compiles the generated test (unless already compiled)
+        if (!compiled) {
+            final Path javacLogFilePath = this.o.getTmpTestsDirectoryPath().resolve("javac-log-test-" +  testCount + ".txt");
+            final String[] javacParametersTestCase = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCase.toString() };
+            final long startJavac = System.nanoTime();
+            try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
+                if (testCaseScaff != null) {
+                    final String[] javacParametersTestScaff = { "-cp", this.classpathCompilationTest, "-d", this.o.getTmpBinDirectoryPath().toString(), testCaseScaff.toString() };
+                    final int successTestCaseScaff = this.compiler.run(null, w, w, javacParametersTestScaff);
+                    if (successTestCaseScaff != 0) {
+                        throw new CompilationFailedTestScaffoldingException(testCaseScaff);
+                    }
                 }
+                final int successTestCase = this.compiler.run(null, w, w, javacParametersTestCase);
+                TIME_JAVAC_TEST.updateMillisSince(startJavac);
+                if (successTestCase != 0) {
+                    throw new CompilationFailedTestException(testCase);
+                }
+            } catch (IOException e) {
+                throw new IOFileCreationException(e, javacLogFilePath);
             }
-            final int successTestCase = this.compiler.run(null, w, w, javacParametersTestCase);
-            if (successTestCase != 0) {
-                throw new CompilationFailedTestException(testCase);
-            }
-        } catch (IOException e) {
-            throw new IOFileCreationException(e, javacLogFilePath);
         }
 
         //creates the TestCase and schedules it for further exploration
@@ -549,7 +979,8 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
             final int depth = item.getDepth();
             LOGGER.info("Generated test case %s, depth: %d, post-frontier path condition: %s:%s", testCaseClassName, depth, item.getTargetMethodSignature(), stringifyPostFrontierPathCondition(item));
             final TestCase newTestCase = new TestCase(testCaseClassName, "()V", "test0", this.o.getTmpTestsDirectoryPath(), (testCaseScaff != null));
-            getOutputBuffer().add(new EvosuiteResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), item.getPathConditionMangled(), newTestCase, depth + 1));
+            getOutputBuffer().add(new EvosuiteResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), item.getPathConditionMangled(), item.getTargetBranch(), newTestCase, depth + 1));
+            GOALS_SOLVED.increment();
         
             /*if (item.getPathConditionGenerated() == null && !item.isSeed()) {
             	if (this.performerPauseStart == 0) {
@@ -609,12 +1040,23 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
     	final ArrayList<Pair<JBSEResult, Integer>> compiled = new ArrayList<>();
         for (JBSEResult item : items) {
             final int testCount = this.testCount.getAndIncrement();
+            
+            //generates directly the test if the path condition 
+            //is simple, without bothering EvoSuite
+            if (this.directTestGenerator != null && !item.isSeed()) {
+            	final EvosuiteResult result = this.directTestGenerator.generateTest(testCount, item);
+            	if (result != null) {
+            		getOutputBuffer().add(result);
+            		continue;
+            	}
+            }
+            
             try {
             	//emits and compiles the wrapper
             	if (item.isSeed()) {
             		emitAndCompileEvoSuiteWrapperSeed(testCount, item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName());
             	} else {
-            		emitAndCompileEvoSuiteWrapper(testCount, item.getInitialState(), item.getPostFrontierState(), item.getStringLiterals(), item.getStringOthers(), item.getForbiddenExpansions());
+            		emitAndCompileEvoSuiteWrapper(testCount, item.getWrapperSource());
             	}
             	
             	//if emitting the wrapper had success, adds the item to
@@ -668,19 +1110,13 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
     	try {
     	//makes a wrapper for the "true" path condition corresponding to the 
     	//entry point of the method
-        final Classpath cp = new Classpath(this.o.getJBSELibraryPath(),
-                                           Paths.get(System.getProperty("java.home", "")), 
-                                           new ArrayList<>(Arrays.stream(System.getProperty("java.ext.dirs", "").split(File.pathSeparator))
-                                           .map(s -> Paths.get(s)).collect(Collectors.toList())), 
-                                           this.o.getClassesPath());
-        final State initialState = new State(true, HistoryPoint.startingPreInitial(true), 1_000, 100_000, cp, ClassFileFactoryJavassist.class, 
-                                             new HashMap<>(), new HashMap<>(), new SymbolFactory());
+        final State initialState = this.preInitialStateFactory.make(targetMethodClassName);
         final ClassFile cf = initialState.getClassHierarchy().loadCreateClass(CLASSLOADER_APP, targetMethodClassName, true);
         initialState.pushFrameSymbolic(cf, new Signature(targetMethodClassName, targetMethodDescriptor, targetMethodName));
         final State finalState = initialState.clone();
         final Map<Long, String> stringLiterals = Collections.emptyMap();
         final Set<Long> stringOthers = Collections.emptySet();
-        emitAndCompileEvoSuiteWrapper(testCount, initialState, finalState, stringLiterals, stringOthers, null);
+        emitAndCompileEvoSuiteWrapper(testCount, WrapperSource.format(initialState, finalState, stringLiterals, stringOthers, null));
     	} catch (IOException | InvalidClassFileFactoryClassException | InvalidInputException | ClassFileNotFoundException |
     	        ClassFileIllFormedException | ClassFileNotAccessibleException | IncompatibleClassFileException |
     	        PleaseLoadClassException | BadClassFileVersionException | RenameUnsupportedException | WrongClassNameException |
@@ -690,67 +1126,35 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
     }
     
     /**
-     * Emits and compiles the EvoSuite wrapper for the path condition of some state.
+     * Emits and compiles the EvoSuite wrapper for a path condition.
      * 
      * @param testCount an {@code int}, the number used to identify the test.
-     * @param initialState a {@link State}; must be the initial state in the execution 
-     *        for which we want to generate the wrapper.
-     * @param finalState a {@link State}; must be the final state in the execution 
-     *        for which we want to generate the wrapper.
-     * @param stringLiterals a {@link Map}{@code <}{@link Long}{@code , }{@link String}{@code >}, 
-     *        mapping a heap position of a {@link String} literal to the
-     *        corresponding value of the literal.
-     * @param stringOthers a {@link List}{@code <}{@link Long}{@code >}, 
-     *        listing the heap positions of the nonconstant {@link String}s.
+     * @param wrapperSource the {@link WrapperSource} of the wrapper.
      * @throws IOFileCreationException if some I/O error occurs while creating the wrapper, the directory 
      *         that must contain it, or the compilation log file.
      * @throws CompilationFailedWrapperException if the compilation of the wrapper class fails.
-     * @throws UnexpectedJBSELibFailureException if some exception was raised while using the
-     *         JBSE library to create the wrapper.
      */
-    private void emitAndCompileEvoSuiteWrapper(int testCount, State initialState, State finalState, Map<Long, String> stringLiterals, Set<Long> stringOthers, Set<String> forbiddenExpansions) 
-    throws IOFileCreationException, CompilationFailedWrapperException, UnexpectedJBSELibFailureException {
-    	final String initialCurrentClassPackageName;
-    	try {
-    		final String initialCurrentClassName = initialState.getStack().get(0).getMethodClass().getClassName();
-    		final int lastSlash = initialCurrentClassName.lastIndexOf('/');
-    		initialCurrentClassPackageName = (lastSlash == -1 ? "" : initialCurrentClassName.substring(0, lastSlash));
-        } catch (FrozenStateException e) {
-        	throw new UnexpectedJBSELibFailureException(e);
-        }
-        
-        final StateFormatterSushiPathCondition fmt = new StateFormatterSushiPathCondition(initialCurrentClassPackageName, testCount, () -> initialState, true);
-        fmt.setStringConstants(stringLiterals);
-        fmt.setStringNonconstants(stringOthers);
-        if (forbiddenExpansions != null) {
-        	fmt.setForbiddenExpansions(forbiddenExpansions);
+    private void emitAndCompileEvoSuiteWrapper(int testCount, WrapperSource wrapperSource) 
+    throws IOFileCreationException, CompilationFailedWrapperException {
+        final Path wrapperDirectoryPath = this.o.getTmpWrappersDirectoryPath().resolve(wrapperSource.getPackageName());
+        try {
+            Files.createDirectories(wrapperDirectoryPath);
+        } catch (IOException e) {
+            throw new IOFileCreationException(e, wrapperDirectoryPath);
         }
-        fmt.formatPrologue();
-        fmt.formatState(finalState);
-        fmt.formatEpilogue();
-        
-        final Path wrapperFilePath;
-        try { 
-            final Path wrapperDirectoryPath = this.o.getTmpWrappersDirectoryPath().resolve(initialCurrentClassPackageName);
-            try {
-                Files.createDirectories(wrapperDirectoryPath);
-            } catch (IOException e) {
-                throw new IOFileCreationException(e, wrapperDirectoryPath);
-            }
-            wrapperFilePath = wrapperDirectoryPath.resolve("PathConditionEvaluator_" + testCount + ".java");
-            try (final BufferedWriter w = Files.newBufferedWriter(wrapperFilePath)) {
-                w.write(fmt.emit());
-            } catch (IOException e) {
-                throw new IOFileCreationException(e, wrapperFilePath);
-            }
-        } finally {
-            fmt.cleanup();
+        final Path wrapperFilePath = wrapperDirectoryPath.resolve("PathConditionEvaluator_" + testCount + ".java");
+        try (final BufferedWriter w = Files.newBufferedWriter(wrapperFilePath)) {
+            w.write(wrapperSource.emit(testCount));
+        } catch (IOException e) {
+            throw new IOFileCreationException(e, wrapperFilePath);
         }
 
         final Path javacLogFilePath = this.o.getTmpDirectoryPath().resolve("javac-log-wrapper-" + testCount + ".txt");
         final String[] javacParameters = { "-cp", this.classpathCompilationWrapper, "-d", this.o.getTmpBinDirectoryPath().toString(), "-source", "8", "-target", "8", wrapperFilePath.toString() };
+        final long startJavac = System.nanoTime();
         try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
             final int success = this.compiler.run(null, w, w, javacParameters);
+            TIME_JAVAC_WRAPPER.updateMillisSince(startJavac);
             if (success != 0) {
                 throw new CompilationFailedWrapperException(wrapperFilePath);
             }
@@ -760,43 +1164,236 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
     }
     
     /**
-     * Selects an instance of EvoSuite and runs it on a set of {@link JBSEResult}s for which 
-     * the wrappers are available. 
+     * Splits a set of {@link JBSEResult}s, for which the wrappers are available, 
+     * between the instances of EvoSuite. Each goal is preferably allocated to an
+     * instance that is already evolving goals for the same target method, 
+     * and whose goals have path conditions with a long common prefix with the goal's 
+     * one, so related goals may share the same population. Ties are broken in 
+     * favor of the instances with more residual capacity, weighted by the 
+     * rate at which they complete their goals.
      * 
      * @param items a {@link List}{@code <}{@link Pair}{@code <}{@link JBSEResult}{@code , }{@link Integer}{@code >>}.
      *        where each {@link JBSEResult} is the result of symbolic execution and its paired {@link Integer} is the
      *        identifier of the corresponding test case (if it will be generated).
-     * @return 
+     * @return a {@link Map}{@code <}{@link String}{@code , }{@link List}{@code <}{@link Pair}{@code <}{@link JBSEResult}{@code , }{@link Integer}{@code >>>}
+     *         mapping the RMI identifier of an EvoSuite instance to the items allocated to it. 
+     *         It is empty if {@code items} is empty or no EvoSuite instance is available.
      */
-    private synchronized String allocateGoalsToSomeEvosuite(List<Pair<JBSEResult, Integer>> items) {
+    private synchronized Map<String, List<Pair<JBSEResult, Integer>>> allocateGoalsToSomeEvosuite(List<Pair<JBSEResult, Integer>> items) {
+    	final LinkedHashMap<String, List<Pair<JBSEResult, Integer>>> retVal = new LinkedHashMap<>();
     	if (items.size() == 0) {
-    		return null;
+    		return retVal;
+    	}
+    	
+    	//calculates the mean completion rate of the live EvoSuite instances
+    	final long now = System.currentTimeMillis();
+    	double rateSum = 0.0d;
+    	int rateCount = 0;
+    	for (String key : this.evosuiteNodes.keySet()) {
+    		final EvosuiteNodeLoad load = this.evosuiteNodesLoad.get(key);
+    		if (load != null && load.hasCompletionRate()) {
+    			rateSum += load.completionRate(now);
+    			++rateCount;
+    		}
     	}
+    	final double rateMean = (rateCount == 0 ? 0.0d : rateSum / rateCount);
 
     	//splits items between the EvoSuite instances, until all targets in items 
     	//have been assigned to some EvoSuite
-    	//TODO
-    	Map.Entry<String, Integer> eBest = null;
-    	int eBestAvailability = 0;
-    	for (Map.Entry<String, Integer> e : this.evosuiteCapacityCounter.entrySet()) {
-    		if (this.evosuiteNodes.containsKey(e.getKey())) {
-    			final int eAvailability = e.getValue();
-    			if (eBest == null || eAvailability > eBest.getValue()) {
-    				eBest = e;
-    				eBestAvailability = eAvailability;
+    	for (Pair<JBSEResult, Integer> item : items) {
+    		String keyBest = null;
+    		double scoreBest = 0.0d;
+    		boolean hasCapacityBest = false;
+    		for (Map.Entry<String, AtomicInteger> e : this.evosuiteCapacityCounter.entrySet()) {
+    			final String key = e.getKey();
+    			final EvosuiteNodeLoad load = this.evosuiteNodesLoad.get(key);
+    			if (!this.evosuiteNodes.containsKey(key) || load == null) {
+    				continue;
+    			}
+    			final int availability = e.getValue().get();
+    			final boolean hasCapacity = (availability > 0);
+    			
+    			//a server with residual capacity always wins over an overloaded one
+    			if (keyBest != null && hasCapacityBest && !hasCapacity) {
+    				continue;
+    			}
+    			
+    			//residual capacity, weighted by completion rate relative to the mean
+    			final double rateRelative = (rateMean == 0.0d || !load.hasCompletionRate() ? 1.0d : load.completionRate(now) / rateMean);
+    			double score = ((double) availability / load.capacity) * rateRelative;
+    			
+    			//locality
+    			if (hasCapacity) {
+    				score += load.locality(item.first());
     			}
+    			
+    			if (keyBest == null || (hasCapacity && !hasCapacityBest) || score > scoreBest) {
+    				keyBest = key;
+    				scoreBest = score;
+    				hasCapacityBest = hasCapacity;
+    			}
+    		}
+
+    		if (keyBest == null) {
+    			LOGGER.error("Failed sending new goal to Evosuite: Failed search of Evosuite instance with best availability");
+    			return retVal;
+    		}
+    		
+    		//allocates the item
+    		this.evosuiteCapacityCounter.get(keyBest).decrementAndGet();
+    		this.evosuiteNodesLoad.get(keyBest).allocated(item);
+    		List<Pair<JBSEResult, Integer>> itemsBest = retVal.get(keyBest);
+    		if (itemsBest == null) {
+    			itemsBest = new ArrayList<>();
+    			retVal.put(keyBest, itemsBest);
     		}
+    		itemsBest.add(item);
     	}
     	
-    	//all failed: sends to the less overloaded EvoSuite
-    	if (eBest == null) {
-    		LOGGER.error("Failed sending new goal to Evosuite: Failed search of Evosuite instance with best availability");
-    		return null;
-    	}   
-		eBest.setValue(Integer.valueOf(eBestAvailability - items.size()));
-		return eBest.getKey();
+		return retVal;
     }
     
+    /**
+     * Keeps track of the goals an EvoSuite instance is working on, 
+     * and of the rate at which it completes them.
+     * 
+     * @author Pietro Braione
+     */
+    private static final class EvosuiteNodeLoad {
+    	/** The maximum number of goals the instance should evolve at once. */
+    	private final int capacity;
+    	
+    	/** 
+    	 * The goals allocated to the instance and not yet completed, 
+    	 * from the oldest to the newest, bounded by {@link #capacity}.
+    	 */
+    	private final LinkedHashMap<Integer, JBSEResult> goalsInFlight;
+    	
+    	/** The time (in milliseconds) the instance became ready. */
+    	private final long startTime;
+    	
+    	/** The number of goals completed (covered or dismissed). */
+    	private int completed = 0;
+    	
+    	EvosuiteNodeLoad(int capacity) {
+    		this.capacity = Math.max(1, capacity);
+    		this.goalsInFlight = new LinkedHashMap<Integer, JBSEResult>() {
+				private static final long serialVersionUID = -3409187521637458128L;
+
+				@Override
+    			protected boolean removeEldestEntry(Map.Entry<Integer, JBSEResult> eldest) {
+    				//goals in excess of the capacity are stale
+    				return size() > EvosuiteNodeLoad.this.capacity;
+    			}
+    		};
+    		this.startTime = System.currentTimeMillis();
+    	}
+    	
+    	synchronized void allocated(Pair<JBSEResult, Integer> item) {
+    		this.goalsInFlight.put(item.second(), item.first());
+    	}
+    	
+    	synchronized void completed(int testCount) {
+    		++this.completed;
+    		if (testCount >= 0) {
+    			this.goalsInFlight.remove(testCount);
+    		}
+    	}
+    	
+    	/**
+    	 * Finds the goal in flight a goal description refers to.
+    	 * The wrapper of every goal in flight was named after its 
+    	 * number when the goal was allocated, so the description 
+    	 * is matched only against the wrapper names of the goals 
+    	 * in flight.
+    	 * 
+    	 * @param goalDescription a {@link String}, the description
+    	 *        of a goal by the EvoSuite server.
+    	 * @return an {@code int}, the number of the only goal in flight
+    	 *         whose wrapper is mentioned by {@code goalDescription}, 
+    	 *         or {@code -1} if there is no such goal or it is not 
+    	 *         unique.
+    	 */
+    	synchronized int goalInFlightMentionedBy(String goalDescription) {
+    		int retVal = -1;
+    		for (int testCount : this.goalsInFlight.keySet()) {
+    			if (mentionsWrapper(goalDescription, "EvoSuiteWrapper_" + testCount)) {
+    				if (retVal >= 0) {
+    					return -1; //ambiguous
+    				}
+    				retVal = testCount;
+    			}
+    		}
+    		return retVal;
+    	}
+    	
+    	private static boolean mentionsWrapper(String goalDescription, String wrapperName) {
+    		for (int i = goalDescription.indexOf(wrapperName); i >= 0; i = goalDescription.indexOf(wrapperName, i + 1)) {
+    			final int end = i + wrapperName.length();
+    			//EvoSuiteWrapper_1 must not match EvoSuiteWrapper_12
+    			if (end == goalDescription.length() || !Character.isDigit(goalDescription.charAt(end))) {
+    				return true;
+    			}
+    		}
+    		return false;
+    	}
+    	
+    	synchronized List<Pair<JBSEResult, Integer>> goalsInFlight() {
+    		final ArrayList<Pair<JBSEResult, Integer>> retVal = new ArrayList<>();
+    		for (Map.Entry<Integer, JBSEResult> e : this.goalsInFlight.entrySet()) {
+    			retVal.add(new Pair<>(e.getValue(), e.getKey()));
+    		}
+    		return retVal;
+    	}
+    	
+    	synchronized boolean hasCompletionRate() {
+    		return this.completed > 0;
+    	}
+    	
+    	synchronized double completionRate(long now) {
+    		return ((double) this.completed) / Math.max(1L, now - this.startTime);
+    	}
+    	
+    	/**
+    	 * Calculates how much an item is related to the
+    	 * goals in flight.
+    	 * 
+    	 * @param item a {@link JBSEResult}.
+    	 * @return a nonnegative {@code double}, that is zero if 
+    	 *         no goal in flight has the same target method 
+    	 *         of {@code item}, and otherwise grows with the 
+    	 *         longest common prefix of the path condition of
+    	 *         {@code item} and of the path conditions of the
+    	 *         goals in flight.
+    	 */
+    	synchronized double locality(JBSEResult item) {
+    		final String itemSignature = item.getTargetMethodSignature();
+    		final List<Clause> itemPathCondition = item.getPathConditionMangled();
+    		boolean sameMethod = false;
+    		int longestPrefix = 0;
+    		for (JBSEResult goal : this.goalsInFlight.values()) {
+    			if (!itemSignature.equals(goal.getTargetMethodSignature())) {
+    				continue;
+    			}
+    			sameMethod = true;
+    			final List<Clause> goalPathCondition = goal.getPathConditionMangled();
+    			if (itemPathCondition == null || goalPathCondition == null) {
+    				continue;
+    			}
+    			final int maxPrefix = Math.min(itemPathCondition.size(), goalPathCondition.size());
+    			int prefix = 0;
+    			while (prefix < maxPrefix && itemPathCondition.get(prefix).equals(goalPathCondition.get(prefix))) {
+    				++prefix;
+    			}
+    			longestPrefix = Math.max(longestPrefix, prefix);
+    		}
+    		if (!sameMethod) {
+    			return 0.0d;
+    		}
+    		final double prefixFraction = (itemPathCondition == null || itemPathCondition.size() == 0 ? 0.0d : ((double) longestPrefix) / itemPathCondition.size()); 
+    		return LOCALITY_SAME_METHOD_BONUS + LOCALITY_PREFIX_BONUS * prefixFraction;
+    	}
+    }
     
     /**
      * Runs an instance of EvoSuite on a set of {@link JBSEResult}s for which 
@@ -809,8 +1406,15 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
      *        identifier of the corresponding test case (if it will be generated).
      */
     private void sendGoalsToEvosuite(String evosuiteServerRmiIdentifier, List<Pair<JBSEResult, Integer>> items) {
+		final EvosuiteRemote evosuiteRemote = this.evosuiteNodes.get(evosuiteServerRmiIdentifier);
+		if (evosuiteRemote == null) {
+			//evicted in the meantime
+			synchronized (this) {
+				this.goalsOrphan.addAll(items);
+			}
+			return;
+		}
     	try {
-    		final EvosuiteRemote evosuiteRemote = this.evosuiteNodes.get(evosuiteServerRmiIdentifier);
     		for (Pair<JBSEResult, Integer> item : items) {
         		final JBSEResult aJBSEResult = item.first();
         		final String targetClass = aJBSEResult.getTargetMethodClassName().replace('/', '.');
@@ -829,6 +1433,111 @@ public final class PerformerEvosuiteRMI extends PerformerMultiServer<JBSEResult,
     		for (StackTraceElement elem : e.getStackTrace()) {
     			LOGGER.error("%s", elem.toString());
     		}
+    		
+    		//the server is unreachable: evicts it, so its 
+    		//goals will be reassigned
+    		evictEvosuiteServer(evosuiteServerRmiIdentifier);
     	}
 	}
-}
\ No newline at end of file
+
+    /**
+     * A slot for an EvoSuite process, that keeps track of
+     * the process currently running in it and of its restarts.
+     * 
+     * @author Pietro Braione
+     */
+    private static final class EvosuiteProcessSlot {
+    	/** The index of the slot. */
+    	private final int index;
+    	
+    	/** The log file of the process currently in the slot. */
+    	private Path logFilePath;
+    	
+    	/** The process currently in the slot. */
+    	private Process process = null;
+    	
+    	/** How many times a process was respawned in the slot. */
+    	private int restarts = 0;
+    	
+    	/** The delay before the next respawn. */
+    	private long backoffMillis = RESPAWN_BACKOFF_INITIAL_MILLIS;
+    	
+    	/** 
+    	 * The time (in milliseconds) at which the process must 
+    	 * be respawned, or {@code 0L} if no respawn is pending.
+    	 */
+    	private long respawnTime = 0L;
+    	
+    	/** Set to {@code true} when no more processes must be launched in the slot. */
+    	private boolean retired = false;
+    	
+    	/** Set to {@code true} while a process is being launched in the slot. */
+    	private boolean launching = false;
+    	
+    	/** Set to {@code true} after the first launch in the slot. */
+    	private boolean everLaunched = false;
+    	
+    	/** 
+    	 * The RMI identifier of the EvoSuite server of the process 
+    	 * currently in the slot, or {@code null} if not yet known.
+    	 */
+    	private String rmiIdentifier = null;
+    	
+    	/** 
+    	 * Set to {@code true} when the EvoSuite server of the process
+    	 * currently in the slot communicates an orderly shutdown.
+    	 */
+    	private boolean shutDown = false;
+    	
+    	/** The RMI identifier of the listener of the slot. */
+    	private final String listenerRmiIdentifier;
+    	
+    	/** The listener the processes in the slot call back. */
+    	private final SlotListener listener;
+    	
+    	EvosuiteProcessSlot(PerformerEvosuiteRMI performer, int index, Path logFilePath) {
+    		this.index = index;
+    		this.logFilePath = logFilePath;
+    		this.listenerRmiIdentifier = TARDIS_RMI_IDENTIFIER + "_" + index;
+    		this.listener = new SlotListener(performer, this);
+    	}
+    }
+    
+    /**
+     * The {@link TestListenerRemote} of an {@link EvosuiteProcessSlot}. 
+     * Every slot has its own listener, bound to the RMI registry with
+     * its own identifier, so the callbacks of an EvoSuite server are 
+     * associated to the slot of its process.
+     * 
+     * @author Pietro Braione
+     */
+    private static final class SlotListener implements TestListenerRemote {
+    	private final PerformerEvosuiteRMI performer;
+    	private final EvosuiteProcessSlot slot;
+    	
+    	SlotListener(PerformerEvosuiteRMI performer, EvosuiteProcessSlot slot) {
+    		this.performer = performer;
+    		this.slot = slot;
+    	}
+
+    	@Override
+    	public void evosuiteServerReady(String evosuiteServerRmiIdentifier) throws RemoteException {
+    		this.performer.evosuiteServerReady(this.slot, evosuiteServerRmiIdentifier);
+    	}
+
+    	@Override
+    	public void generatedTest(String evosuiteServerRmiIdentifier, FitnessFunction<?> goal, String testFileName) throws RemoteException {
+    		this.performer.generatedTest(evosuiteServerRmiIdentifier, goal, testFileName);
+    	}
+
+    	@Override
+    	public void dismissedFitnessGoal(String evosuiteServerRmiIdentifier, FitnessFunction<?> goal, int iteration, double fitnessValue, int[] updateIterations) throws RemoteException {
+    		this.performer.dismissedFitnessGoal(evosuiteServerRmiIdentifier, goal, iteration, fitnessValue, updateIterations);
+    	}
+
+    	@Override
+    	public void evosuiteServerShutdown(String evosuiteServerRmiIdentifier) throws RemoteException {
+    		this.performer.evosuiteServerShutdown(this.slot, evosuiteServerRmiIdentifier);
+    	}
+    }
+}
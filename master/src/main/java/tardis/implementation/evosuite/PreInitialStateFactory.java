@@ -0,0 +1,81 @@
+package tardis.implementation.evosuite;
+
+import static jbse.bc.ClassLoaders.CLASSLOADER_APP;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import jbse.bc.ClassFileFactoryJavassist;
+import jbse.bc.exc.BadClassFileVersionException;
+import jbse.bc.exc.ClassFileIllFormedException;
+import jbse.bc.exc.ClassFileNotAccessibleException;
+import jbse.bc.exc.ClassFileNotFoundException;
+import jbse.bc.exc.IncompatibleClassFileException;
+import jbse.bc.exc.InvalidClassFileFactoryClassException;
+import jbse.bc.exc.PleaseLoadClassException;
+import jbse.bc.exc.RenameUnsupportedException;
+import jbse.bc.exc.WrongClassNameException;
+import jbse.common.exc.InvalidInputException;
+import jbse.mem.State;
+import jbse.val.HistoryPoint;
+import jbse.val.SymbolFactory;
+import tardis.Options;
+
+/**
+ * Creates the pre-initial {@link State}s from which the EvoSuite
+ * wrappers for the seed target methods are built. For each class
+ * a prototype {@link State}, where the class is already loaded,
+ * is built once, and the pre-initial states for the methods of
+ * the class are obtained by cloning it.
+ *
+ * @author Pietro Braione
+ */
+final class PreInitialStateFactory {
+    private final Options o;
+
+    /**
+     * Maps each class name to the prototype {@link State}
+     * where the class is loaded. Guarded by {@code this}.
+     */
+    private final HashMap<String, State> prototypes = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param o an {@link Options} object. It must not be {@code null}.
+     */
+    PreInitialStateFactory(Options o) {
+        this.o = o;
+    }
+
+    /**
+     * Makes a pre-initial {@link State} where a class is loaded.
+     *
+     * @param className a {@link String}, the name of the class.
+     * @return a fresh {@link State}, that the caller may freely
+     *         modify.
+     * @throws IOException
+     * @throws InvalidClassFileFactoryClassException
+     * @throws InvalidInputException
+     * @throws ClassFileNotFoundException
+     * @throws ClassFileIllFormedException
+     * @throws ClassFileNotAccessibleException
+     * @throws IncompatibleClassFileException
+     * @throws PleaseLoadClassException
+     * @throws BadClassFileVersionException
+     * @throws RenameUnsupportedException
+     * @throws WrongClassNameException
+     */
+    synchronized State make(String className)
+    throws IOException, InvalidClassFileFactoryClassException, InvalidInputException, ClassFileNotFoundException,
+    ClassFileIllFormedException, ClassFileNotAccessibleException, IncompatibleClassFileException,
+    PleaseLoadClassException, BadClassFileVersionException, RenameUnsupportedException, WrongClassNameException {
+        State prototype = this.prototypes.get(className);
+        if (prototype == null) {
+            prototype = new State(true, HistoryPoint.startingPreInitial(true), 1_000, 100_000, this.o.getClasspath(), ClassFileFactoryJavassist.class, new HashMap<>(), new HashMap<>(), new SymbolFactory());
+            prototype.getClassHierarchy().loadCreateClass(CLASSLOADER_APP, className, true);
+            this.prototypes.put(className, prototype);
+        }
+        return prototype.clone();
+    }
+}
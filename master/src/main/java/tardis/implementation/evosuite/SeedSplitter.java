@@ -13,7 +13,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
@@ -21,7 +23,6 @@ import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.MethodCallExpr;
@@ -31,7 +32,6 @@ import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.stmt.ExpressionStmt;
 import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
-import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.visitor.ModifierVisitor;
 import com.github.javaparser.ast.visitor.Visitable;
 
@@ -51,6 +51,7 @@ final class SeedSplitter {
 	private final int testCountInitial;
 	
 	private final HashSet<MethodDeclaration> generatedMethodDeclarations = new HashSet<>();
+	private final ArrayList<Path> splitFiles = new ArrayList<>();
 	
 	/**
 	 * Constructor.
@@ -106,7 +107,28 @@ final class SeedSplitter {
         final ArrayList<MethodDeclaration> testMethodDeclarations = 
         testMethodsInCompilationUnit(cuTestClass);
         
+        //builds the templates for the split classes: the prologue
+        //(package and imports) of the test class, the test class
+        //declaration without test methods, and (possibly) the
+        //prologue and the declaration of the scaffolding class;
+        //note that the scaffolding compilation unit is parsed
+        //once here, and not once for each split class
+        final String prologueTestClass = prologue(cuTestClass);
+        final ClassOrInterfaceDeclaration cdeclTestClassSkeleton = createSkeletonTestClass(cuTestClass);
+        final String prologueTestScaff;
+        final ClassOrInterfaceDeclaration cdeclTestScaff;
+        if (this.o.getEvosuiteNoDependency()) {
+        	prologueTestScaff = null;
+        	cdeclTestScaff = null;
+        } else {
+        	final CompilationUnit cuTestScaff = StaticJavaParser.parse(this.scaffFile);
+        	final String scaffClassName_Unqualified = unqualify(this.scaffClassName);
+        	prologueTestScaff = prologue(cuTestScaff);
+        	cdeclTestScaff = cuTestScaff.findFirst(ClassOrInterfaceDeclaration.class, cid -> cid.getName().asString().equals(scaffClassName_Unqualified)).get();
+        }
+        
         //generates all the split classes and the return value
+        final LinkedHashMap<Path, String> sources = new LinkedHashMap<>();
         final ArrayList<JBSEResult> retVal = new ArrayList<>();
         int testCount = this.testCountInitial;
         for (MethodDeclaration mdTest : testMethodDeclarations) {
@@ -141,27 +163,22 @@ final class SeedSplitter {
                 //creates the declaration for the test class, continues
                 //if it is redundant
                 final ClassOrInterfaceDeclaration cdeclTestClassNew = 
-                createDeclarationTestClass(testClassNameNew, mdTest, stmt);
+                createDeclarationTestClass(cdeclTestClassSkeleton, testClassNameNew, mdTest, stmt);
                 if (cdeclTestClassNew == null) {
                 	continue;
                 }
                 
-                //creates the compilation unit for the scaffolding, 
+                //creates the source for the scaffolding, 
                 //and possibly patches the declaration for the test class
-                final CompilationUnit cuTestScaffNew;
-                if (this.o.getEvosuiteNoDependency()) {
-                	cuTestScaffNew = null;
-                } else {
-                	cuTestScaffNew = createCompilationUnitScaffoldingClass(scaffClassNameNew);
+                if (!this.o.getEvosuiteNoDependency()) {
+                	final ClassOrInterfaceDeclaration cdeclTestScaffNew = 
+                	createDeclarationScaffoldingClass(cdeclTestScaff, scaffClassNameNew);
                 	patchCompilationUnitTestClassSuperclass(cdeclTestClassNew, scaffClassNameNew);
+                	sources.put(sourceFile(scaffClassNameNew), prologueTestScaff + cdeclTestScaffNew.toString());
                 }
 
-                //creates the compilation unit for the test class
-                final CompilationUnit cuTestClassNew = 
-                createCompilationUnitTestClass(cuTestClass, cdeclTestClassNew);
-
-                //writes the compilation units to files
-                writeCompilationUnits(testClassNameNew, cuTestClassNew, scaffClassNameNew, cuTestScaffNew);
+                //creates the source for the test class
+                sources.put(sourceFile(testClassNameNew), prologueTestClass + cdeclTestClassNew.toString());
                 
                 //creates the new item
                 final JBSEResult newItem = new JBSEResult(targetMethod);
@@ -171,9 +188,24 @@ final class SeedSplitter {
             }
         }
         
+        //writes all the split classes in one batch
+        writeSources(sources);
+        
         return retVal;
     }
     
+    /**
+     * Returns the source files written by the last 
+     * invocation of {@link #split()}.
+     * 
+     * @return a {@link List}{@code <}{@link Path}{@code >}, 
+     *         the paths of the test and scaffolding source 
+     *         files of all the created classes.
+     */
+    List<Path> splitFiles() {
+    	return Collections.unmodifiableList(this.splitFiles);
+    }
+    
     private void checkTestExistence() 
     throws NoTestFileException, NoTestFileScaffoldingException {
         if (!this.testFile.toFile().exists()) {
@@ -265,27 +297,35 @@ final class SeedSplitter {
         return targetMethod;
     }
     
-    private ClassOrInterfaceDeclaration createDeclarationTestClass(String testClassNameNew, MethodDeclaration mdTest, ExpressionStmt stmt) {
-        //creates a new test class declaration
-        final ClassOrInterfaceDeclaration cdeclTestClass = (ClassOrInterfaceDeclaration) mdTest.getParentNode().get();
+    private static String prologue(CompilationUnit cu) {
+    	//the prologue is the compilation unit without its 
+    	//type declarations, i.e., the package declaration 
+    	//and the imports
+    	final CompilationUnit cuPrologue = cu.clone();
+    	cuPrologue.setTypes(new NodeList<>());
+    	return cuPrologue.toString();
+    }
+    
+    private ClassOrInterfaceDeclaration createSkeletonTestClass(CompilationUnit cuTestClass) {
+        //clones the test class declaration and removes 
+        //all the test methods from the clone
+        final ClassOrInterfaceDeclaration cdeclTestClass = cuTestClass.findFirst(ClassOrInterfaceDeclaration.class, cid -> cid.getName().asString().equals(this.testClassName_Unqualified)).get();
         final ClassOrInterfaceDeclaration retVal = cdeclTestClass.clone();
-        
-        //detects the test method to preserve
-        final MethodDeclaration mdTestNew = 
-        retVal.getMethodsBySignature(mdTest.getNameAsString(), mdTest.getParameters().stream().map(Parameter::getType).map(Type::toString).toArray(String[]::new)).get(0);
-        
-        //removes all the other test methods
         final ArrayList<MethodDeclaration> toExpunge = new ArrayList<>();
         retVal.findAll(MethodDeclaration.class).forEach(md -> {
-            if (md.isAnnotationPresent("Test") && !md.equals(mdTestNew)) {
+            if (md.isAnnotationPresent("Test")) {
                 toExpunge.add(md);
             }
         });
         for (MethodDeclaration md : toExpunge) {
             retVal.remove(md);
         }
-        
-        //changes the name to the only test method
+        return retVal;
+    }
+    
+    private ClassOrInterfaceDeclaration createDeclarationTestClass(ClassOrInterfaceDeclaration cdeclTestClassSkeleton, String testClassNameNew, MethodDeclaration mdTest, ExpressionStmt stmt) {
+        //clones the test method and changes its name
+        final MethodDeclaration mdTestNew = mdTest.clone();
         mdTestNew.setName("test0");
         
         //removes all the statements after stmt
@@ -308,33 +348,27 @@ final class SeedSplitter {
         //method declarations
         this.generatedMethodDeclarations.add(mdTestNew);
         
-        //changes the name to the test class
+        //creates a new test class declaration from the skeleton, 
+        //adds the test method to it and changes its name
+        final ClassOrInterfaceDeclaration retVal = cdeclTestClassSkeleton.clone();
+        retVal.addMember(mdTestNew.clone());
         final String testClassNameNew_Unqualified = unqualify(testClassNameNew);
         retVal.setName(testClassNameNew_Unqualified);
         return retVal;
     }
     
-    private CompilationUnit createCompilationUnitTestClass(CompilationUnit cuTestClass, ClassOrInterfaceDeclaration cdeclTestClassNew) {
-        final CompilationUnit retVal = cuTestClass.clone();
-        final ClassOrInterfaceDeclaration cdeclTestClass = retVal.findFirst(ClassOrInterfaceDeclaration.class, cid -> cid.getName().asString().equals(this.testClassName_Unqualified)).get();
-        retVal.replace(cdeclTestClass, cdeclTestClassNew);
-        return retVal;
-    }
-    
-    private CompilationUnit createCompilationUnitScaffoldingClass(String scaffClassNameNew) throws IOException {
+    private ClassOrInterfaceDeclaration createDeclarationScaffoldingClass(ClassOrInterfaceDeclaration cdeclTestScaff, String scaffClassNameNew) {
     	final String scaffClassName_Unqualified = unqualify(this.scaffClassName);
     	final String scaffClassNameNew_Unqualified = unqualify(scaffClassNameNew);
     	
-    	//creates the compilation unit for the new scaffolding class
-    	final CompilationUnit cuTestScaffNew = StaticJavaParser.parse(this.scaffFile);
-    	final ClassOrInterfaceDeclaration scaffClassDeclarationNew = cuTestScaffNew.findFirst(ClassOrInterfaceDeclaration.class, cid ->  cid.getName().asString().equals(scaffClassName_Unqualified)).get();
-    	scaffClassDeclarationNew.setName(scaffClassNameNew_Unqualified);
-
-    	//fixes the initializeClasses method
+    	//clones the declaration of the scaffolding class
+    	//and renames it (this also fixes the initializeClasses 
+    	//method)
+    	final ClassOrInterfaceDeclaration retVal = cdeclTestScaff.clone();
     	final RenamerVisitor v = new RenamerVisitor(scaffClassName_Unqualified, scaffClassNameNew_Unqualified);
-    	cuTestScaffNew.accept(v, null);
-    	    	
-    	return cuTestScaffNew;
+    	retVal.accept(v, null);
+    	
+    	return retVal;
     }
     
     private void patchCompilationUnitTestClassSuperclass(ClassOrInterfaceDeclaration cdeclTestClassNew, String scaffClassNameNew) {
@@ -354,30 +388,31 @@ final class SeedSplitter {
     	cdeclTestClassNew.addExtendedType(scaffClassNameNew_Unqualified);
     }
     
-    private void writeCompilationUnits(String testClassNameNew, CompilationUnit cuTestClassNew, String scaffClassNameNew, CompilationUnit cuTestScaffNew) 
+    private Path sourceFile(String className) {
+    	return this.o.getTmpTestsDirectoryPath().resolve(className + ".java");
+    }
+    
+    private void writeSources(Map<Path, String> sources) 
     throws IOFileCreationException {
-        final Path testFileNew = this.o.getTmpTestsDirectoryPath().resolve(testClassNameNew + ".java");
-        try {
-            Files.createDirectories(testFileNew.getParent());
-        } catch (IOException e) {
-            throw new IOFileCreationException(e, testFileNew.getParent());
-        }
-        try (final BufferedWriter w = Files.newBufferedWriter(testFileNew)) {
-            w.write(cuTestClassNew.toString());
-        } catch (IOException e) {
-            throw new IOFileCreationException(e, testFileNew);
-        }
-        final Path scaffFileNew;
-        if (this.o.getEvosuiteNoDependency()) {
-            scaffFileNew = null; //nothing else to write
-        } else {
-            scaffFileNew = this.o.getTmpTestsDirectoryPath().resolve(scaffClassNameNew + ".java");
-            try (final BufferedWriter w = Files.newBufferedWriter(scaffFileNew)) {
-                w.write(cuTestScaffNew.toString());
-            } catch (IOException e) {
-                throw new IOFileCreationException(e, testFileNew);
-            }
-        }
+    	this.splitFiles.clear();
+    	if (sources.isEmpty()) {
+    		return; //nothing to write
+    	}
+    	final Path testsDirectory = this.o.getTmpTestsDirectoryPath();
+    	try {
+    		Files.createDirectories(testsDirectory);
+    	} catch (IOException e) {
+    		throw new IOFileCreationException(e, testsDirectory);
+    	}
+    	for (Map.Entry<Path, String> source : sources.entrySet()) {
+    		final Path sourceFile = source.getKey();
+    		try (final BufferedWriter w = Files.newBufferedWriter(sourceFile)) {
+    			w.write(source.getValue());
+    		} catch (IOException e) {
+    			throw new IOFileCreationException(e, sourceFile);
+    		}
+    		this.splitFiles.add(sourceFile);
+    	}
     }
     
     private static final class RenamerVisitor extends ModifierVisitor<Void> {
@@ -1,16 +1,24 @@
 package tardis.implementation.evosuite;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 import static tardis.implementation.common.Util.stringifyPostFrontierPathCondition;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,23 +30,56 @@ import tardis.implementation.data.JBSEResultInputOutputBuffer;
 import tardis.implementation.jbse.JBSEResult;
 
 /**
- * A {@link Runnable} that listens for the output produced by 
- * an instance of EvoSuite, and when this produces a test
- * schedules JBSE for its analysis.
+ * A {@link Runnable} that watches the tests directory while 
+ * an instance of EvoSuite runs, and when this emits a test
+ * schedules JBSE for its analysis. The standard output of 
+ * EvoSuite is not read, but is redirected by the operating 
+ * system to a log file; The emission of a test is detected 
+ * through the file system events on the test files, so the 
+ * cost of detection does not depend on the volume of the 
+ * EvoSuite log. A test is considered emitted when the size
+ * of its files does not change across two consecutive polls.
  * 
  * @author Pietro Braione
  */
 final class TestDetector implements Runnable {
     private static final Logger LOGGER = LogManager.getFormatterLogger(PerformerEvosuite.class);
-    private static final Pattern PATTERN_EMITTED_TEST = Pattern.compile("^.*\\* EMITTED TEST CASE .*_(\\d+)_Test, .*$");
+    private static final Pattern PATTERN_EMITTED_TEST_FILE = Pattern.compile("^.*_(\\d+)_Test(_scaffolding)?\\.java$");
+    
+    /**
+     * How long (in milliseconds) to wait between two polls of
+     * the test files, and between two checks that the EvoSuite 
+     * process is still alive.
+     */
+    private static final long PROCESS_CHECK_PERIOD_MILLIS = 1_000L;
+    
+    /**
+     * How many times the compilation of a test is attempted 
+     * while the EvoSuite process is alive. 
+     */
+    private static final int MAX_COMPILE_ATTEMPTS = 3;
+    
+    /**
+     * The status of a test whose files were seen, but that 
+     * was not yet scheduled.
+     * 
+     * @author Pietro Braione
+     */
+    private static final class PendingTest {
+    	/** The size of the test files at the last poll, or {@code -1L}. */
+    	long size = -1L;
+    	
+    	/** How many times the compilation of the test failed. */
+    	int compileAttempts = 0;
+    }
     
 	private final PerformerEvosuite performerEvosuite;
 	private final Options o;
     private final int testCountInitial;
     private final List<JBSEResult> items;
-    private final BufferedReader evosuiteBufferedReader;
+    private final Process evosuiteProcess;
     private final Path evosuiteLogFilePath;
-    private final BufferedWriter evosuiteLogFileWriter;
+    private final WatchService watchService;
     private final JBSEResultInputOutputBuffer in;
 
     /**
@@ -50,94 +91,113 @@ final class TestDetector implements Runnable {
      *        the generated tests. The test generated from {@code items.get(i)}
      *        will be numbered {@code testCountInitial + i}.
      * @param items a {@link List}{@code <}{@link JBSEResult}{@code >}, results of symbolic execution.
-     * @param evosuiteInputStream the {@link InputStream} connected to the stdout of the EvoSuite process.
+     * @param evosuiteProcess the EvoSuite {@link Process}. Its standard output
+     *        must be redirected to {@code evosuiteLogFilePath}.
      * @param evosuiteLogFilePath the {@link Path} of the EvoSuite log file.
      * @param in the {@link JBSEResultInputOutputBuffer} to instruct about the
      *        path conditions EvoSuite fails to solve.
-     * @throws IOException if opening a writer to the Evosuite log file fails.
+     * @throws IOException if creating the directories where EvoSuite emits
+     *         the tests, or watching them, fails.
      */
-    public TestDetector(PerformerEvosuite performerEvosuite, Options o, int testCountInitial, List<JBSEResult> items, InputStream evosuiteInputStream, Path evosuiteLogFilePath, JBSEResultInputOutputBuffer in) throws IOException {
+    public TestDetector(PerformerEvosuite performerEvosuite, Options o, int testCountInitial, List<JBSEResult> items, Process evosuiteProcess, Path evosuiteLogFilePath, JBSEResultInputOutputBuffer in) throws IOException {
     	this.performerEvosuite = performerEvosuite;
     	this.o = o;
     	this.testCountInitial = testCountInitial;
         this.items = items;
-        this.evosuiteBufferedReader = new BufferedReader(new InputStreamReader(evosuiteInputStream));
+        this.evosuiteProcess = evosuiteProcess;
         this.evosuiteLogFilePath = evosuiteLogFilePath;
-        this.evosuiteLogFileWriter = Files.newBufferedWriter(this.evosuiteLogFilePath);
         this.in = in;
+        
+        //watches the directories where the tests will be emitted
+        this.watchService = o.getTmpTestsDirectoryPath().getFileSystem().newWatchService();
+        final HashSet<Path> testDirectories = new HashSet<>();
+        for (JBSEResult item : items) {
+        	testDirectories.add(testFilePath(item, 0).getParent());
+        }
+        for (Path testDirectory : testDirectories) {
+        	Files.createDirectories(testDirectory);
+        	testDirectory.register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        }
+    }
+    
+    /**
+     * Returns the path of the file of a test.
+     * 
+     * @param item a {@link JBSEResult}, the item from which the test is generated.
+     * @param testCount an {@code int}, the number that identifies the test.
+     * @return a {@link Path}.
+     */
+    private Path testFilePath(JBSEResult item, int testCount) {
+    	return this.o.getTmpTestsDirectoryPath().resolve(item.getTargetMethodClassName() + "_" + testCount + "_Test.java");
     }
 
+    /**
+     * Returns the path of the file of a test scaffolding.
+     * 
+     * @param item a {@link JBSEResult}, the item from which the test is generated.
+     * @param testCount an {@code int}, the number that identifies the test.
+     * @return a {@link Path}.
+     */
+    private Path testScaffoldingFilePath(JBSEResult item, int testCount) {
+    	return this.o.getTmpTestsDirectoryPath().resolve(item.getTargetMethodClassName() + "_" + testCount + "_Test_scaffolding.java");
+    }
+    
 	@Override
     public void run() {
-        //reads/copies the standard input and detects the generated tests
+        //waits for the emission of the tests
         final HashSet<Integer> generated = new HashSet<>();
+        final HashSet<Integer> discarded = new HashSet<>();
+        final HashMap<Integer, PendingTest> pending = new HashMap<>();
         try {
-            String line;
-            while ((line = this.evosuiteBufferedReader.readLine()) != null) {
-                if (Thread.interrupted()) {
-                    //the performer was shut down
-                    break;
-                }
-                
-                //copies the line to the EvoSuite log file
-                this.evosuiteLogFileWriter.write(line);
-                this.evosuiteLogFileWriter.newLine();
-                
-                //check if the read line reports the emission of a test case
-                //and in the positive case schedule JBSE to analyze it
-                final Matcher matcherEmittedTest = PATTERN_EMITTED_TEST.matcher(line);
-                if (matcherEmittedTest.matches()) {
-                    final int testCount = Integer.parseInt(matcherEmittedTest.group(1));
-                    generated.add(testCount);
-                    final JBSEResult item = this.items.get(testCount - this.testCountInitial);
-                    try {
-                        this.performerEvosuite.checkTestCompileAndScheduleJBSE(testCount, item);
-                    } catch (NoTestFileException e) {
-                        LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: the generated test class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
-                        //continue
-                    } catch (NoTestFileScaffoldingException e) {
-                        LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: the generated scaffolding class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
-                        //continue
-                    } catch (NoTestMethodException e) {
-                        LOGGER.warn("Failed to generate the test case %s for post-frontier path condition %s:%s: the generated files does not contain a test method (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
-                        //continue
-                    } catch (CompilationFailedTestException e) {
-                        LOGGER.error("Internal error: EvoSuite test case %s compilation failed", e.file.toAbsolutePath().toString());
-                        //continue
-                    } catch (CompilationFailedTestScaffoldingException e) {
-                        LOGGER.error("Internal error: EvoSuite test case scaffolding %s compilation failed", e.file.toAbsolutePath().toString());
-                        //continue
-                    } catch (ClassFileAccessException e) {
-                        LOGGER.error("Unexpected error while verifying that class %s exists and has a test method", e.className);
-                        LOGGER.error("Message: %s", e.e.toString());
-                        LOGGER.error("Stack trace:");
-                        for (StackTraceElement elem : e.e.getStackTrace()) {
-                            LOGGER.error("%s", elem.toString());
-                        }
-                        //continue
-                    } catch (IOFileCreationException e) {
-                        LOGGER.error("Unexpected I/O error while creating test case compilation log file %s", e.file.toAbsolutePath().toString());
-                        LOGGER.error("Message: %s", e.e.toString());
-                        LOGGER.error("Stack trace:");
-                        for (StackTraceElement elem : e.e.getStackTrace()) {
-                            LOGGER.error("%s", elem.toString());
-                        }
-                        //continue
-                    }
-                }
-            }
-        } catch (IOException e) {
-            LOGGER.error("Unexpected I/O error while reading the standard output of an Evosuite process or writing on the corresponding log file %s", this.evosuiteLogFilePath.toString());
-            LOGGER.error("Message: %s", e.toString());
-            LOGGER.error("Stack trace:");
-            for (StackTraceElement elem : e.getStackTrace()) {
-                LOGGER.error("%s", elem.toString());
-            }
+        	long nextPoll = System.currentTimeMillis() + PROCESS_CHECK_PERIOD_MILLIS;
+        	while (this.evosuiteProcess.isAlive()) {
+        		final WatchKey key = this.watchService.poll(Math.max(1L, nextPoll - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        		if (key != null) {
+        			for (WatchEvent<?> event : key.pollEvents()) {
+        				if (event.kind() == OVERFLOW) {
+        					//some event was lost: polls all the tests
+        					for (int testCount = this.testCountInitial; testCount < this.testCountInitial + this.items.size(); ++testCount) {
+        						if (!generated.contains(testCount) && !discarded.contains(testCount)) {
+        							pending.putIfAbsent(testCount, new PendingTest());
+        						}
+        					}
+        					continue;
+        				}
+        				final Matcher matcherEmittedTest = PATTERN_EMITTED_TEST_FILE.matcher(event.context().toString());
+        				if (matcherEmittedTest.matches()) {
+        					final int testCount = Integer.parseInt(matcherEmittedTest.group(1));
+        					if (testCount >= this.testCountInitial && testCount < this.testCountInitial + this.items.size() &&
+        					!generated.contains(testCount) && !discarded.contains(testCount)) {
+        						pending.putIfAbsent(testCount, new PendingTest());
+        					}
+        				}
+        			}
+        			key.reset();
+        		}
+        		
+        		//polls the tests whose files were seen
+        		if (System.currentTimeMillis() >= nextPoll) {
+        			for (int testCount : new ArrayList<>(pending.keySet())) {
+        				possiblyScheduleJBSE(testCount, pending, generated, discarded, false);
+        			}
+        			nextPoll = System.currentTimeMillis() + PROCESS_CHECK_PERIOD_MILLIS;
+        		}
+        	}
+        	
+        	//the process ended, thus all the test files
+        	//are complete: checks all the remaining tests 
+        	for (int testCount = this.testCountInitial; testCount < this.testCountInitial + this.items.size(); ++testCount) {
+        		if (!generated.contains(testCount) && !discarded.contains(testCount)) {
+        			possiblyScheduleJBSE(testCount, pending, generated, discarded, true);
+        		}
+        	}
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+        	//the performer was shut down
         } finally {
             try {
-                this.evosuiteLogFileWriter.close();
+                this.watchService.close();
             } catch (IOException e) {
-                LOGGER.error("Unexpected I/O error while closing the Evosuite process log file %s", this.evosuiteLogFilePath.toString());
+                LOGGER.error("Unexpected I/O error while closing the watch service for the Evosuite process with log file %s", this.evosuiteLogFilePath.toString());
                 LOGGER.error("Message: %s", e.toString());
                 LOGGER.error("Stack trace:");
                 for (StackTraceElement elem : e.getStackTrace()) {
@@ -146,26 +206,121 @@ final class TestDetector implements Runnable {
             }
         }
 
-        //ended reading EvoSuite log file: determines the test that
+        //EvoSuite ended: determines the test that
         //were not generated
         int testCount = this.testCountInitial;
         for (JBSEResult item : this.items) {
-            if (!generated.contains(testCount)) {
+            if (!generated.contains(testCount) && !discarded.contains(testCount)) {
                 //logs the items whose test cases were not generated
                 LOGGER.info("Failed to generate a test case for post-frontier path condition %s:%s, log file: %s, wrapper: EvoSuiteWrapper_%d", item.getTargetMethodSignature(), stringifyPostFrontierPathCondition(item), this.evosuiteLogFilePath.toString(), testCount);
                 
                 //learns for update of indices
-                if (this.o.getUseIndexInfeasibility() && item.getPostFrontierState() != null) { //NB: item.getFinalState() == null for seed items when target is method
+                if (this.o.getUseIndexInfeasibility() && !item.isSeed()) {
                 	this.in.learnPathConditionForIndexInfeasibility(item.getTargetMethodSignature(), item.getPathConditionMangled(), false);
                 }
 
                 //TODO possibly lazier updates of index
-                if (this.o.getUseIndexInfeasibility() && item.getPostFrontierState() != null) {
+                if (this.o.getUseIndexInfeasibility() && !item.isSeed()) {
                 	this.in.updateIndexInfeasibilityAndReclassify();
                 }
             }
             ++testCount;
         }
     }
+    
+    /**
+     * Checks whether EvoSuite completed emitting a test, and in the positive
+     * case schedules JBSE for its exploration. While the EvoSuite process is
+     * alive, a test is completely emitted when the size of its files did not 
+     * change since the previous poll.
+     * 
+     * @param testCount an {@code int}, the number that identifies the test.
+     * @param pending the {@link Map}{@code <}{@link Integer}{@code , }{@link PendingTest}{@code >} 
+     *        of the tests that were not yet scheduled; it is updated with the status of the test.
+     * @param generated the {@link Set}{@code <}{@link Integer}{@code >} of the 
+     *        numbers of the tests successfully scheduled; it is updated if the test
+     *        is scheduled.
+     * @param discarded the {@link Set}{@code <}{@link Integer}{@code >} of the 
+     *        numbers of the tests that cannot be scheduled because EvoSuite emitted 
+     *        them wrong; it is updated if the test is discarded.
+     * @param processEnded a {@code boolean}, {@code true} iff the EvoSuite process
+     *        ended, and thus the test files are complete and this is the last attempt.
+     */
+    private void possiblyScheduleJBSE(int testCount, Map<Integer, PendingTest> pending, Set<Integer> generated, Set<Integer> discarded, boolean processEnded) {
+    	final JBSEResult item = this.items.get(testCount - this.testCountInitial);
+    	final PendingTest pendingTest = pending.computeIfAbsent(testCount, k -> new PendingTest());
+    	final long sizeTest = size(testFilePath(item, testCount));
+    	final long sizeScaffolding = (this.o.getEvosuiteNoDependency() ? 0L : size(testScaffoldingFilePath(item, testCount)));
+    	final long size = (sizeTest <= 0L || sizeScaffolding < 0L ? -1L : sizeTest + sizeScaffolding);
+    	if (size < 0L || (!processEnded && size != pendingTest.size)) {
+    		//not yet emitted, or still being written
+    		pendingTest.size = size;
+    		return;
+    	}
+    	try {
+    		this.performerEvosuite.checkTestCompileAndScheduleJBSE(testCount, item);
+    		generated.add(testCount);
+    		pending.remove(testCount);
+    		return;
+    	} catch (CompilationFailedTestException e) {
+    		if (!processEnded && ++pendingTest.compileAttempts < MAX_COMPILE_ATTEMPTS) {
+    			LOGGER.warn("EvoSuite test case %s compilation failed, will retry", e.file.toAbsolutePath().toString());
+    			pendingTest.size = -1L;
+    			return;
+    		}
+    		LOGGER.error("Internal error: EvoSuite test case %s compilation failed", e.file.toAbsolutePath().toString());
+    	} catch (CompilationFailedTestScaffoldingException e) {
+    		if (!processEnded && ++pendingTest.compileAttempts < MAX_COMPILE_ATTEMPTS) {
+    			LOGGER.warn("EvoSuite test case scaffolding %s compilation failed, will retry", e.file.toAbsolutePath().toString());
+    			pendingTest.size = -1L;
+    			return;
+    		}
+    		LOGGER.error("Internal error: EvoSuite test case scaffolding %s compilation failed", e.file.toAbsolutePath().toString());
+    	} catch (NoTestFileException e) {
+    		LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: the generated test class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
+    		//continue
+    	} catch (NoTestFileScaffoldingException e) {
+    		LOGGER.error("Failed to generate the test case %s for post-frontier path condition %s:%s: the generated scaffolding class file does not seem to exist (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
+    		//continue
+    	} catch (NoTestMethodException e) {
+    		LOGGER.warn("Failed to generate the test case %s for post-frontier path condition %s:%s: the generated files does not contain a test method (perhaps EvoSuite must be blamed)", e.file.toAbsolutePath().toString(), e.entryPoint, e.pathCondition);
+    		//continue
+    	} catch (ClassFileAccessException e) {
+    		LOGGER.error("Unexpected error while verifying that class %s exists and has a test method", e.className);
+    		LOGGER.error("Message: %s", e.e.toString());
+    		LOGGER.error("Stack trace:");
+    		for (StackTraceElement elem : e.e.getStackTrace()) {
+    			LOGGER.error("%s", elem.toString());
+    		}
+    		//continue
+    	} catch (IOFileCreationException e) {
+    		LOGGER.error("Unexpected I/O error while creating test case compilation log file %s", e.file.toAbsolutePath().toString());
+    		LOGGER.error("Message: %s", e.e.toString());
+    		LOGGER.error("Stack trace:");
+    		for (StackTraceElement elem : e.e.getStackTrace()) {
+    			LOGGER.error("%s", elem.toString());
+    		}
+    		//continue
+    	}
+    	
+    	//EvoSuite emitted a wrong test: gives up
+    	discarded.add(testCount);
+    	pending.remove(testCount);
+    }
+    
+    /**
+     * Returns the size of a file.
+     * 
+     * @param file the {@link Path} of the file.
+     * @return a {@code long}, the size of {@code file} in bytes, 
+     *         or {@code -1L} if the file does not exist or cannot 
+     *         be accessed.
+     */
+    private static long size(Path file) {
+    	try {
+    		return Files.size(file);
+    	} catch (IOException e) {
+    		return -1L;
+    	}
+    }
 }
-
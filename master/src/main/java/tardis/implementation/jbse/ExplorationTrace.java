@@ -0,0 +1,171 @@
+package tardis.implementation.jbse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes a trace with the time spent by {@link PerformerJBSE} in 
+ * each stage of the exploration of each test case, one JSON 
+ * object per line. The trace can be summarized with 
+ * {@link ExplorationTraceReport}.
+ * 
+ * @author Pietro Braione
+ */
+final class ExplorationTrace implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getFormatterLogger(ExplorationTrace.class);
+    
+    /**
+     * The stages of the exploration of a test case.
+     */
+    enum Stage {
+        /** Construction of the {@link RunnerPath}, including the concrete run that counts the hits of the target method. */
+        SETUP("setup_us"),
+        
+        /** Guided run of the test case up to the final state. */
+        GUIDED_RUN("guided_run_us"),
+        
+        /** Lookup and insertion of the path of the test case in the {@code TreePath}. */
+        TREE_PATH("tree_path_us"),
+        
+        /** Learning of the indices, reclassification of the buffered path conditions and rescoring of the buffered test cases. */
+        INDICES("indices_us"),
+        
+        /** Guided reruns of the test case up to the frontiers at all the depths, and post-frontier steps. */
+        FRONTIER_RUNS("frontier_runs_us"),
+        
+        /** Infeasibility prechecks of the post-frontier path conditions. */
+        PRECHECK("precheck_us"),
+        
+        /** Creation of the output path conditions from the post-frontier states, included the prechecks. */
+        FRONTIER_JOBS("frontier_jobs_us");
+        
+        private final String key;
+        
+        private Stage(String key) {
+            this.key = key;
+        }
+        
+        String key() {
+            return this.key;
+        }
+    }
+    
+    /**
+     * The timings of the exploration of a test case. 
+     * It is confined to the thread exploring the test case.
+     */
+    static final class Record {
+        private final String testCase;
+        private final int depthStart;
+        private final long start = System.nanoTime();
+        private final long[] stageNanos = new long[Stage.values().length];
+        private String outcome = "error";
+        private int numOfDepths = 0;
+        private int numOfPathConditions = 0;
+        
+        Record(String testCase, int depthStart) {
+            this.testCase = testCase;
+            this.depthStart = depthStart;
+        }
+        
+        /**
+         * Adds the time elapsed since a given instant
+         * to a stage.
+         * 
+         * @param stage a {@link Stage}.
+         * @param startNanos a {@code long}, a value previously 
+         *        returned by {@link System#nanoTime()}.
+         */
+        void addSince(Stage stage, long startNanos) {
+            this.stageNanos[stage.ordinal()] += System.nanoTime() - startNanos;
+        }
+        
+        void setOutcome(String outcome) {
+            this.outcome = outcome;
+        }
+        
+        void incrementNumOfDepths() {
+            ++this.numOfDepths;
+        }
+        
+        void incrementNumOfPathConditions() {
+            ++this.numOfPathConditions;
+        }
+        
+        private String toJson(long end) {
+            final StringBuilder retVal = new StringBuilder();
+            retVal.append("{\"timestamp_ms\":").append(System.currentTimeMillis());
+            retVal.append(",\"test\":\"").append(this.testCase.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+            retVal.append(",\"outcome\":\"").append(this.outcome).append('"');
+            retVal.append(",\"depth_start\":").append(this.depthStart);
+            retVal.append(",\"depths\":").append(this.numOfDepths);
+            retVal.append(",\"path_conditions\":").append(this.numOfPathConditions);
+            retVal.append(",\"total_us\":").append((end - this.start) / 1_000L);
+            for (Stage stage : Stage.values()) {
+                retVal.append(",\"").append(stage.key()).append("\":").append(this.stageNanos[stage.ordinal()] / 1_000L);
+            }
+            retVal.append('}');
+            return retVal.toString();
+        }
+    }
+    
+    /** The trace file. */
+    private final Path traceFilePath;
+    
+    /** The {@link BufferedWriter} to the trace file, or {@code null} if it could not be opened. */
+    private final BufferedWriter w;
+    
+    /**
+     * Constructor. Creates (or truncates) the trace file.
+     * 
+     * @param traceFilePath the {@link Path} of the trace file.
+     */
+    ExplorationTrace(Path traceFilePath) {
+        this.traceFilePath = traceFilePath;
+        BufferedWriter w = null;
+        try {
+            w = Files.newBufferedWriter(traceFilePath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.error("Unable to create the exploration trace file %s, the exploration will not be traced", traceFilePath.toString());
+        }
+        this.w = w;
+    }
+    
+    /**
+     * Writes a {@link Record} in the trace.
+     * 
+     * @param record a {@link Record}.
+     */
+    void write(Record record) {
+        if (this.w == null) {
+            return;
+        }
+        final String line = record.toJson(System.nanoTime());
+        synchronized (this) {
+            try {
+                this.w.write(line);
+                this.w.newLine();
+            } catch (IOException e) {
+                LOGGER.error("Unable to write the exploration trace file %s: %s", this.traceFilePath.toString(), e.toString());
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (this.w == null) {
+            return;
+        }
+        try {
+            this.w.close();
+        } catch (IOException e) {
+            LOGGER.error("Unable to close the exploration trace file %s: %s", this.traceFilePath.toString(), e.toString());
+        }
+    }
+}
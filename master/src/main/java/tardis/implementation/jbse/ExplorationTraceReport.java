@@ -0,0 +1,134 @@
+package tardis.implementation.jbse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import tardis.implementation.jbse.ExplorationTrace.Stage;
+
+/**
+ * Offline tool that summarizes one or more exploration traces
+ * written by {@link ExplorationTrace}. For each stage it prints
+ * the total time, its share of the total exploration time, and
+ * the mean, median, 90th percentile and maximum time per test
+ * case. The prechecks are part of the creation of the frontier
+ * jobs, and the time not spent in any stage is reported as other.
+ * Usage: {@code java tardis.implementation.jbse.ExplorationTraceReport <trace file>...}
+ *
+ * @author Pietro Braione
+ */
+public final class ExplorationTraceReport {
+    private static final Pattern FIELD = Pattern.compile("\"(\\w+)\":(\"([^\"]*)\"|-?\\d+)");
+    private static final String KEY_TOTAL = "total_us";
+    private static final String KEY_OTHER = "other_us";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java " + ExplorationTraceReport.class.getName() + " <trace file>...");
+            System.exit(1);
+        }
+
+        //reads the records
+        final Map<String, ArrayList<Long>> times = new HashMap<>();
+        final TreeMap<String, Integer> outcomes = new TreeMap<>();
+        long numOfTests = 0, numOfDepths = 0, numOfPathConditions = 0;
+        for (String arg : args) {
+            try (final BufferedReader r = Files.newBufferedReader(Paths.get(arg), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    final Map<String, String> record = parse(line);
+                    if (!record.containsKey(KEY_TOTAL)) {
+                        continue; //truncated line
+                    }
+                    ++numOfTests;
+                    numOfDepths += Long.parseLong(record.getOrDefault("depths", "0"));
+                    numOfPathConditions += Long.parseLong(record.getOrDefault("path_conditions", "0"));
+                    outcomes.merge(record.getOrDefault("outcome", "unknown"), 1, Integer::sum);
+                    final long total = Long.parseLong(record.get(KEY_TOTAL));
+                    long other = total;
+                    for (Stage stage : Stage.values()) {
+                        final long time = Long.parseLong(record.getOrDefault(stage.key(), "0"));
+                        times.computeIfAbsent(stage.key(), k -> new ArrayList<>()).add(time);
+                        if (stage != Stage.PRECHECK) {
+                            other -= time;
+                        }
+                    }
+                    times.computeIfAbsent(KEY_OTHER, k -> new ArrayList<>()).add(Math.max(0, other));
+                    times.computeIfAbsent(KEY_TOTAL, k -> new ArrayList<>()).add(total);
+                }
+            }
+        }
+        if (numOfTests == 0) {
+            System.out.println("No records found");
+            return;
+        }
+
+        //prints the report
+        System.out.printf("Tests: %d, depths explored: %d, path conditions generated: %d%n", numOfTests, numOfDepths, numOfPathConditions);
+        System.out.printf("Outcomes: %s%n", outcomes.toString());
+        System.out.printf("%-18s %14s %7s %12s %12s %12s %12s%n", "stage", "total_ms", "share", "mean_us", "p50_us", "p90_us", "max_us");
+        final long grandTotal = sum(times.get(KEY_TOTAL));
+        for (Stage stage : Stage.values()) {
+            printRow((stage == Stage.PRECHECK ? "  " : "") + stage.key(), times.get(stage.key()), grandTotal);
+        }
+        printRow(KEY_OTHER, times.get(KEY_OTHER), grandTotal);
+        printRow(KEY_TOTAL, times.get(KEY_TOTAL), grandTotal);
+    }
+
+    /**
+     * Parses a record of the trace. Since the records are
+     * flat JSON objects with string and integer values,
+     * no JSON library is needed.
+     *
+     * @param line a {@link String}, a line of the trace.
+     * @return a {@link Map}{@code <}{@link String}{@code , }{@link String}{@code >}
+     *         mapping the keys of the record to their values.
+     */
+    private static Map<String, String> parse(String line) {
+        final HashMap<String, String> retVal = new HashMap<>();
+        final Matcher m = FIELD.matcher(line);
+        while (m.find()) {
+            retVal.put(m.group(1), m.group(3) == null ? m.group(2) : m.group(3));
+        }
+        return retVal;
+    }
+
+    private static long sum(ArrayList<Long> values) {
+        long retVal = 0;
+        for (long value : values) {
+            retVal += value;
+        }
+        return retVal;
+    }
+
+    private static void printRow(String name, ArrayList<Long> values, long grandTotal) {
+        final long[] sorted = new long[values.size()];
+        for (int i = 0; i < sorted.length; ++i) {
+            sorted[i] = values.get(i);
+        }
+        Arrays.sort(sorted);
+        final long total = sum(values);
+        System.out.printf("%-18s %14.1f %6.1f%% %12d %12d %12d %12d%n", name, total / 1_000.0d,
+                          (grandTotal == 0 ? 0.0d : 100.0d * total / grandTotal), total / sorted.length,
+                          percentile(sorted, 0.5d), percentile(sorted, 0.9d), sorted[sorted.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        final int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Do not instantiate!
+     */
+    private ExplorationTraceReport() { }
+}
@@ -0,0 +1,183 @@
+package tardis.implementation.jbse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jbse.algo.exc.CannotManageStateException;
+import jbse.bc.exc.InvalidClassFileFactoryClassException;
+import jbse.common.exc.ClasspathException;
+import jbse.dec.exc.DecisionException;
+import jbse.jvm.exc.CannotBacktrackException;
+import jbse.jvm.exc.CannotBuildEngineException;
+import jbse.jvm.exc.EngineStuckException;
+import jbse.jvm.exc.FailureException;
+import jbse.jvm.exc.InitializationException;
+import jbse.jvm.exc.NonexistingObservedVariablesException;
+import jbse.mem.Clause;
+import jbse.mem.State;
+import jbse.mem.exc.ContradictionException;
+import jbse.mem.exc.ThreadStackEmptyException;
+import tardis.Options;
+import tardis.implementation.evosuite.EvosuiteResult;
+
+/**
+ * Performs the guided symbolic execution of a test and explores
+ * its frontier at multiple depths on behalf of {@link PerformerJBSE}.
+ * {@link RunnerPath} does it with JBSE. The path conditions are
+ * returned as lists of {@link Clause}s, and the {@link State}s
+ * separately, so an implementation that does not build JBSE
+ * {@link State}s (e.g., for benchmarking) may return {@code null}
+ * for them.
+ *
+ * @author Pietro Braione
+ */
+interface GuidedRunner extends AutoCloseable {
+    /**
+     * Creates the {@link GuidedRunner}s.
+     *
+     * @author Pietro Braione
+     */
+    @FunctionalInterface
+    interface Factory {
+        /**
+         * Creates a {@link GuidedRunner} for a test.
+         *
+         * @param o the {@link Options}.
+         * @param item the {@link EvosuiteResult} of the test.
+         * @param initialState the initial {@link State} of symbolic
+         *        execution, or {@code null} if it must be built.
+         * @return a {@link GuidedRunner}.
+         * @throws NoTargetHitException if the test does not hit the
+         *         target method.
+         */
+        GuidedRunner make(Options o, EvosuiteResult item, State initialState)
+        throws DecisionException, CannotBuildEngineException, InitializationException, InvalidClassFileFactoryClassException,
+        NonexistingObservedVariablesException, ClasspathException, ContradictionException, CannotBacktrackException,
+        CannotManageStateException, ThreadStackEmptyException, EngineStuckException, FailureException, NoTargetHitException;
+    }
+
+    /**
+     * Executes the test up to the final state.
+     *
+     * @return the path condition of the final state as a
+     *         {@link List}{@code <}{@link Clause}{@code >}, or
+     *         {@code null} if the test violates an assumption or
+     *         exhausts a bound before arriving at the final state.
+     */
+    List<Clause> runToFinalState()
+    throws DecisionException, CannotBuildEngineException, InitializationException,
+    InvalidClassFileFactoryClassException, NonexistingObservedVariablesException,
+    ClasspathException, CannotBacktrackException, CannotManageStateException,
+    ThreadStackEmptyException, ContradictionException, EngineStuckException,
+    FailureException;
+
+    /**
+     * Must be invoked after an invocation of {@link #runToFinalState()}
+     * that returned a path condition.
+     *
+     * @return an {@code int}, the depth of the final state.
+     */
+    int getDepthFinal();
+
+    /**
+     * Must be invoked after an invocation of {@link #runToFinalState()}.
+     *
+     * @return the final {@link State}, or {@code null}.
+     */
+    State getStateFinal();
+
+    /**
+     * Must be invoked after an invocation of {@link #runToFinalState()}.
+     *
+     * @return the initial {@link State}, or {@code null}.
+     */
+    State getStateInitial();
+
+    /**
+     * Executes the test up to the pre-frontier state at depth
+     * {@code testDepth - 1}, and then explores the post-frontier
+     * states at depth {@code testDepth}.
+     *
+     * @param testDepth a positive {@code int}, the depth of the
+     *        post-frontier states.
+     * @return a {@link List}{@code <}{@link List}{@code <}{@link Clause}{@code >}{@code >},
+     *         the path conditions of the post-frontier states; it
+     *         is empty if the test does not arrive at the frontier.
+     */
+    List<List<Clause>> runToPostFrontier(int testDepth)
+    throws DecisionException, CannotBuildEngineException, InitializationException,
+    InvalidClassFileFactoryClassException, NonexistingObservedVariablesException,
+    ClasspathException, CannotBacktrackException, CannotManageStateException,
+    ThreadStackEmptyException, ContradictionException, EngineStuckException,
+    FailureException;
+
+    /**
+     * Must be invoked after an invocation of {@link #runToPostFrontier(int)}.
+     *
+     * @param i an {@code int}, the index of a post-frontier state
+     *        in the list returned by {@link #runToPostFrontier(int)}.
+     * @return the {@code i}-th post-frontier {@link State}, or {@code null}.
+     */
+    State getStatePostFrontier(int i);
+
+    /**
+     * Must be invoked after an invocation of {@link #runToPostFrontier(int)}.
+     * Checks whether a clause contradicts the assumptions of the
+     * models of the {@link java.util.Map}s in the context of a
+     * post-frontier state.
+     *
+     * @param i an {@code int}, the index of a post-frontier state
+     *        in the list returned by {@link #runToPostFrontier(int)}.
+     * @param clause a {@link Clause} of the path condition of the
+     *        {@code i}-th post-frontier state.
+     * @return {@code true} iff {@code clause} contradicts the
+     *         assumptions of the map models.
+     */
+    boolean mapModelAssumptionViolated(int i, Clause clause);
+
+    /**
+     * Must be invoked after an invocation of {@link #runToPostFrontier(int)}.
+     *
+     * @return {@code true} iff the frontier is at a jump bytecode.
+     */
+    boolean getAtJump();
+
+    /**
+     * Must be invoked after an invocation of {@link #runToPostFrontier(int)}.
+     *
+     * @return a {@link List}{@code <}{@link String}{@code >}, whose {@code i}-th
+     *         element is the branch covered by the {@code i}-th post-frontier
+     *         state if {@link #getAtJump()}{@code  == true}, otherwise empty.
+     */
+    List<String> getBranchesPostFrontier();
+
+    /**
+     * Must be invoked after an invocation of {@link #runToPostFrontier(int)}.
+     *
+     * @return a {@link List}{@code <? extends }{@link Map}{@code <}{@link Long}{@code , }{@link String}{@code >}{@code >},
+     *         whose {@code i}-th element maps the heap positions of the {@link String}
+     *         literals of the {@code i}-th post-frontier state to their values.
+     */
+    List<? extends Map<Long, String>> getStringLiterals();
+
+    /**
+     * Must be invoked after an invocation of {@link #runToPostFrontier(int)}.
+     *
+     * @return a {@link List}{@code <? extends }{@link Set}{@code <}{@link Long}{@code >}{@code >},
+     *         whose {@code i}-th element contains the heap positions of the
+     *         (nonconstant) {@link String}s of the {@code i}-th post-frontier state.
+     */
+    List<? extends Set<Long>> getStringOthers();
+
+    /**
+     * Returns the branches covered by the executions.
+     *
+     * @return a {@link Set}{@code <}{@link String}{@code >} where each {@link String} has the form
+     *         className:methodDescriptor:methodName:bytecodeFrom:bytecodeTo.
+     */
+    Set<String> getCoverage();
+
+    @Override
+    void close() throws DecisionException;
+}
@@ -0,0 +1,93 @@
+package tardis.implementation.jbse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import jbse.common.exc.InvalidInputException;
+import jbse.dec.DecisionProcedure;
+import jbse.dec.exc.DecisionException;
+import jbse.mem.Clause;
+import jbse.mem.ClauseAssume;
+import jbse.val.Expression;
+import jbse.val.Primitive;
+import tardis.Options;
+import tardis.implementation.common.DecisionProceduresZ3;
+
+/**
+ * Checks with Z3, with a short timeout, whether the numeric part
+ * of a post-frontier path condition is unsatisfiable, to avoid
+ * submitting provably infeasible path conditions to EvoSuite.
+ * Every thread that uses a {@link InfeasibilityPrechecker} gets
+ * its own Z3 process.
+ *
+ * @author Pietro Braione
+ */
+final class InfeasibilityPrechecker implements AutoCloseable {
+    private static final Logger LOGGER = LogManager.getFormatterLogger(InfeasibilityPrechecker.class);
+
+    /** The Z3 {@link DecisionProcedure}s of the threads. */
+    private final DecisionProceduresZ3 decisionProcedures;
+
+    /**
+     * Constructor.
+     *
+     * @param o an {@link Options} object. It must not be {@code null}.
+     */
+    InfeasibilityPrechecker(Options o) {
+        final long timeoutMillis = o.getTimeoutInfeasibilityPrecheckUnit().toMillis(o.getTimeoutInfeasibilityPrecheckDuration());
+        this.decisionProcedures = new DecisionProceduresZ3(o.getZ3Path(), timeoutMillis);
+    }
+
+    /**
+     * Checks whether a path condition is provably unsatisfiable.
+     * Only the clauses that predicate on primitive values are
+     * considered; if Z3 does not answer within the timeout, or
+     * some error occurs, the path condition is assumed to be
+     * satisfiable.
+     *
+     * @param pathCondition a {@link List}{@code <}{@link Clause}{@code >}.
+     * @return {@code true} iff Z3 proves that {@code pathCondition}
+     *         is unsatisfiable.
+     */
+    boolean isProvablyInfeasible(List<Clause> pathCondition) {
+    	//gets the numeric clauses, and returns if there
+    	//is nothing to check
+    	final ArrayList<ClauseAssume> clausesNumeric = new ArrayList<>();
+    	for (Clause c : pathCondition) {
+    		if (c instanceof ClauseAssume) {
+    			clausesNumeric.add((ClauseAssume) c);
+    		}
+    	}
+    	if (clausesNumeric.isEmpty()) {
+    		return false;
+    	}
+    	final Primitive conditionLast = clausesNumeric.get(clausesNumeric.size() - 1).getCondition();
+    	if (!(conditionLast instanceof Expression)) {
+    		return false;
+    	}
+
+    	//assumes all the numeric clauses but the last one,
+    	//and checks whether the last one is satisfiable
+    	try {
+    		final DecisionProcedure dec = this.decisionProcedures.get();
+    		dec.clearAssumptions();
+    		for (ClauseAssume c : clausesNumeric.subList(0, clausesNumeric.size() - 1)) {
+    			dec.pushAssumption(c);
+    		}
+    		return !dec.isSat((Expression) conditionLast);
+    	} catch (InvalidInputException | DecisionException e) {
+    		LOGGER.warn("Unexpected error while prechecking path condition infeasibility, assuming feasible");
+    		LOGGER.warn("Message: %s", e.toString());
+    		this.decisionProcedures.discard();
+    		return false;
+    	}
+    }
+
+    @Override
+    public void close() {
+    	this.decisionProcedures.close();
+    }
+}
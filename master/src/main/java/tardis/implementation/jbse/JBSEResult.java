@@ -1,19 +1,30 @@
 package tardis.implementation.jbse;
 
+import static jbse.common.Type.splitParametersDescriptors;
+
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import jbse.bc.Signature;
+import jbse.bc.exc.MethodNotFoundException;
 import jbse.mem.Clause;
+import jbse.mem.Frame;
 import jbse.mem.State;
+import jbse.mem.exc.FrozenStateException;
+import jbse.mem.exc.InvalidSlotException;
+import jbse.val.Value;
 
 /**
  * A work item produced by the JBSE performer and 
  * consumed by the Evosuite performer. It represents a 
- * path to a frontier. It is immutable.
+ * path to a frontier. It is immutable. It does not hold 
+ * the {@link State}s of the path, that may wait long in
+ * the buffer, but what the EvoSuite performer needs from 
+ * them: the source of the EvoSuite wrapper and the values 
+ * of the arguments of the target method.
  * 
  * @author Pietro Braione
  */
@@ -43,26 +54,39 @@ public final class JBSEResult {
     private final String targetMethodName;
     
     /**
-     * The initial {@link State} of the path, or {@code null}
-     * if this {@link JBSEResult} is a seed item.
+     * The source of the EvoSuite wrapper for the path, or 
+     * {@code null} if this {@link JBSEResult} is a seed item
+     * or the {@link State}s of the path were not available.
      */
-    private final State initialState;
+    private final WrapperSource wrapperSource;
     
     /**
-     * The pre-frontier {@link State} of the path, or {@code null}
-     * if this {@link JBSEResult} is a seed item.
+     * Whether the target method is static ({@code false}
+     * if this {@link JBSEResult} is a seed item or the 
+     * {@link State}s of the path were not available).
+     */
+    private final boolean targetMethodStatic;
+    
+    /**
+     * The value of the {@code this} parameter of the target 
+     * method in the initial state of the path, or {@code null}
+     * if the target method is static, or this {@link JBSEResult} 
+     * is a seed item, or the {@link State}s of the path were 
+     * not available.
      */
-    private final State preState;
+    private final Value targetMethodReceiver;
     
     /**
-     * The final (post-frontier) {@link State} of the path, or 
-     * {@code null} if this {@link JBSEResult} is a seed item.
+     * The values of the parameters of the target method in the 
+     * initial state of the path (it is empty if this {@link JBSEResult} 
+     * is a seed item or the {@link State}s of the path were not 
+     * available).
      */
-    private final State postState;
+    private final List<Value> targetMethodParameters;
     
     /**
      * The post-frontier (final) path condition, produced from
-     * {@link #postState}'s path condition, or {@code null}
+     * the post-frontier state's path condition, or {@code null}
      * if this {@link JBSEResult} is a seed item.
      */
     private final ArrayList<Clause> pathConditionMangled;
@@ -83,27 +107,6 @@ public final class JBSEResult {
      */
     private final String targetBranch;
     
-    /**
-     * The string literals gathered during the
-     * execution of the path to the frontier, or 
-     * {@code null} if this {@link JBSEResult} is a seed item.
-     */
-    private final HashMap<Long, String> stringLiterals;
-    
-    /**
-     * The (nonconstant) strings gathered during the
-     * execution of the path to the frontier, or 
-     * {@code null} if this {@link JBSEResult} is a seed item.
-     */
-    private final HashSet<Long> stringOthers;
-    
-    /**
-     * The set of the class names of the expansions that are forbidden. 
-     * Used only if the last clause in the path condition of {@link #postState}
-     * is an expands clause.
-     */
-    private final HashSet<String> forbiddenExpansions;
-    
     /**
      * The depth of the path to the frontier, or 
      * {@code -1} if this {@link JBSEResult} is a seed item.
@@ -124,15 +127,13 @@ public final class JBSEResult {
         this.targetMethodClassName = targetMethod.get(0);
         this.targetMethodDescriptor = targetMethod.get(1);
         this.targetMethodName = targetMethod.get(2);
-        this.initialState = null;
-        this.preState = null;
-        this.postState = null;
+        this.wrapperSource = null;
+        this.targetMethodStatic = false;
+        this.targetMethodReceiver = null;
+        this.targetMethodParameters = Collections.emptyList();
         this.pathConditionMangled = null;
         this.atJump = false;
         this.targetBranch = null;
-        this.stringLiterals = null;
-        this.stringOthers = null;
-        this.forbiddenExpansions = null;
         this.depth = 0;
     }
 
@@ -146,15 +147,13 @@ public final class JBSEResult {
         this.targetMethodClassName = null;
         this.targetMethodDescriptor = null;
         this.targetMethodName = null;
-        this.initialState = null;
-        this.preState = null;
-        this.postState = null;
+        this.wrapperSource = null;
+        this.targetMethodStatic = false;
+        this.targetMethodReceiver = null;
+        this.targetMethodParameters = Collections.emptyList();
         this.pathConditionMangled = null;
         this.atJump = false;
         this.targetBranch = null;
-        this.stringLiterals = null;
-        this.stringOthers = null;
-        this.forbiddenExpansions = null;
         this.depth = 0;
     }
 
@@ -167,10 +166,13 @@ public final class JBSEResult {
      *        descriptor of the target method.
      * @param targetMethodName a {@link String}, the name 
      *        of the target method.
-     * @param initialState the initial {@link State} of the path.
-     * @param preState the pre-frontier {@link State} of the path.
+     * @param initialState the initial {@link State} of the path,
+     *        or {@code null} if it is not available, in which
+     *        case the item has no wrapper (see {@link #getWrapperSource()}).
+     *        It is not modified nor retained.
      * @param postState the post-frontier (final) {@link State} 
-     *        of the path.
+     *        of the path, or {@code null} if it is not available.
+     *        It is not modified nor retained.
      * @param pathConditionMangled the post-frontier (final) 
      *        path condition, produced from {@code postState}'s 
      *        path condition.
@@ -191,23 +193,45 @@ public final class JBSEResult {
      *        is an expands clause.
      * @param depth a positive {@code int}, the depth of the path 
      *        to the frontier.
+     * @throws FrozenStateException if {@code initialState} is frozen.
+     * @throws MethodNotFoundException if the target method is not
+     *         in the initial state's classfile of the target method.
+     * @throws InvalidSlotException if the initial state has less 
+     *         local variables than the parameters of the target 
+     *         method.
      */
     public JBSEResult(String targetMethodClassName, String targetMethodDescriptor, String targetMethodName, State initialState, 
-                      State preState, State postState, List<Clause> pathConditionMangled, boolean atJump, String targetBranch, Map<Long, String> stringLiterals, 
-                      Set<Long> stringOthers, Set<String> forbiddenExpansions, int depth) {
+                      State postState, List<Clause> pathConditionMangled, boolean atJump, String targetBranch, Map<Long, String> stringLiterals, 
+                      Set<Long> stringOthers, Set<String> forbiddenExpansions, int depth) 
+    throws FrozenStateException, MethodNotFoundException, InvalidSlotException {
         this.targetClassName = null;
         this.targetMethodClassName = targetMethodClassName;
         this.targetMethodDescriptor = targetMethodDescriptor;
         this.targetMethodName = targetMethodName;
-        this.initialState = initialState.clone();
-        this.preState = preState.clone();
-        this.postState = postState.clone();
+        if (initialState == null || postState == null) {
+            this.wrapperSource = null;
+            this.targetMethodStatic = false;
+            this.targetMethodReceiver = null;
+            this.targetMethodParameters = Collections.emptyList();
+        } else {
+            this.wrapperSource = WrapperSource.format(initialState, postState, stringLiterals, stringOthers, forbiddenExpansions);
+            
+            //gets the arguments of the target method from the root frame
+            final Frame rootFrame = initialState.getStack().get(0);
+            final Signature rootMethodSignature = rootFrame.getMethodSignature();
+            this.targetMethodStatic = rootFrame.getMethodClass().isMethodStatic(rootMethodSignature);
+            this.targetMethodReceiver = (this.targetMethodStatic ? null : rootFrame.getLocalVariableValue(0));
+            final ArrayList<Value> parameters = new ArrayList<>();
+            int slot = (this.targetMethodStatic ? 0 : 1);
+            for (String parameterType : splitParametersDescriptors(rootMethodSignature.getDescriptor())) {
+                parameters.add(rootFrame.getLocalVariableValue(slot));
+                slot += ("J".equals(parameterType) || "D".equals(parameterType) ? 2 : 1);
+            }
+            this.targetMethodParameters = Collections.unmodifiableList(parameters);
+        }
         this.pathConditionMangled = new ArrayList<>(pathConditionMangled); //safety copy
         this.atJump = atJump;
         this.targetBranch = (atJump ? targetBranch : null);
-        this.stringLiterals = new HashMap<>(stringLiterals); //safety copy
-        this.stringOthers = new HashSet<>(stringOthers);     //safety copy
-        this.forbiddenExpansions = new HashSet<>(forbiddenExpansions); //safety copy
         this.depth = depth;
     }
     
@@ -217,7 +241,7 @@ public final class JBSEResult {
      * @return {@code true} iff this is a seed item.
      */
     public boolean isSeed() {
-        return this.initialState == null;
+        return this.pathConditionMangled == null;
     }
     
     /**
@@ -287,33 +311,47 @@ public final class JBSEResult {
     }
 
     /**
-     * Gets the initial {@link State} of the path.
+     * Gets the source of the EvoSuite wrapper for the path.
      * 
-     * @return a {@link State}, or {@code null}
-     *         if {@link #isSeed() isSeed}{@code () == true}.
+     * @return a {@link WrapperSource}, or {@code null}
+     *         if {@link #isSeed() isSeed}{@code () == true}
+     *         or the {@link State}s of the path were not 
+     *         available when this item was created.
      */
-    public State getInitialState() {
-        return this.initialState;
+    public WrapperSource getWrapperSource() {
+        return this.wrapperSource;
     }
-
+    
     /**
-     * Gets the pre-frontier {@link State} of the path.
+     * Gets whether the target method is static.
      * 
-     * @return a {@link State}, or {@code null}
-     *         if {@link #isSeed() isSeed}{@code () == true}.
+     * @return {@code true} iff the target method is static 
+     *         ({@code false} if {@link #getWrapperSource() getWrapperSource}{@code () == null}).
      */
-    public State getPreFrontierState() {
-        return this.preState;
+    public boolean isTargetMethodStatic() {
+        return this.targetMethodStatic;
     }
     
     /**
-     * Gets the post-frontier (final) {@link State} of the path.
+     * Gets the value of the {@code this} parameter of the 
+     * target method in the initial state of the path.
      * 
-     * @return a {@link State}, or {@code null}
-     *         if {@link #isSeed() isSeed}{@code () == true}.
+     * @return a {@link Value}, or {@code null} if the target method 
+     *         is static or {@link #getWrapperSource() getWrapperSource}{@code () == null}.
+     */
+    public Value getTargetMethodReceiver() {
+        return this.targetMethodReceiver;
+    }
+    
+    /**
+     * Gets the values of the parameters of the target method
+     * in the initial state of the path.
+     * 
+     * @return an unmodifiable {@link List}{@code <}{@link Value}{@code >}, 
+     *         empty if {@link #getWrapperSource() getWrapperSource}{@code () == null}.
      */
-    public State getPostFrontierState() {
-        return this.postState;
+    public List<Value> getTargetMethodParameters() {
+        return this.targetMethodParameters;
     }
     
     /**
@@ -351,38 +389,6 @@ public final class JBSEResult {
         return this.targetBranch;
     }
 
-    /**
-     * Gets the string literals gathered during the
-     * execution of the path to the frontier.
-     * 
-     * @return a {@link Map}{@code <}{@link Long}{@code , }{@link String}{@code >}, or {@code null}
-     *         if {@link #isSeed() isSeed}{@code () == true}.
-     */
-    public Map<Long, String> getStringLiterals() {
-        return this.stringLiterals;
-    }
-
-    /**
-     * Gets the (nonconstant) strings gathered during the
-     * execution of the path to the frontier.
-     * 
-     * @return a {@link List}{@code <}{@link Long}{@code >}, or {@code null}
-     *         if {@link #isSeed() isSeed}{@code () == true}.
-     */
-    public Set<Long> getStringOthers() {
-        return this.stringOthers;
-    }
-    
-    /**
-     * Returns the list of the class names of the 
-     * expansions that are forbidden.
-     * 
-     * @return a {@link Set}{@code <}{@link String}{@code >}.
-     */
-    public Set<String> getForbiddenExpansions() {
-    	return this.forbiddenExpansions;
-    }
-
     /**
      * Gets the depth of the path to the frontier.
      * 
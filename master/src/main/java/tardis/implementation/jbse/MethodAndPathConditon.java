@@ -7,30 +7,43 @@ import jbse.mem.Clause;
 /**
  * A pair of a method and a path condition.
  * Used as a map key by the JBSE performer.
+ * The path condition is not retained, only
+ * its length and a 64-bit hash of its clauses,
+ * so the key is compact. Two different path
+ * conditions may therefore rarely be taken as
+ * the same one.
  */
 final class MethodAndPathConditon {
 	private final String method;
-	private final List<Clause> pathCondition;
-	
+	private final int pathConditionSize;
+	private final long pathConditionHash;
+
 	public MethodAndPathConditon(String method, List<Clause> pathCondition) {
 		this.method = method;
-		this.pathCondition = pathCondition; //no safety clone!
+		this.pathConditionSize = (pathCondition == null ? -1 : pathCondition.size());
+		this.pathConditionHash = (pathCondition == null ? 0L : hash(pathCondition));
+	}
+
+	private static long hash(List<Clause> pathCondition) {
+		long retVal = 1125899906842597L;
+		for (Clause c : pathCondition) {
+			retVal = 31 * retVal + (c == null ? 0 : c.hashCode());
+			retVal ^= (retVal >>> 29);
+		}
+		return retVal;
 	}
-	
+
 	String getMethod() {
 		return this.method;
 	}
-	
-	List<Clause> getPathCondition() {
-		return this.pathCondition;
-	}
 
 	@Override
 	public int hashCode() {
 		final int prime = 17;
 		int result = 1;
 		result = prime * result + ((this.method == null) ? 0 : this.method.hashCode());
-		result = prime * result + ((this.pathCondition == null) ? 0 : this.pathCondition.hashCode());
+		result = prime * result + this.pathConditionSize;
+		result = prime * result + Long.hashCode(this.pathConditionHash);
 		return result;
 	}
 
@@ -53,15 +66,14 @@ final class MethodAndPathConditon {
 		} else if (!this.method.equals(other.method)) {
 			return false;
 		}
-		if (this.pathCondition == null) {
-			if (other.pathCondition != null) {
-				return false;
-			}
-		} else if (!this.pathCondition.equals(other.pathCondition)) {
+		if (this.pathConditionSize != other.pathConditionSize) {
+			return false;
+		}
+		if (this.pathConditionHash != other.pathConditionHash) {
 			return false;
 		}
 		return true;
 	}
-	
-	
+
+
 }
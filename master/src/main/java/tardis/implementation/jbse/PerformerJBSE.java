@@ -1,6 +1,5 @@
 package tardis.implementation.jbse;
 
-import static jbse.apps.run.JAVA_MAP_Utils.mapModelAssumptionViolated;
 import static tardis.implementation.common.Util.filterOnPattern;
 import static tardis.implementation.common.Util.shorten;
 import static tardis.implementation.common.Util.stringifyPostFrontierPathCondition;
@@ -17,7 +16,6 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.LogManager;
@@ -25,8 +23,8 @@ import org.apache.logging.log4j.Logger;
 
 import jbse.algo.exc.CannotManageStateException;
 import jbse.apps.run.UninterpretedNoContextException;
-import jbse.bc.ClassHierarchy;
 import jbse.bc.exc.InvalidClassFileFactoryClassException;
+import jbse.bc.exc.MethodNotFoundException;
 import jbse.common.exc.ClasspathException;
 import jbse.common.exc.InvalidInputException;
 import jbse.dec.exc.DecisionException;
@@ -42,18 +40,25 @@ import jbse.mem.ClauseAssumeReferenceSymbolic;
 import jbse.mem.HeapObjekt;
 import jbse.mem.State;
 import jbse.mem.exc.ContradictionException;
+import jbse.mem.exc.FrozenStateException;
+import jbse.mem.exc.InvalidSlotException;
 import jbse.mem.exc.ThreadStackEmptyException;
 import jbse.val.ReferenceSymbolic;
 import tardis.Coverage;
 import tardis.Options;
-import tardis.framework.InputBuffer;
 import tardis.framework.Performer;
-import tardis.framework.PerformerPausableFixedThreadPoolExecutor;
+import tardis.framework.PerformerPullFixedThreadPool;
+import tardis.implementation.common.BoundedCache;
+import tardis.implementation.data.EvosuiteResultInputOutputBuffer;
 import tardis.implementation.data.JBSEResultInputOutputBuffer;
+import tardis.implementation.data.PathConditionDeduplicator;
 import tardis.implementation.data.TreePath;
 import tardis.implementation.evosuite.EvosuiteResult;
 import tardis.implementation.evosuite.PerformerEvosuiteListener;
 import tardis.implementation.evosuite.TestCase;
+import tardis.implementation.jbse.ExplorationTrace.Stage;
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
 
 /**
  * A {@link Performer} that consumes {@link EvosuiteResult}s by invoking JBSE
@@ -62,25 +67,65 @@ import tardis.implementation.evosuite.TestCase;
  * 
  * @author Pietro Braione
  */
-public final class PerformerJBSE extends PerformerPausableFixedThreadPoolExecutor<EvosuiteResult, JBSEResult> 
+public final class PerformerJBSE extends PerformerPullFixedThreadPool<EvosuiteResult, JBSEResult> 
 implements PerformerEvosuiteListener {
     private static final Logger LOGGER = LogManager.getFormatterLogger(PerformerJBSE.class);
     
     private static final int NUM_INPUTS_PER_JOB = 1;
     
     private final Options o;
+    private final EvosuiteResultInputOutputBuffer in;
     private final JBSEResultInputOutputBuffer out;
     private final TreePath treePath; //shared by multiple thread, synchronize its access
-    private final ConcurrentHashMap<String, State> initialStateCache = new ConcurrentHashMap<>();
+    private final BoundedCache<String, State> initialStateCache;
     private final AtomicLong pathCoverage = new AtomicLong(0);
-    private final ConcurrentHashMap<MethodAndPathConditon, Set<String>> freshObjectsExpansions = new ConcurrentHashMap<>();
+    private final BoundedCache<MethodAndPathConditon, Set<String>> freshObjectsExpansions;
+    private final PathConditionDeduplicator pathConditionDeduplicator = new PathConditionDeduplicator();
+    private final InfeasibilityPrechecker infeasibilityPrechecker; //null if no precheck
+    private final Histogram treePathLockWait = Metrics.histogram("tree_path.lock_wait_us");
+    private final ExplorationTrace explorationTrace; //null if no trace
+    private final GuidedRunner.Factory guidedRunnerFactory;
     private boolean testGeneratorTerminated = false;
 
-    public PerformerJBSE(Options o, InputBuffer<EvosuiteResult> in, JBSEResultInputOutputBuffer out, TreePath treePath) {
-        super("PerformerJBSE", in, out, o.getNumOfThreadsJBSE(), NUM_INPUTS_PER_JOB, o.getThrottleFactorJBSE(), o.getTimeoutJBSEJobCreationDuration() / NUM_INPUTS_PER_JOB, o.getTimeoutJBSEJobCreationUnit());
+    public PerformerJBSE(Options o, EvosuiteResultInputOutputBuffer in, JBSEResultInputOutputBuffer out, TreePath treePath) {
+        this(o, in, out, treePath, RunnerPath::new);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param o the {@link Options}.
+     * @param in the {@link EvosuiteResultInputOutputBuffer} of the test cases.
+     * @param out the {@link JBSEResultInputOutputBuffer} of the path conditions.
+     * @param treePath the {@link TreePath}.
+     * @param guidedRunnerFactory the {@link GuidedRunner.Factory} of the 
+     *        {@link GuidedRunner}s that execute the test cases; it is
+     *        {@code RunnerPath::new} except when benchmarking.
+     */
+    PerformerJBSE(Options o, EvosuiteResultInputOutputBuffer in, JBSEResultInputOutputBuffer out, TreePath treePath, GuidedRunner.Factory guidedRunnerFactory) {
+        super("PerformerJBSE", in, out, o.getNumOfThreadsJBSE(), (o.getUseAdaptiveConcurrency() ? o.getNumOfThreadsJBSEMax() : o.getNumOfThreadsJBSE()), NUM_INPUTS_PER_JOB, o.getUseVirtualThreadsJBSE(), o.getTimeoutJBSEJobCreationDuration() / NUM_INPUTS_PER_JOB, o.getTimeoutJBSEJobCreationUnit());
         this.o = o.clone();
+        this.in = in;
         this.out = out;
+        this.in.setResumeDeferred(out::isBelowLowWatermark);
         this.treePath = treePath;
+        this.initialStateCache = new BoundedCache<>(o.getJBSEInitialStateCacheSize());
+        this.freshObjectsExpansions = new BoundedCache<>(o.getJBSEExpansionsCacheSize());
+        this.infeasibilityPrechecker = (o.getUseInfeasibilityPrecheck() ? new InfeasibilityPrechecker(o) : null);
+        this.explorationTrace = (o.getTraceExploration() ? new ExplorationTrace(o.getTmpDirectoryPath().resolve("exploration-trace.jsonl")) : null);
+        this.guidedRunnerFactory = guidedRunnerFactory;
+    }
+
+    @Override
+    protected void onStop() {
+    	if (this.infeasibilityPrechecker != null) {
+    		this.infeasibilityPrechecker.close();
+    	}
+    	if (this.explorationTrace != null) {
+    		this.explorationTrace.close();
+    	}
+    	LOGGER.info("Initial state cache: %d entries, %d hits, %d misses, %d evictions", this.initialStateCache.size(), this.initialStateCache.getHits(), this.initialStateCache.getMisses(), this.initialStateCache.getEvictions());
+    	LOGGER.info("Expansions cache: %d entries, %d hits, %d misses, %d evictions", this.freshObjectsExpansions.size(), this.freshObjectsExpansions.getHits(), this.freshObjectsExpansions.getMisses(), this.freshObjectsExpansions.getEvictions());
     }
 
     @Override
@@ -94,34 +139,78 @@ implements PerformerEvosuiteListener {
      * starting from some depth up to some maximum depth.
      * 
      * @param item a {@link EvosuiteResult}.
-     * @param depthStart the depth to which generation of tests must be started.
      */
     private void explore(EvosuiteResult item) {
+        final ExplorationTrace.Record record = new ExplorationTrace.Record(item.getTestCase().getClassName(), item.getStartDepth());
+        try {
+            explore(item, record);
+        } finally {
+            if (this.explorationTrace != null) {
+                this.explorationTrace.write(record);
+            }
+        }
+    }
+
+    /**
+     * Executes a test case and generates tests for all the alternative branches
+     * starting from some depth up to some maximum depth, recording the time
+     * spent in each stage.
+     * 
+     * @param item a {@link EvosuiteResult}.
+     * @param record the {@link ExplorationTrace.Record} of {@code item}.
+     */
+    private void explore(EvosuiteResult item, ExplorationTrace.Record record) {
         if (this.o.getMaxDepth() <= 0) {
+            record.setOutcome("skipped");
             return;
         }
-        try (final RunnerPath rp = new RunnerPath(this.o, item, possiblyGetInitialStateCached(item))) {
+        final long startSetup = System.nanoTime();
+        try (final GuidedRunner rp = this.guidedRunnerFactory.make(this.o, item, possiblyGetInitialStateCached(item))) {
+            record.addSince(Stage.SETUP, startSetup);
             final TestCase tc = item.getTestCase();
             
             //runs the test case up to the final state, and takes the 
             //final state's path condition
-            final State stateFinal;
+            final List<Clause> pathConditionFinal;
+            final long startGuidedRun = System.nanoTime();
         	try {
-        		stateFinal = rp.runProgram();
+        		pathConditionFinal = rp.runToFinalState();
         	} catch (UninterpretedNoContextException e) {
                 LOGGER.info("Skipped test case %s because it invokes an uninterpreted function in the context of a model", tc.getClassName());
+                record.setOutcome("uninterpreted");
                 return;
+        	} finally {
+        		record.addSince(Stage.GUIDED_RUN, startGuidedRun);
         	}
-            if (stateFinal == null) {
+            if (pathConditionFinal == null) {
                 //the execution violated some assumption: prints some feedback
                 LOGGER.info("Run test case %s, the test case violated an assumption or exhausted a bound before arriving at the final state", tc.getClassName());
+                record.setOutcome("assumption_violated");
                 return;
             }
             final String entryPoint = item.getTargetMethodSignature();
-            final List<Clause> pathConditionFinal = stateFinal.getPathCondition();
 
             //prints some feedback
-            LOGGER.info("Run test case %s, path condition %s:%s", tc.getClassName(), entryPoint, stringifyTestPathCondition(pathConditionFinal));
+            LOGGER.info("Run test case %s, path condition %s:%s", tc::getClassName, () -> entryPoint, () -> stringifyTestPathCondition(pathConditionFinal));
+            
+            //if the exploration was deferred, the test case was already
+            //analyzed and only the path conditions at the deeper depths
+            //are missing
+            if (item.isDeferredExploration()) {
+                record.setOutcome("resumed");
+                if (this.testGeneratorTerminated) {
+                    return;
+                }
+                LOGGER.info("Resuming generation of path conditions from test case %s at depth %d", tc.getClassName(), item.getStartDepth());
+                final int depthFinal = Math.min(item.getStopDepth(), rp.getDepthFinal());
+                try {
+                    createOutputJobsForFrontiersAtAllDepths(rp, item, tc, possiblyClone(rp.getStateInitial()), pathConditionFinal, item.getStartDepth(), depthFinal, record);
+                } catch (InterruptedException e) {
+                    //the performer shut down
+                    record.setOutcome("interrupted");
+                }
+                return;
+            }
             
             //compares pathConditionFinal with the generating path condition, and
             //complains if the former does not refine the latter
@@ -136,9 +225,13 @@ implements PerformerEvosuiteListener {
             final int branchCoverage;
             final int branchCoverageTarget;
             final int branchCoverageUnsafe;
+            final long lockStart = System.nanoTime();
             synchronized (this.treePath) {
+                this.treePathLockWait.updateMicrosSince(lockStart);
                 if (this.treePath.containsPath(entryPoint, pathConditionFinal, true)) {
                     LOGGER.info("Test case %s redundant, skipped", tc.getClassName());
+                    record.addSince(Stage.TREE_PATH, lockStart);
+                    record.setOutcome("redundant");
                     return;
                 }
                 newCoveredBranches = this.treePath.insertPath(entryPoint, pathConditionFinal, coveredBranches, Collections.emptySet(), true);
@@ -146,6 +239,7 @@ implements PerformerEvosuiteListener {
         		branchCoverageTarget = this.treePath.totalCovered(this.o.patternBranchesTarget());
         		branchCoverageUnsafe = this.treePath.totalCovered(this.o.patternBranchesUnsafe());
             }
+            record.addSince(Stage.TREE_PATH, lockStart);
         	final long pathCoverage = this.pathCoverage.incrementAndGet();
 
             //emits coverage feedback
@@ -158,28 +252,40 @@ implements PerformerEvosuiteListener {
             //emits the test if it covers something new
             emitTestIfCoversSomethingNew(item, newCoveredBranches);
             
+            record.setOutcome("explored");
             if (this.testGeneratorTerminated) {
             	return;
             }
             
             //learns the new data for future update of indices
+            final long startIndices = System.nanoTime();
             learnDataForIndices(newCoveredBranches, coveredBranches, entryPoint, pathConditionFinal);
             
             //updates all indices and reclassifies all the items in output buffer
             //TODO possibly do it more lazily!
             updateIndicesAndReclassify();
+            
+            //rescores the test cases waiting to be explored, if the coverage changed
+            if (!newCoveredBranches.isEmpty()) {
+                this.in.rescore();
+            }
+            record.addSince(Stage.INDICES, startIndices);
 
             //reruns the test case at all the depths in the range, generates all the modified 
-            //path conditions and puts all the output jobs in the output queue
+            //path conditions and puts all the output jobs in the output queue (the
+            //wrappers of all the output jobs are formatted from the same copy of the
+            //initial state, that the reruns do not modify)
         	final int depthStart = item.getStartDepth();
-            final int depthFinal = Math.min(depthStart + this.o.getMaxTestCaseDepth(), stateFinal.getDepth());
+            final int depthFinal = Math.min(depthStart + this.o.getMaxTestCaseDepth(), rp.getDepthFinal());
             try {
-				createOutputJobsForFrontiersAtAllDepths(rp, item, tc, stateInitial, stateFinal, depthStart, depthFinal);
+				createOutputJobsForFrontiersAtAllDepths(rp, item, tc, possiblyClone(stateInitial), pathConditionFinal, depthStart, depthFinal, record);
 			} catch (InterruptedException e) {
 				//the performer shut down
+				record.setOutcome("interrupted");
 				return;
 			}
         } catch (NoTargetHitException e) {
+            record.setOutcome("no_target_hit");
             //prints some feedback
             LOGGER.warn("Run test case %s, does not reach the target method %s", item.getTestCase().getClassName(), item.getTargetMethodSignature());
         } catch (DecisionException | CannotBuildEngineException | InitializationException |
@@ -237,13 +343,16 @@ implements PerformerEvosuiteListener {
         return (value == null ? null : value.clone());
     }
     
-    private synchronized void possiblySetInitialStateCached(EvosuiteResult item, State initialState) {
-        final String key = item.getTargetMethodSignature();
-        if (this.initialStateCache.containsKey(key)) {
+    private void possiblySetInitialStateCached(EvosuiteResult item, State initialState) {
+        if (initialState == null) {
             return;
-        } else {
-            this.initialStateCache.put(key, initialState.clone());
         }
+        final String key = item.getTargetMethodSignature();
+        this.initialStateCache.computeIfAbsent(key, k -> initialState.clone());
+    }
+    
+    private static State possiblyClone(State state) {
+        return (state == null ? null : state.clone());
     }
     
     private void learnDataForIndices(Set<String> newCoveredBranches, Set<String> coveredBranches, String entryPoint, List<Clause> pathConditionFinal) {
@@ -320,13 +429,13 @@ implements PerformerEvosuiteListener {
     
     /**
      * 
-     * @param rp a {@link RunnerPath} for the test.
+     * @param rp a {@link GuidedRunner} for the test.
      * @param item the {@link EvosuiteResult} associated to the
      *        current job.
      * @param tc the current {@link TestCase}.
      * @param stateInitial the initial guided symbolic execution state.
-     * @param stateFinal the final symbolic execution state of the full-depth
-     *                   guided execution.
+     * @param pathConditionFinal the path condition of the final symbolic 
+     *        execution state of the full-depth guided execution.
      * @param depthStart the start depth, an {@code int}.
      * @param depthFinal the stop depth, an {@code int}.
      * @throws DecisionException
@@ -344,14 +453,31 @@ implements PerformerEvosuiteListener {
      * @throws InterruptedException
      * @throws InvalidInputException
      */
-    private void createOutputJobsForFrontiersAtAllDepths(RunnerPath rp, EvosuiteResult item, TestCase tc, State stateInitial, State stateFinal, int depthStart, int depthFinal) 
+    private void createOutputJobsForFrontiersAtAllDepths(GuidedRunner rp, EvosuiteResult item, TestCase tc, State stateInitial, List<Clause> pathConditionFinal, int depthStart, int depthFinal, ExplorationTrace.Record record) 
     throws DecisionException, CannotBuildEngineException, InitializationException, InvalidClassFileFactoryClassException, NonexistingObservedVariablesException, 
     ClasspathException, CannotBacktrackException, CannotManageStateException, ThreadStackEmptyException, ContradictionException, EngineStuckException, 
     FailureException, InterruptedException, InvalidInputException {
         boolean noOutputJobGenerated = true;
+        boolean deferred = false;
         for (int depthCurrent = depthStart; depthCurrent <= depthFinal; ++depthCurrent) {
+        	//if there are too many path conditions in the output 
+        	//buffer defers the deeper depths until it drains
+        	if (depthCurrent > depthStart && this.out.isAboveHighWatermark()) {
+        		putBack(this.in, item.deferredExploration(depthCurrent, depthFinal));
+        		LOGGER.info("From test case %s deferring generation of path conditions from depth %d because too many path conditions are buffered", tc.getClassName(), depthCurrent);
+        		deferred = true;
+        		break;
+        	}
+        	
         	try {
-        		final List<State> statesPostFrontier = rp.runProgram(depthCurrent);
+        		final long startFrontierRun = System.nanoTime();
+        		final List<List<Clause>> pathConditionsPostFrontier;
+        		try {
+        			pathConditionsPostFrontier = rp.runToPostFrontier(depthCurrent);
+        		} finally {
+        			record.addSince(Stage.FRONTIER_RUNS, startFrontierRun);
+        			record.incrementNumOfDepths();
+        		}
 
         		//checks shutdown of the performer
         		if (Thread.interrupted()) {
@@ -359,34 +485,35 @@ implements PerformerEvosuiteListener {
         		}
 
         		//creates all the output jobs
-        		noOutputJobGenerated = createOutputJobsForFrontier(rp, statesPostFrontier, item, tc, stateInitial, stateFinal, depthCurrent) && noOutputJobGenerated;
+        		final long startFrontierJobs = System.nanoTime();
+        		noOutputJobGenerated = createOutputJobsForFrontier(rp, pathConditionsPostFrontier, item, tc, stateInitial, pathConditionFinal, depthCurrent, record) && noOutputJobGenerated;
+        		record.addSince(Stage.FRONTIER_JOBS, startFrontierJobs);
         	} catch (UninterpretedNoContextException e) {
                 LOGGER.info("From test case %s stopping generation of path conditions at depth %d because of invocation of an uninterpreted function in the context of a model", tc.getClassName(), depthCurrent);
                 break;
         	}
         }
-        if (noOutputJobGenerated) {
+        if (noOutputJobGenerated && !deferred) {
             LOGGER.info("From test case %s no path condition generated", tc.getClassName());
         }
     }
     
-    private boolean createOutputJobsForFrontier(RunnerPath rp, List<State> statesPostFrontier, EvosuiteResult item, TestCase tc, State stateInitial, State stateFinal, int depthCurrent) 
+    private boolean createOutputJobsForFrontier(GuidedRunner rp, List<List<Clause>> pathConditionsPostFrontier, EvosuiteResult item, TestCase tc, State stateInitial, List<Clause> pathConditionFinal, int depthCurrent, ExplorationTrace.Record record) 
     throws InvalidInputException {
         //gives some feedback if detects a contradiction
-        if (statesPostFrontier.isEmpty()) {
+        if (pathConditionsPostFrontier.isEmpty()) {
             LOGGER.info("Test case %s, detected contradiction while generating path conditions at depth %d", tc.getClassName(), depthCurrent);
         }
 
         final String entryPoint = item.getTargetMethodSignature();
     	boolean noOutputJobGenerated = true;
-        final State statePreFrontier = rp.getStatePreFrontier();
         final List<String> branchesPostFrontier = rp.getBranchesPostFrontier(); 
         
         //scans the post frontier states
-        for (int i = 0; i < statesPostFrontier.size(); ++i) {
+        for (int i = 0; i < pathConditionsPostFrontier.size(); ++i) {
         	//gets the path condition of the post frontier state
-            final State statePostFrontier = statesPostFrontier.get(i);
-            final List<Clause> pathConditionStatePostFrontier = statePostFrontier.getPathCondition();
+            final State statePostFrontier = rp.getStatePostFrontier(i); //null if rp does not build states
+            final List<Clause> pathConditionStatePostFrontier = pathConditionsPostFrontier.get(i);
             
             //determines if the last clause in the path condition of the 
             //post frontier state is an expands one
@@ -403,10 +530,7 @@ implements PerformerEvosuiteListener {
             	//expansion types that have been already
             	//tried in the previous iterations, if any
             	final MethodAndPathConditon methodAndPathCondition = new MethodAndPathConditon(entryPoint, shorten(pathConditionStatePostFrontier));
-        		if (!this.freshObjectsExpansions.containsKey(methodAndPathCondition)) {
-        			this.freshObjectsExpansions.put(methodAndPathCondition, Collections.synchronizedSet(new HashSet<>()));
-        		}
-        		forbiddenExpansions = this.freshObjectsExpansions.get(methodAndPathCondition);
+        		forbiddenExpansions = this.freshObjectsExpansions.computeIfAbsent(methodAndPathCondition, k -> Collections.synchronizedSet(new HashSet<>()));
 
         		//finds the clause that predicates on 
         		//referenceToExpand in the path condition 
@@ -414,7 +538,7 @@ implements PerformerEvosuiteListener {
         		//test-guided full-depth symbolic execution
             	final ReferenceSymbolic referenceToExpand = ((ClauseAssumeExpands) pathConditionStatePostFrontierLastClause).getReference();
             	Clause pathConditionStateFinalLastClause = null;
-            	for (Clause clause : stateFinal.getPathCondition()) {
+            	for (Clause clause : pathConditionFinal) {
             		if (clause instanceof ClauseAssumeReferenceSymbolic && 
             		((ClauseAssumeReferenceSymbolic) clause).getReference().equals(referenceToExpand)) {
             			pathConditionStateFinalLastClause = clause;
@@ -428,7 +552,7 @@ implements PerformerEvosuiteListener {
             	//set, so the next test generation looks for a different
             	//expansion type (this also update this.freshObjectsExpansions)
             	if (pathConditionStateFinalLastClause instanceof ClauseAssumeExpands) {
-            		final HeapObjekt objectFreshFullTestExecution = stateFinal.getObject(((ClauseAssumeReferenceSymbolic) pathConditionStateFinalLastClause).getReference()); //TODO is ok to use getObjekt as in the next line? Note that getObjekt gets the initial object, while this line gets the final object
+            		final HeapObjekt objectFreshFullTestExecution = rp.getStateFinal().getObject(((ClauseAssumeReferenceSymbolic) pathConditionStateFinalLastClause).getReference()); //TODO is ok to use getObjekt as in the next line? Note that getObjekt gets the initial object, while this line gets the final object
             		final HeapObjekt objectFreshPostFrontier = ((ClauseAssumeExpands) pathConditionStatePostFrontierLastClause).getObjekt();  //TODO is ok to use getObjekt as in the next line? Note that getObjekt gets the initial object, while the line above gets the final object 
             		if (objectFreshPostFrontier.getType().equals(objectFreshFullTestExecution.getType())) {
                 		forbiddenExpansions.add(objectFreshFullTestExecution.getType().getClassName());
@@ -462,32 +586,67 @@ implements PerformerEvosuiteListener {
         	//inserts the generated path condition in the treePath 
             //if it is not already present and if it does not violate 
             //some basic assumptions on model maps, otherwise skips
-        	final ClassHierarchy hier = statePostFrontier.getClassHierarchy();
-        	if (!pathConditionStatePostFrontierMangled.isEmpty() && mapModelAssumptionViolated(hier, pathConditionStatePostFrontierLastClause)) { //TODO should't the second parameter to mapModelAssumptionViolated be pathConditionStatePostFrontierMangledLastClause instead?
-        		LOGGER.info("From test case %s skipping generated post-frontier path condition %s:%s because clause %s contradicts initialMap assumptions", tc.getClassName(), entryPoint, stringifyPostFrontierPathCondition(pathConditionStatePostFrontierMangled), pathConditionStatePostFrontierMangled.get(pathConditionStatePostFrontierMangled.size() - 1));
+        	if (!pathConditionStatePostFrontierMangled.isEmpty() && rp.mapModelAssumptionViolated(i, pathConditionStatePostFrontierLastClause)) { //TODO should't the second parameter to mapModelAssumptionViolated be pathConditionStatePostFrontierMangledLastClause instead?
+        		LOGGER.info("From test case %s skipping generated post-frontier path condition %s:%s because clause %s contradicts initialMap assumptions", tc::getClassName, () -> entryPoint, () -> stringifyPostFrontierPathCondition(pathConditionStatePostFrontierMangled), () -> pathConditionStatePostFrontierMangled.get(pathConditionStatePostFrontierMangled.size() - 1));
         		continue;
         	}
+            final long lockStart = System.nanoTime();
             synchronized (this.treePath) {
+            	this.treePathLockWait.updateMicrosSince(lockStart);
             	if (this.treePath.containsPath(entryPoint, pathConditionStatePostFrontierMangled, false)) {
-            		LOGGER.info("From test case %s skipping generated post-frontier path condition %s:%s because redundant", tc.getClassName(), entryPoint, stringifyPostFrontierPathCondition(pathConditionStatePostFrontierMangled));
+            		LOGGER.info("From test case %s skipping generated post-frontier path condition %s:%s because redundant", tc::getClassName, () -> entryPoint, () -> stringifyPostFrontierPathCondition(pathConditionStatePostFrontierMangled));
+            		continue;
+            	}
+            	
+            	//skips the path condition if it is equivalent (same clauses
+            	//up to order and class initialization) to a path condition 
+            	//that was already emitted, without inserting it in the 
+            	//treePath
+            	if (!this.pathConditionDeduplicator.addIfNew(entryPoint, pathConditionStatePostFrontierMangled)) {
+            		LOGGER.info("From test case %s skipping generated post-frontier path condition %s:%s because equivalent to a previously generated one", tc::getClassName, () -> entryPoint, () -> stringifyPostFrontierPathCondition(pathConditionStatePostFrontierMangled));
             		continue;
             	}
             	this.treePath.insertPath(entryPoint, pathConditionStatePostFrontierMangled, rp.getCoverage(), branchesPostFrontier, false);
             }
             
-            //creates the output job...
+            //possibly skips the path condition if the solver proves 
+            //it unsatisfiable, and learns that it is infeasible
+            final long startPrecheck = System.nanoTime();
+            final boolean provablyInfeasible = (this.infeasibilityPrechecker != null && this.infeasibilityPrechecker.isProvablyInfeasible(pathConditionStatePostFrontierMangled));
+            record.addSince(Stage.PRECHECK, startPrecheck);
+            if (provablyInfeasible) {
+                LOGGER.info("From test case %s skipping generated post-frontier path condition %s:%s because unsatisfiable", tc::getClassName, () -> entryPoint, () -> stringifyPostFrontierPathCondition(pathConditionStatePostFrontierMangled));
+                if (this.o.getUseIndexInfeasibility()) {
+                	this.out.learnPathConditionForIndexInfeasibility(entryPoint, pathConditionStatePostFrontierMangled, false);
+                }
+                continue;
+            }
+            
+            //creates the output job (this formats the EvoSuite wrapper, 
+            //so the job does not retain the states)...
             final boolean atJump = rp.getAtJump();
             final Map<Long, String> stringLiterals = rp.getStringLiterals().get(i);
             final Set<Long> stringOthers = rp.getStringOthers().get(i); 
-            final JBSEResult output = 
-            new JBSEResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), 
-                           stateInitial, statePreFrontier, statePostFrontier, pathConditionStatePostFrontierMangled, atJump, 
-                           (atJump ? branchesPostFrontier.get(i) : null), stringLiterals, stringOthers, 
-                           forbiddenExpansions, (postFrontierLastClauseIsExpands ? depthCurrent - 1 : depthCurrent));
+            final JBSEResult output;
+            try {
+            	output = new JBSEResult(item.getTargetMethodClassName(), item.getTargetMethodDescriptor(), item.getTargetMethodName(), 
+            	                        stateInitial, statePostFrontier, pathConditionStatePostFrontierMangled, atJump, 
+            	                        (atJump ? branchesPostFrontier.get(i) : null), stringLiterals, stringOthers, 
+            	                        forbiddenExpansions, (postFrontierLastClauseIsExpands ? depthCurrent - 1 : depthCurrent));
+            } catch (FrozenStateException | MethodNotFoundException | InvalidSlotException e) {
+                LOGGER.error("Internal error while creating the EvoSuite wrapper for post-frontier path condition %s:%s", entryPoint, stringifyPostFrontierPathCondition(pathConditionStatePostFrontierMangled));
+                LOGGER.error("Message: %s", e.toString());
+                LOGGER.error("Stack trace:");
+                for (StackTraceElement elem : e.getStackTrace()) {
+                    LOGGER.error("%s", elem.toString());
+                }
+                continue;
+            }
 
             //...and emits it in the output buffer
-            this.out.add(output);
-            LOGGER.info("From test case %s generated post-frontier path condition %s:%s%s", tc.getClassName(), entryPoint, stringifyPostFrontierPathCondition(output), (atJump ? (" aimed at branch " + branchesPostFrontier.get(i)) : ""));
+            getOutputBuffer().add(output);
+            record.incrementNumOfPathConditions();
+            LOGGER.info("From test case %s generated post-frontier path condition %s:%s%s", tc::getClassName, () -> entryPoint, () -> stringifyPostFrontierPathCondition(output), () -> (atJump ? (" aimed at branch " + output.getTargetBranch()) : ""));
             noOutputJobGenerated = false;
         }
         return noOutputJobGenerated;
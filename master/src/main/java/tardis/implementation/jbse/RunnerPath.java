@@ -19,6 +19,7 @@ import java.util.stream.Collectors;
 import jbse.algo.exc.CannotManageStateException;
 import jbse.algo.exc.NotYetImplementedException;
 import jbse.apps.run.DecisionProcedureGuidanceJDI;
+import jbse.apps.run.JAVA_MAP_Utils;
 import jbse.bc.Signature;
 import jbse.bc.exc.InvalidClassFileFactoryClassException;
 import jbse.common.exc.ClasspathException;
@@ -38,6 +39,7 @@ import jbse.jvm.exc.EngineStuckException;
 import jbse.jvm.exc.FailureException;
 import jbse.jvm.exc.InitializationException;
 import jbse.jvm.exc.NonexistingObservedVariablesException;
+import jbse.mem.Clause;
 import jbse.mem.State;
 import jbse.mem.exc.ContradictionException;
 import jbse.mem.exc.ThreadStackEmptyException;
@@ -51,6 +53,8 @@ import jbse.rules.LICSRulesRepo;
 import tardis.Options;
 import tardis.implementation.evosuite.EvosuiteResult;
 import tardis.implementation.evosuite.TestCase;
+import tardis.metrics.Histogram;
+import tardis.metrics.Metrics;
 
 /**
  * A class that exploits JBSE to perform guided symbolic execution
@@ -58,8 +62,17 @@ import tardis.implementation.evosuite.TestCase;
  *  
  * @author Pietro Braione
  */
-final class RunnerPath implements AutoCloseable {
+final class RunnerPath implements GuidedRunner {
     private static final String SWITCH_CHAR = System.getProperty("os.name").toLowerCase().contains("windows") ? "/" : "-";
+    
+    /** Times of the concrete (JDI) runs that count the hits of the target method. */
+    private static final Histogram TIME_COUNT_INVOCATIONS = Metrics.histogram("runner_path.jdi_count_invocations_ms");
+    
+    /** Times of the guided runs up to the pre-frontier, driven by JDI and checked by the solver. */
+    private static final Histogram TIME_GUIDED_RUN = Metrics.histogram("runner_path.guided_run_ms");
+    
+    /** Times of the symbolic runs after the frontier, dominated by the solver (z3). */
+    private static final Histogram TIME_POST_FRONTIER_RUN = Metrics.histogram("runner_path.post_frontier_run_ms");
 
     private final String z3Path;
     private final String targetMethodClassName;
@@ -74,6 +87,8 @@ final class RunnerPath implements AutoCloseable {
     private RunnerPreFrontier runnerPreFrontier = null;
     private State statePreFrontier = null;
     private RunnerPostFrontier runnerPostFrontier = null;
+    private State stateFinal = null;
+    private List<State> statesPostFrontier = Collections.emptyList();
     
     public RunnerPath(Options o, EvosuiteResult item, State initialState) 
     throws DecisionException, CannotBuildEngineException, InitializationException, InvalidClassFileFactoryClassException, 
@@ -188,6 +203,49 @@ final class RunnerPath implements AutoCloseable {
         return (endStates.size() == 0 ? null : endStates.get(0));
     }
     
+    @Override
+    public List<Clause> runToFinalState()
+    throws DecisionException, CannotBuildEngineException, InitializationException, 
+    InvalidClassFileFactoryClassException, NonexistingObservedVariablesException, 
+    ClasspathException, CannotBacktrackException, CannotManageStateException, 
+    ThreadStackEmptyException, ContradictionException, EngineStuckException, 
+    FailureException {
+        this.stateFinal = runProgram();
+        return (this.stateFinal == null ? null : this.stateFinal.getPathCondition());
+    }
+    
+    @Override
+    public int getDepthFinal() {
+        return this.stateFinal.getDepth();
+    }
+    
+    @Override
+    public State getStateFinal() {
+        return this.stateFinal;
+    }
+    
+    @Override
+    public List<List<Clause>> runToPostFrontier(int testDepth)
+    throws DecisionException, CannotBuildEngineException, InitializationException, 
+    InvalidClassFileFactoryClassException, NonexistingObservedVariablesException, 
+    ClasspathException, CannotBacktrackException, CannotManageStateException, 
+    ThreadStackEmptyException, ContradictionException, EngineStuckException, 
+    FailureException {
+        this.statesPostFrontier = runProgram(testDepth);
+        return this.statesPostFrontier.stream().map(State::getPathCondition).collect(Collectors.toList());
+    }
+    
+    @Override
+    public State getStatePostFrontier(int i) {
+        return this.statesPostFrontier.get(i);
+    }
+    
+    @Override
+    public boolean mapModelAssumptionViolated(int i, Clause clause) {
+        //qualified, since this method hides the one of JAVA_MAP_Utils
+        return JAVA_MAP_Utils.mapModelAssumptionViolated(this.statesPostFrontier.get(i).getClassHierarchy(), clause);
+    }
+    
     /**
      * Performs symbolic execution of the target method guided by a test case 
      * up to some depth, then peeks the states on the next branch.  
@@ -229,12 +287,14 @@ final class RunnerPath implements AutoCloseable {
         //runs up to the pre-frontier
         if (this.runnerPreFrontier == null || 
         !this.runnerPreFrontier.foundPreFrontier() ||
-        this.runnerPreFrontier.getPreFrontierState().getDepth() >= testDepth) {
+        this.runnerPreFrontier.getPreFrontierDepth() >= testDepth) {
             makeRunnerPreFrontier();
         }
     	final int postFrontierDepth = Math.min(this.maxDepth, testDepth);
         this.runnerPreFrontier.setPostFrontierDepth(testDepth < 0 ? this.maxDepth : postFrontierDepth);
+        final long startGuided = System.nanoTime();
         this.runnerPreFrontier.run();
+        TIME_GUIDED_RUN.updateMillisSince(startGuided);
         
         //returns the result
         if (testDepth < 0) {
@@ -248,14 +308,19 @@ final class RunnerPath implements AutoCloseable {
         		return Collections.emptyList();
         	}
         } else if (this.runnerPreFrontier.foundPreFrontier()) {
-        	//steps to all the post-frontier states and gathers them
-        	this.statePreFrontier = this.runnerPreFrontier.getPreFrontierState().clone();
+        	//steps to all the post-frontier states and gathers them;
+        	//the pre-frontier state is already a copy private to this 
+        	//frontier, so the post-frontier runner starts from it and
+        	//the post-frontier states are its only copies
+        	this.statePreFrontier = this.runnerPreFrontier.getPreFrontierState();
         	makeRunnerPostFrontier();
         	if (this.runnerPostFrontier == null) {
         		return Collections.emptyList();
         	} else {
         		this.runnerPostFrontier.setPostFrontierDepth(postFrontierDepth);
+        		final long startPostFrontier = System.nanoTime();
         		this.runnerPostFrontier.run();
+        		TIME_POST_FRONTIER_RUN.updateMillisSince(startPostFrontier);
         		return this.runnerPostFrontier.getStatesPostFrontier();
         	}
         } else {
@@ -369,7 +434,12 @@ final class RunnerPath implements AutoCloseable {
     CannotManageStateException, ThreadStackEmptyException, EngineStuckException, FailureException {
         final RunnerParameters pConcrete = this.commonParamsConcrete.clone();
         completeParametersConcrete(pConcrete);        
-        return countNonRecursiveHits(pConcrete, new Signature(methodClassName, methodDescriptor, methodName));
+        final long start = System.nanoTime();
+        try {
+            return countNonRecursiveHits(pConcrete, new Signature(methodClassName, methodDescriptor, methodName));
+        } finally {
+            TIME_COUNT_INVOCATIONS.updateMillisSince(start);
+        }
     }
 
     /**
@@ -380,6 +450,7 @@ final class RunnerPath implements AutoCloseable {
      * @return a {@link State} or {@code null} if this method is invoked
      *         before an invocation of {@link #runProgram(int)}.
      */
+    @Override
     public State getStateInitial() {
         State retVal = this.commonParamsSymbolic.getStartingState();
         if (retVal == null) {
@@ -393,20 +464,6 @@ final class RunnerPath implements AutoCloseable {
         return retVal;
     }
 
-    /**
-     * Must be invoked after an invocation of {@link #runProgram(int) runProgram(depth)}.
-     * Returns the pre-frontier state of symbolic execution, i.e., the state at depth 
-     * {@code depth}.
-     * 
-     * @return a {@link State}. If this method is invoked
-     *         before an invocation of {@link #runProgram(int)},
-     *         or if the execution does not reach the frontier,
-     *         returns {@code null}.
-     */
-    public State getStatePreFrontier() {
-        return this.statePreFrontier;
-    }
-
     /**
      * Must be invoked after an invocation of {@link #runProgram(int) runProgram(depth)}.
      * Returns whether the frontier is at a jump bytecode.
@@ -416,6 +473,7 @@ final class RunnerPath implements AutoCloseable {
      *         or if the execution does not reach the frontier,
      *         returns {@code false}.
      */
+    @Override
     public boolean getAtJump() {
         return (this.runnerPostFrontier == null ? false : this.runnerPostFrontier.atJump());
     }
@@ -432,6 +490,7 @@ final class RunnerPath implements AutoCloseable {
      *         or if the execution does not reach the frontier,
      *         returns an empty {@link List}.
      */
+    @Override
     public List<String> getBranchesPostFrontier() {
         return (this.runnerPostFrontier == null ? Collections.emptyList() : this.runnerPostFrontier.getBranchesPostFrontier());
     }
@@ -450,6 +509,7 @@ final class RunnerPath implements AutoCloseable {
      *         or if the execution does not reach the frontier,
      *         returns an empty {@link List}.
      */
+    @Override
     public List<? extends Map<Long, String>> getStringLiterals() {
         return (this.runnerPostFrontier == null ? Collections.emptyList() : this.runnerPostFrontier.getStringLiterals());
     }
@@ -468,6 +528,7 @@ final class RunnerPath implements AutoCloseable {
      *         or if the execution does not reach the frontier,
      *         returns an empty {@link List}.
      */
+    @Override
     public List<? extends Set<Long>> getStringOthers() {
         return (this.runnerPostFrontier == null ? Collections.emptyList() : this.runnerPostFrontier.getStringOthers());
     }
@@ -483,6 +544,7 @@ final class RunnerPath implements AutoCloseable {
      *         or if the execution does not reach the frontier,
      *         returns an empty {@link Set}.
      */
+    @Override
     public Set<String> getCoverage() {
     	final HashSet<String> retVal = (this.runnerPreFrontier == null ? new HashSet<>() : new HashSet<>(this.runnerPreFrontier.getCoverage()));
     	if (this.runnerPostFrontier != null) {
@@ -259,6 +259,13 @@ final class RunnerPostFrontier implements AutoCloseable {
             return false;
         }
         
+        /**
+         * Records a post-frontier state. 
+         * 
+         * @param s a {@link State}. It is cloned, because after it is 
+         *        recorded the engine still modifies it when it stops 
+         *        the current path and backtracks.
+         */
         private void recordState(State s) {
             if (!RunnerPostFrontier.this.contradictory) {
             	RunnerPostFrontier.this.statesPostFrontier.add(s.clone());
@@ -67,6 +67,7 @@ final class RunnerPreFrontier implements AutoCloseable {
 	private boolean foundPreFrontier = false;
 	private boolean foundFinalState = false;
 	private State preFrontierState;
+	private int preFrontierDepth = -1;
 
 	public RunnerPreFrontier(RunnerParameters runnerParameters, long maxCount) throws NotYetImplementedException,
 	CannotBuildEngineException, DecisionException, InitializationException, InvalidClassFileFactoryClassException,
@@ -101,10 +102,34 @@ final class RunnerPreFrontier implements AutoCloseable {
 		return this.foundPreFrontier;
 	}
 
+	/**
+	 * Returns the pre-frontier state.
+	 * 
+	 * @return a {@link State}, a copy of the current state taken
+	 *         when it was at the pre-frontier. The caller may
+	 *         take ownership of it (e.g., to start a post-frontier
+	 *         exploration from it), since this runner does not 
+	 *         use it after taking it, and replaces it with a fresh
+	 *         copy when it arrives at the next pre-frontier.
+	 */
 	public State getPreFrontierState() {
 		return this.preFrontierState;
 	}
 
+	/**
+	 * Returns the depth of the pre-frontier state. Differently
+	 * from {@code getPreFrontierState().getDepth()} it is not 
+	 * affected by the modifications of the pre-frontier state
+	 * by its owner.
+	 * 
+	 * @return an {@code int}, the depth of the state returned by
+	 *         {@link #getPreFrontierState()}, or {@code -1} if
+	 *         no pre-frontier state was found yet.
+	 */
+	public int getPreFrontierDepth() {
+		return this.preFrontierDepth;
+	}
+
 	public boolean foundFinalState() {
 		return this.foundFinalState;
 	}
@@ -181,6 +206,7 @@ final class RunnerPreFrontier implements AutoCloseable {
 					if (isBytecodeBranch(currentInstruction) &&
 					currentState.getDepth() == RunnerPreFrontier.this.postFrontierDepth - 1) {
 						RunnerPreFrontier.this.preFrontierState = currentState.clone();
+						RunnerPreFrontier.this.preFrontierDepth = currentState.getDepth();
 					}
 				} catch (ThreadStackEmptyException | FrozenStateException e) {
 					// this should never happen
@@ -0,0 +1,102 @@
+package tardis.implementation.jbse;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jbse.apps.StateFormatterSushiPathCondition;
+import jbse.mem.State;
+import jbse.mem.exc.FrozenStateException;
+
+/**
+ * The source code of the EvoSuite wrapper that evaluates a
+ * path condition. It is formatted when the path condition is
+ * generated, so the {@link JBSEResult}s waiting for EvoSuite
+ * need not hold the {@link State}s it is formatted from. The
+ * wrapper class is named after the number of the test, that
+ * is assigned only when the {@link JBSEResult} is dequeued,
+ * so the source is formatted with a placeholder number that
+ * {@link #emit(int)} replaces. It is immutable.
+ *
+ * @author Pietro Braione
+ */
+public final class WrapperSource {
+    /** The number the source is formatted with. */
+    private static final int TEST_COUNT_PLACEHOLDER = Integer.MAX_VALUE;
+
+    /** Matches the placeholder number at the end of an identifier. */
+    private static final Pattern PATTERN_PLACEHOLDER = Pattern.compile("_" + TEST_COUNT_PLACEHOLDER + "(?!\\d)");
+
+    /** The name of the package of the wrapper. */
+    private final String packageName;
+
+    /** The source of the wrapper, with the placeholder number. */
+    private final String template;
+
+    /**
+     * Formats the wrapper for the path condition of some state.
+     *
+     * @param initialState a {@link State}; must be the initial state in the execution
+     *        for which we want to generate the wrapper. It is not modified.
+     * @param finalState a {@link State}; must be the final state in the execution
+     *        for which we want to generate the wrapper. It is not modified.
+     * @param stringLiterals a {@link Map}{@code <}{@link Long}{@code , }{@link String}{@code >},
+     *        mapping a heap position of a {@link String} literal to the
+     *        corresponding value of the literal.
+     * @param stringOthers a {@link Set}{@code <}{@link Long}{@code >},
+     *        listing the heap positions of the nonconstant {@link String}s.
+     * @param forbiddenExpansions a {@link Set}{@code <}{@link String}{@code >},
+     *        containing the class names of the expansions that are forbidden,
+     *        or {@code null}.
+     * @return a {@link WrapperSource}.
+     * @throws FrozenStateException if {@code initialState} is frozen.
+     */
+    public static WrapperSource format(State initialState, State finalState, Map<Long, String> stringLiterals, Set<Long> stringOthers, Set<String> forbiddenExpansions)
+    throws FrozenStateException {
+        final String initialCurrentClassName = initialState.getStack().get(0).getMethodClass().getClassName();
+        final int lastSlash = initialCurrentClassName.lastIndexOf('/');
+        final String initialCurrentClassPackageName = (lastSlash == -1 ? "" : initialCurrentClassName.substring(0, lastSlash));
+
+        final StateFormatterSushiPathCondition fmt = new StateFormatterSushiPathCondition(initialCurrentClassPackageName, TEST_COUNT_PLACEHOLDER, () -> initialState, true);
+        try {
+            fmt.setStringConstants(stringLiterals);
+            fmt.setStringNonconstants(stringOthers);
+            if (forbiddenExpansions != null) {
+                fmt.setForbiddenExpansions(forbiddenExpansions);
+            }
+            fmt.formatPrologue();
+            fmt.formatState(finalState);
+            fmt.formatEpilogue();
+            return new WrapperSource(initialCurrentClassPackageName, fmt.emit());
+        } finally {
+            fmt.cleanup();
+        }
+    }
+
+    private WrapperSource(String packageName, String template) {
+        this.packageName = packageName;
+        this.template = template;
+    }
+
+    /**
+     * Returns the package of the wrapper.
+     *
+     * @return a {@link String}, the name of the package of the
+     *         wrapper class in internal (slash-separated) format.
+     */
+    public String getPackageName() {
+        return this.packageName;
+    }
+
+    /**
+     * Returns the source of the wrapper.
+     *
+     * @param testCount an {@code int}, the number used to identify the test.
+     * @return a {@link String}, the source of the wrapper class
+     *         for the test numbered {@code testCount}.
+     */
+    public String emit(int testCount) {
+        return PATTERN_PLACEHOLDER.matcher(this.template).replaceAll(Matcher.quoteReplacement("_" + testCount));
+    }
+}
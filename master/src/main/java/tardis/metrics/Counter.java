@@ -0,0 +1,43 @@
+package tardis.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing counter. It is cheap
+ * to update concurrently.
+ * 
+ * @author Pietro Braione
+ */
+public final class Counter {
+    /** The value of the counter. */
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+        //nothing to do
+    }
+
+    /**
+     * Increments this counter by one.
+     */
+    public void increment() {
+        this.value.increment();
+    }
+
+    /**
+     * Increments this counter.
+     * 
+     * @param n a {@code long}, the increment.
+     */
+    public void add(long n) {
+        this.value.add(n);
+    }
+
+    /**
+     * Returns the value of this counter.
+     * 
+     * @return a {@code long}.
+     */
+    public long get() {
+        return this.value.sum();
+    }
+}
@@ -0,0 +1,112 @@
+package tardis.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A distribution of nonnegative {@code long} values, e.g., 
+ * durations. It keeps the count, the sum, the minimum and the
+ * maximum of the values, and counts them in buckets whose 
+ * bounds are the powers of two, so the percentiles are 
+ * approximated within a factor two. It is cheap to update 
+ * concurrently.
+ * 
+ * @author Pietro Braione
+ */
+public final class Histogram {
+    /** The number of buckets. */
+    private static final int NUM_BUCKETS = 64;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0L);
+
+    /** 
+     * The bucket {@code i > 0} counts the values {@code v} such that 
+     * {@code 2}<sup>{@code i - 1}</sup>{@code  <= v < 2}<sup>{@code i}</sup>, 
+     * the bucket {@code 0} counts the zeros. 
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+
+    Histogram() {
+        //nothing to do
+    }
+
+    /**
+     * Records a value.
+     * 
+     * @param value a {@code long}. Negative values
+     *        are recorded as zero.
+     */
+    public void update(long value) {
+        final long v = Math.max(0L, value);
+        this.count.increment();
+        this.sum.add(v);
+        this.min.accumulateAndGet(v, Math::min);
+        this.max.accumulateAndGet(v, Math::max);
+        this.buckets.incrementAndGet(NUM_BUCKETS - Long.numberOfLeadingZeros(v));
+    }
+
+    /**
+     * Records the milliseconds elapsed since a time.
+     * 
+     * @param startNanos a {@code long}, a value previously 
+     *        returned by {@link System#nanoTime()}.
+     */
+    public void updateMillisSince(long startNanos) {
+        update((System.nanoTime() - startNanos) / 1_000_000L);
+    }
+
+    /**
+     * Records the microseconds elapsed since a time.
+     * 
+     * @param startNanos a {@code long}, a value previously 
+     *        returned by {@link System#nanoTime()}.
+     */
+    public void updateMicrosSince(long startNanos) {
+        update((System.nanoTime() - startNanos) / 1_000L);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    public long getMin() {
+        final long retVal = this.min.get();
+        return (retVal == Long.MAX_VALUE ? 0L : retVal);
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Returns an approximation of a percentile.
+     * 
+     * @param percentile a {@code double} between {@code 0} and {@code 100}.
+     * @return a {@code long}, the upper bound of the bucket 
+     *         where the percentile falls, capped by {@link #getMax()}.
+     */
+    public long getPercentile(double percentile) {
+        final long total = getCount();
+        if (total == 0) {
+            return 0L;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100.0d);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; ++i) {
+            seen += this.buckets.get(i);
+            if (seen >= rank) {
+                final long upperBound = (i == 0 ? 0L : (i == NUM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1));
+                return Math.min(upperBound, getMax());
+            }
+        }
+        return getMax();
+    }
+}
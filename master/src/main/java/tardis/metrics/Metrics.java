@@ -0,0 +1,97 @@
+package tardis.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The registry of the metrics of TARDIS. The metrics are 
+ * identified by dot-separated names, and are created upon 
+ * their first lookup, so the instrumented code needs not 
+ * to know whether the metrics are reported: When they are 
+ * not, updating a metric costs little more than an 
+ * uncontended increment.
+ * 
+ * @author Pietro Braione
+ */
+public final class Metrics {
+    private static final ConcurrentHashMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a {@link Counter}, creating it if it does not exist.
+     * 
+     * @param name a {@link String}, the name of the counter.
+     * @return the {@link Counter} with name {@code name}.
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * Returns a {@link Histogram}, creating it if it does not exist.
+     * 
+     * @param name a {@link String}, the name of the histogram.
+     * @return the {@link Histogram} with name {@code name}.
+     */
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge, i.e., a metric whose value is 
+     * read on demand. A gauge with the same name
+     * is replaced.
+     * 
+     * @param name a {@link String}, the name of the gauge.
+     * @param value a {@link LongSupplier} returning the 
+     *        current value of the gauge. It must be 
+     *        thread-safe and fast.
+     */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * Takes a snapshot of all the metrics. Each {@link Histogram}
+     * contributes its count, sum, minimum, maximum and 
+     * percentiles as separate entries.
+     * 
+     * @return a {@link Map}{@code <}{@link String}{@code , }{@link Long}{@code >}
+     *         mapping the names of the metrics to their values, sorted by name.
+     */
+    static Map<String, Long> snapshot() {
+        final TreeMap<String, Long> retVal = new TreeMap<>();
+        for (Map.Entry<String, Counter> e : COUNTERS.entrySet()) {
+            retVal.put(e.getKey(), e.getValue().get());
+        }
+        for (Map.Entry<String, LongSupplier> e : GAUGES.entrySet()) {
+            try {
+                retVal.put(e.getKey(), e.getValue().getAsLong());
+            } catch (RuntimeException exc) {
+                //a gauge that fails is just not reported
+            }
+        }
+        for (Map.Entry<String, Histogram> e : HISTOGRAMS.entrySet()) {
+            final String name = e.getKey();
+            final Histogram h = e.getValue();
+            retVal.put(name + ".count", h.getCount());
+            retVal.put(name + ".sum", h.getSum());
+            retVal.put(name + ".min", h.getMin());
+            retVal.put(name + ".max", h.getMax());
+            retVal.put(name + ".p50", h.getPercentile(50.0d));
+            retVal.put(name + ".p90", h.getPercentile(90.0d));
+            retVal.put(name + ".p99", h.getPercentile(99.0d));
+        }
+        return retVal;
+    }
+
+    /**
+     * Do not instantiate!
+     */
+    private Metrics() {
+        //nothing to do
+    }
+}
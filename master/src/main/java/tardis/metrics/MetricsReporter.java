@@ -0,0 +1,219 @@
+package tardis.metrics;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Component that exposes the {@link Metrics} through JMX, 
+ * as the read-only attributes of the MBean {@code tardis:type=Metrics},
+ * and periodically dumps them in a directory, appending them 
+ * to the file {@code metrics.csv} and overwriting the file 
+ * {@code metrics.json} with the latest values.
+ * 
+ * @author Pietro Braione
+ */
+public final class MetricsReporter implements DynamicMBean {
+    private static final Logger LOGGER = LogManager.getFormatterLogger(MetricsReporter.class);
+    
+    /** The name of the MBean. */
+    private static final String MBEAN_NAME = "tardis:type=Metrics";
+    
+    /** The file where the metrics are appended. */
+    private final Path csvFilePath;
+    
+    /** The file where the latest metrics are written. */
+    private final Path jsonFilePath;
+
+    /** The period of the dumps. */
+    private final long periodDuration;
+
+    /** The {@link TimeUnit} for {@link #periodDuration}. */
+    private final TimeUnit periodTimeUnit;
+
+    /** The executor of the periodic dumps. */
+    private final ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(r -> { final Thread t = new Thread(r, "MetricsReporter"); t.setDaemon(true); return t; });
+    
+    /** The {@link ObjectName} of the MBean, or {@code null} if it is not registered. */
+    private ObjectName objectName = null;
+
+    /**
+     * Constructor.
+     *
+     * @param dumpDirectory a {@link Path}, the directory where the 
+     *        metrics are dumped. It must exist.
+     * @param periodDuration a positive {@code long}, the period of the dumps.
+     * @param periodTimeUnit the {@link TimeUnit} for {@code periodDuration}.
+     * @throws NullPointerException if {@code dumpDirectory == null || periodTimeUnit == null}.
+     * @throws IllegalArgumentException if {@code periodDuration <= 0}.
+     */
+    public MetricsReporter(Path dumpDirectory, long periodDuration, TimeUnit periodTimeUnit) {
+        if (dumpDirectory == null || periodTimeUnit == null) {
+            throw new NullPointerException("Invalid null parameter in metrics reporter constructor.");
+        }
+        if (periodDuration <= 0) {
+            throw new IllegalArgumentException("Invalid negative or zero parameter in metrics reporter constructor.");
+        }
+        this.csvFilePath = dumpDirectory.resolve("metrics.csv");
+        this.jsonFilePath = dumpDirectory.resolve("metrics.json");
+        this.periodDuration = periodDuration;
+        this.periodTimeUnit = periodTimeUnit;
+    }
+
+    /**
+     * Starts this {@link MetricsReporter}: Registers the
+     * MBean and schedules the dumps.
+     */
+    public void start() {
+        try {
+            final ObjectName objectName = new ObjectName(MBEAN_NAME);
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+                this.objectName = objectName;
+            }
+        } catch (JMException e) {
+            //the metrics are still dumped
+            LOGGER.warn("Unable to register the metrics MBean: %s", e.toString());
+        }
+        this.dumper.scheduleAtFixedRate(this::dump, this.periodDuration, this.periodDuration, this.periodTimeUnit);
+    }
+
+    /**
+     * Stops this {@link MetricsReporter}: Makes a last 
+     * dump and unregisters the MBean.
+     */
+    public void stop() {
+        this.dumper.shutdownNow();
+        dump();
+        if (this.objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+            } catch (JMException e) {
+                //nothing to do
+            }
+            this.objectName = null;
+        }
+    }
+
+    /**
+     * Dumps the metrics.
+     */
+    private synchronized void dump() {
+        try {
+            final long timestamp = System.currentTimeMillis();
+            final Map<String, Long> snapshot = Metrics.snapshot();
+            final boolean csvExists = Files.exists(this.csvFilePath);
+            try (final BufferedWriter w = Files.newBufferedWriter(this.csvFilePath, StandardCharsets.UTF_8, CREATE, APPEND)) {
+                if (!csvExists) {
+                    w.write("timestamp_ms,metric,value");
+                    w.newLine();
+                }
+                for (Map.Entry<String, Long> e : snapshot.entrySet()) {
+                    w.write(timestamp + "," + e.getKey() + "," + e.getValue());
+                    w.newLine();
+                }
+            }
+            final Path jsonFilePathTmp = this.jsonFilePath.resolveSibling(this.jsonFilePath.getFileName() + ".tmp");
+            try (final BufferedWriter w = Files.newBufferedWriter(jsonFilePathTmp, StandardCharsets.UTF_8)) {
+                w.write("{\"timestamp_ms\":" + timestamp + ",\"metrics\":{");
+                boolean first = true;
+                for (Map.Entry<String, Long> e : snapshot.entrySet()) {
+                    w.write((first ? "" : ",") + "\"" + e.getKey() + "\":" + e.getValue());
+                    first = false;
+                }
+                w.write("}}");
+                w.newLine();
+            }
+            try {
+                Files.move(jsonFilePathTmp, this.jsonFilePath, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(jsonFilePathTmp, this.jsonFilePath, REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            //must not propagate, otherwise the dumper is descheduled
+            LOGGER.error("Unexpected error while dumping the metrics");
+            LOGGER.error("Message: %s", e.toString());
+            LOGGER.error("Stack trace:");
+            for (StackTraceElement elem : e.getStackTrace()) {
+                LOGGER.error("%s", elem.toString());
+            }
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        final Long retVal = Metrics.snapshot().get(attribute);
+        if (retVal == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return retVal;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("The metrics are read-only.");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        final Map<String, Long> snapshot = Metrics.snapshot();
+        final AttributeList retVal = new AttributeList();
+        for (String attribute : attributes) {
+            final Long value = snapshot.get(attribute);
+            if (value != null) {
+                retVal.add(new Attribute(attribute, value));
+            }
+        }
+        return retVal;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList(); //the metrics are read-only
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        //the metrics MBean has no operations
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final Map<String, Long> snapshot = Metrics.snapshot();
+        final MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[snapshot.size()];
+        int i = 0;
+        for (String name : snapshot.keySet()) {
+            attributes[i++] = new MBeanAttributeInfo(name, "long", name, true, false, false);
+        }
+        return new MBeanInfo(getClass().getName(), "TARDIS metrics", attributes, null, null, null);
+    }
+}